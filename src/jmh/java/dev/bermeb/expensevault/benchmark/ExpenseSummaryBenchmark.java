@@ -0,0 +1,138 @@
+package dev.bermeb.expensevault.benchmark;
+
+import dev.bermeb.expensevault.control.service.ReceiptRollupService;
+import dev.bermeb.expensevault.control.service.ReceiptRollupSummary;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the expense summary read from the daily rollups in one statement with the three
+ * queries over {@code receipts} it replaced.
+ * <p>
+ * Needs a PostgreSQL database of its own, migrated and seeded with 5M receipts spread over four
+ * years on the first run, which takes a few minutes. Point it elsewhere with
+ * {@code -Dbenchmark.db.url}, {@code -Dbenchmark.db.username} and {@code -Dbenchmark.db.password},
+ * change the size with {@code -Dbenchmark.receipts}. Run with
+ * {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args=ExpenseSummaryBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExpenseSummaryBenchmark {
+
+    private static final int TOP_MERCHANTS = 10;
+    private static final int SEED_BATCH = 500_000;
+    private static final LocalDate SEED_START = LocalDate.of(2022, 1, 1);
+
+    private static final String SEED = "INSERT INTO receipts (amount, currency, merchant_name, date, category_id) " +
+            "SELECT round((1 + random() * 199)::numeric, 2), 'EUR', 'Merchant ' || (g * 7919 % 2000), " +
+            "?::date + (g % 1461), (ARRAY(SELECT id FROM categories ORDER BY name))[1 + g % ?] " +
+            "FROM generate_series(?, ?) AS g";
+
+    // What ReportService ran before, including the count that ignored the end date
+    private static final String LEGACY_SUM = "SELECT SUM(amount) FROM receipts WHERE date BETWEEN ? AND ?";
+    private static final String LEGACY_COUNT = "SELECT COUNT(*) FROM receipts WHERE date >= ?";
+    private static final String LEGACY_MERCHANTS = "SELECT merchant_name, SUM(amount), COUNT(*) FROM receipts " +
+            "WHERE date BETWEEN ? AND ? GROUP BY merchant_name ORDER BY SUM(amount) DESC";
+
+    @Param({"month", "year"})
+    private String period;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private ReceiptRollupService receiptRollupService;
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = new SingleConnectionDataSource(
+                System.getProperty("benchmark.db.url", "jdbc:postgresql://localhost:5432/expensevault_benchmark"),
+                System.getProperty("benchmark.db.username", "expensevault"),
+                System.getProperty("benchmark.db.password", "password"),
+                true);
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .load()
+                .migrate();
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        receiptRollupService = new ReceiptRollupService(jdbcTemplate);
+        seed(Integer.getInteger("benchmark.receipts", 5_000_000));
+
+        startDate = "month".equals(period) ? LocalDate.of(2025, 3, 1) : LocalDate.of(2025, 1, 1);
+        endDate = "month".equals(period) ? LocalDate.of(2025, 3, 31) : LocalDate.of(2025, 12, 31);
+
+        // A faster summary with different numbers is worthless, so refuse to measure it
+        ReceiptRollupSummary summary = receiptRollupService.summarize(startDate, endDate, null, null, TOP_MERCHANTS);
+        BigDecimal legacyTotal = jdbcTemplate.queryForObject(LEGACY_SUM, BigDecimal.class, startDate, endDate);
+        List<String> legacyMerchants = jdbcTemplate.queryForList(LEGACY_MERCHANTS, startDate, endDate).stream()
+                .limit(TOP_MERCHANTS)
+                .map(row -> (String) row.get("merchant_name"))
+                .toList();
+        List<String> merchants = summary.topMerchants().stream().map(merchant -> merchant.key()).toList();
+        if (legacyTotal == null || legacyTotal.compareTo(summary.totals().totalAmount()) != 0
+                || !Objects.equals(legacyMerchants, merchants)) {
+            throw new IllegalStateException("Rollup summary disagrees with the receipts, rebuild the rollups");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    public void rollupSingleStatement(Blackhole blackhole) {
+        blackhole.consume(receiptRollupService.summarize(startDate, endDate, null, null, TOP_MERCHANTS));
+    }
+
+    @Benchmark
+    public void legacyThreeQueries(Blackhole blackhole) {
+        blackhole.consume(jdbcTemplate.queryForObject(LEGACY_SUM, BigDecimal.class, startDate, endDate));
+        blackhole.consume(jdbcTemplate.queryForObject(LEGACY_COUNT, Long.class, startDate));
+        blackhole.consume(jdbcTemplate.queryForList(LEGACY_MERCHANTS, startDate, endDate));
+    }
+
+    private void seed(int receipts) {
+        long existing = jdbcTemplate.queryForObject("SELECT count(*) FROM receipts", Long.class);
+        if (existing >= receipts) {
+            return;
+        }
+
+        int categories = jdbcTemplate.queryForObject("SELECT count(*) FROM categories", Integer.class);
+        // Inserted through the triggers, so the rollups are built the way they are in production
+        for (long from = existing; from < receipts; from += SEED_BATCH) {
+            long to = Math.min(from + SEED_BATCH, receipts) - 1;
+            jdbcTemplate.update(SEED, SEED_START, categories, from, to);
+        }
+        jdbcTemplate.execute("ANALYZE receipts");
+        jdbcTemplate.execute("ANALYZE daily_receipt_rollups");
+    }
+}
@@ -0,0 +1,154 @@
+package dev.bermeb.expensevault.benchmark;
+
+import dev.bermeb.expensevault.boundary.dto.response.OcrResult;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The regex based parser that OcrService used before {@code ReceiptTextParser}.
+ * Only kept as the baseline for {@link ReceiptTextParserBenchmark} and
+ * {@code ReceiptTextParserDifferentialTest}; logging removed.
+ */
+public class LegacyReceiptTextParser {
+
+    private static final Pattern TOTAL_PATTERN = Pattern.compile(
+            "(?i)(?:summe|gesamt|total|sum|betrag|endsumme|zu\\s+zahlen)\\s*:?\\s*(\\d+[,.]\\d{2})",
+            Pattern.MULTILINE
+    );
+
+    private static final Pattern DATE_PATTERN = Pattern.compile(
+            "(\\d{1,2})[./](\\d{1,2})[./](\\d{2,4})",
+            Pattern.MULTILINE
+    );
+
+    private static final Pattern MERCHANT_PATTERN = Pattern.compile(
+            "^([A-ZÄÖÜ][A-ZÄÖÜa-zäöüß\\s&\\-.]{2,50})",
+            Pattern.MULTILINE
+    );
+
+    private static final Pattern AMOUNT_PATTERN = Pattern.compile(
+            "(\\d{1,3}(?:[,.]\\d{3})*[,.]\\d{2})\\s*€?\\s*EUR?",
+            Pattern.MULTILINE
+    );
+
+    public OcrResult parse(String text, float confidence) {
+        OcrResult.OcrResultBuilder builder = OcrResult.builder()
+                .rawText(text)
+                .confidence(confidence);
+
+        // Extract total amount
+        BigDecimal totalAmount = extractTotalAmount(text);
+        builder.totalAmount(totalAmount);
+
+        // Extract date
+        LocalDate date = extractDate(text);
+        builder.date(date);
+
+        // Extract merchant name
+        String merchantName = extractMerchantName(text);
+        builder.merchantName(merchantName);
+
+        // Extract detected items/amounts
+        List<String> detectedItems = extractItems(text);
+        builder.detectedItems(detectedItems);
+
+        return builder.build();
+    }
+
+    private BigDecimal extractTotalAmount(String text) {
+        Matcher matcher = TOTAL_PATTERN.matcher(text);
+        if (matcher.find()) {
+            // Replace comma with dot for BigDecimal parsing
+            String amountStr = matcher.group(1).replace(",", ".");
+            try {
+                return new BigDecimal(amountStr);
+            } catch (NumberFormatException e) {
+                // fall through to the largest amount
+            }
+        }
+
+        return findLargestAmount(text);
+    }
+
+    private BigDecimal findLargestAmount(String text) {
+        Matcher matcher = AMOUNT_PATTERN.matcher(text);
+        BigDecimal maxAmount = BigDecimal.ZERO;
+
+        while (matcher.find()) {
+            String amountStr = matcher.group(1).replace(",", ".");
+            try {
+                BigDecimal amount = new BigDecimal(amountStr);
+                if (amount.compareTo(maxAmount) > 0) {
+                    maxAmount = amount;
+                }
+            } catch (NumberFormatException e) {
+                // skip invalid amount
+            }
+        }
+
+        return maxAmount.compareTo(BigDecimal.ZERO) > 0 ? maxAmount : null;
+    }
+
+    private LocalDate extractDate(String text) {
+        Matcher matcher = DATE_PATTERN.matcher(text);
+        if (matcher.find()) {
+            String day = matcher.group(1);
+            String month = matcher.group(2);
+            String year = matcher.group(3);
+
+            // Handle 2-digit years
+            if (year.length() == 2) {
+                int yearInt = Integer.parseInt(year);
+                year = String.valueOf(yearInt < 50 ? 2000 + yearInt : 1900 + yearInt);
+            }
+
+            try {
+                String dateStr = String.format("%s-%s-%s", year,
+                        month.length() == 1 ? "0" + month : month,
+                        day.length() == 1 ? "0" + day : day);
+                return LocalDate.parse(dateStr, DateTimeFormatter.ISO_LOCAL_DATE);
+            } catch (DateTimeParseException e) {
+                // invalid date
+            }
+        }
+
+        return null;
+    }
+
+    private String extractMerchantName(String text) {
+        String[] lines = text.split("\n");
+        for (String line : lines) {
+            line = line.trim();
+            Matcher matcher = MERCHANT_PATTERN.matcher(line);
+            if (matcher.find() && line.length() < 50) {
+                String merchant = matcher.group(1).trim();
+                if (!merchant.matches("\\d+") && merchant.length() > 2) {
+                    return merchant;
+                }
+            }
+        }
+        return null;
+    }
+
+    private List<String> extractItems(String text) {
+        List<String> items = new ArrayList<>();
+        String[] lines = text.split("\n");
+
+        for (String line : lines) {
+            line = line.trim();
+            // Look for lines that contain both text and amounts
+            if (line.matches(".*[a-zA-ZäöüÄÖÜß].*\\d+[,.]\\d{2}.*")) {
+                items.add(line);
+            }
+        }
+
+        return items;
+    }
+}
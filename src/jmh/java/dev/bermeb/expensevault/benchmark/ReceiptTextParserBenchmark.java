@@ -0,0 +1,95 @@
+package dev.bermeb.expensevault.benchmark;
+
+import dev.bermeb.expensevault.boundary.dto.response.OcrResult;
+import dev.bermeb.expensevault.control.service.ReceiptRuleSets;
+import dev.bermeb.expensevault.control.service.ReceiptTextParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the single-pass {@link ReceiptTextParser} with the former regex parser on the
+ * receipt texts in {@code src/jmh/resources/receipts}. One invocation parses the whole corpus.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec}, add {@code -Djmh.args="-prof gc"}
+ * to see allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ReceiptTextParserBenchmark {
+
+    private static final String[] CORPUS = {
+            "supermarket-rewe.txt",
+            "supermarket-billa.txt",
+            "restaurant.txt",
+            "gas-station.txt",
+            "pharmacy.txt",
+            "hardware-store.txt",
+            "bakery.txt",
+            "noisy-scan.txt"
+    };
+
+    private final ReceiptTextParser parser = new ReceiptTextParser(new ReceiptRuleSets());
+    private final LegacyReceiptTextParser legacyParser = new LegacyReceiptTextParser();
+
+    private List<String> receipts;
+
+    @Setup
+    public void setUp() throws IOException {
+        receipts = new ArrayList<>();
+        for (String name : CORPUS) {
+            try (InputStream in = getClass().getResourceAsStream("/receipts/" + name)) {
+                if (in == null) {
+                    throw new IllegalStateException("Missing corpus file " + name);
+                }
+                receipts.add(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+
+        // A faster parser that gives different answers is worthless, so refuse to measure it
+        for (int i = 0; i < receipts.size(); i++) {
+            OcrResult expected = legacyParser.parse(receipts.get(i), 1.0f);
+            OcrResult actual = parser.parse(receipts.get(i), 1.0f);
+            if (!Objects.equals(expected.getTotalAmount(), actual.getTotalAmount())
+                    || !Objects.equals(expected.getDate(), actual.getDate())
+                    || !Objects.equals(expected.getMerchantName(), actual.getMerchantName())
+                    || !Objects.equals(expected.getDetectedItems(), actual.getDetectedItems())) {
+                throw new IllegalStateException("Parsers disagree on " + CORPUS[i]);
+            }
+        }
+    }
+
+    @Benchmark
+    public void singlePass(Blackhole blackhole) {
+        for (String receipt : receipts) {
+            blackhole.consume(parser.parse(receipt, 1.0f));
+        }
+    }
+
+    @Benchmark
+    public void legacyRegex(Blackhole blackhole) {
+        for (String receipt : receipts) {
+            blackhole.consume(legacyParser.parse(receipt, 1.0f));
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package dev.bermeb.expensevault.benchmark;
+
+import dev.bermeb.expensevault.boundary.dto.response.OcrResult;
+import dev.bermeb.expensevault.control.service.ReceiptRuleSets;
+import dev.bermeb.expensevault.control.service.ReceiptTextParser;
+import org.junit.jupiter.api.Test;
+
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Differential fuzz of {@link ReceiptTextParser} against the former regex parser on generated German
+ * receipt texts: total, date, merchant and items must be identical for every text.
+ * <p>
+ * Slow, so it only lives in the benchmark sources next to {@link LegacyReceiptTextParser}. Run with
+ * {@code mvn -Pbenchmark test -Dtest=ReceiptTextParserDifferentialTest}, add {@code -Ddifferential.texts=}
+ * for more or fewer texts and {@code -Ddifferential.seed=} for another sample.
+ */
+class ReceiptTextParserDifferentialTest {
+
+    private static final int TEXTS = Integer.getInteger("differential.texts", 1_000_000);
+    private static final long SEED = Long.getLong("differential.seed", 20240314L);
+
+    private static final String[] MERCHANTS = {
+            "REWE Markt GmbH", "BILLA AG", "Bäckerei Müller", "ALDI SÜD", "dm-drogerie markt", "Shell Station 42",
+            "Café & Bar Lisa", "Ökomarkt Bauer", "1. FC Fanshop", "Hornbach Baumarkt", "  Apotheke am Ring  ",
+            "Über-Kiosk", "Tankstelle Mayr.", "METZGEREI HUBER & SÖHNE"
+    };
+
+    private static final String[] ITEMS = {
+            "BUTTER", "ROGGENBROT 750G", "Milch 3,5%", "Super E10", "Schrauben 4x40", "Ibuprofen 400",
+            "Brezel", "Kaffee", "Pfand", "Tüte", "Äpfel lose", "2 x Wasser", "Rabatt"
+    };
+
+    private static final String[] TOTAL_KEYWORDS = {
+            "Summe", "SUMME", "summe", "Gesamt", "GESAMT", "Total", "Sum", "Betrag", "Endsumme", "zu zahlen",
+            "Zu  Zahlen", "ZU\nZAHLEN", "Zwischensumme", "Gesamtbetrag"
+    };
+
+    // Words only German receipts use, so the text is read as a German one
+    private static final String[] GERMAN_ANCHORS = {
+            "MwSt 19%", "Vielen Dank für Ihren Einkauf", "Kasse 3 Bon 1234", "Rückgeld", "Netto Brutto", "Filiale 12"
+    };
+
+    private static final String[] CURRENCY_SUFFIXES = {"", "", " ", " EUR", "EUR", " €", "€", " € EUR", " EU", " A", " B"};
+
+    private static final String NOISE = "aeiourstnlmhkbzäöüßAEIRSTNÄÖÜ0123456789 .,:;/-€*#\t\r\n";
+
+    private final ReceiptTextParser parser = new ReceiptTextParser(new ReceiptRuleSets());
+    private final LegacyReceiptTextParser legacyParser = new LegacyReceiptTextParser();
+
+    @Test
+    void agreesWithTheRegexParserOnGeneratedReceipts() {
+        SplittableRandom random = new SplittableRandom(SEED);
+
+        for (int i = 0; i < TEXTS; i++) {
+            String text = receipt(random);
+            OcrResult expected = legacyParser.parse(text, 1.0f);
+            OcrResult actual = parser.parse(text, 1.0f);
+
+            if (!Objects.equals(expected.getTotalAmount(), actual.getTotalAmount())
+                    || !Objects.equals(expected.getDate(), actual.getDate())
+                    || !Objects.equals(expected.getMerchantName(), actual.getMerchantName())
+                    || !Objects.equals(expected.getDetectedItems(), actual.getDetectedItems())) {
+                fail("Parsers disagree on text %d:%n%s%nexpected total=%s date=%s merchant=%s items=%s%n"
+                                + "actual   total=%s date=%s merchant=%s items=%s",
+                        i, text.replace("\f", "<FF>"),
+                        expected.getTotalAmount(), expected.getDate(), expected.getMerchantName(), expected.getDetectedItems(),
+                        actual.getTotalAmount(), actual.getDate(), actual.getMerchantName(), actual.getDetectedItems());
+            }
+        }
+    }
+
+    private static String receipt(SplittableRandom random) {
+        StringBuilder text = new StringBuilder();
+        if (random.nextInt(4) > 0) {
+            text.append(pick(random, MERCHANTS)).append(lineBreak(random));
+        }
+
+        int lines = random.nextInt(12);
+        for (int i = 0; i < lines; i++) {
+            switch (random.nextInt(6)) {
+                case 0, 1 -> text.append(pick(random, ITEMS)).append(" ".repeat(1 + random.nextInt(20)))
+                        .append(amount(random));
+                case 2 -> text.append(pick(random, TOTAL_KEYWORDS)).append(random.nextBoolean() ? ":" : "")
+                        .append(" ".repeat(random.nextInt(4))).append(random.nextInt(5) == 0 ? "\n" : "")
+                        .append(amount(random));
+                case 3 -> text.append(date(random));
+                case 4 -> text.append(pick(random, GERMAN_ANCHORS));
+                default -> text.append(noise(random));
+            }
+            text.append(lineBreak(random));
+        }
+
+        text.append(pick(random, GERMAN_ANCHORS));
+        return text.toString();
+    }
+
+    private static String amount(SplittableRandom random) {
+        char decimal = random.nextInt(3) == 0 ? '.' : ',';
+        String amount = switch (random.nextInt(5)) {
+            case 0 -> random.nextInt(1000) + "" + decimal + twoDigits(random);
+            case 1 -> random.nextInt(1, 100) + (decimal == ',' ? "." : ",") + String.format("%03d", random.nextInt(1000))
+                    + decimal + twoDigits(random);
+            case 2 -> random.nextInt(100) + "" + decimal + random.nextInt(10);
+            case 3 -> random.nextInt(100_000) + "" + decimal + twoDigits(random) + random.nextInt(10);
+            default -> "-" + random.nextInt(100) + decimal + twoDigits(random);
+        };
+        return (random.nextInt(8) == 0 ? "EUR " : "") + amount + pick(random, CURRENCY_SUFFIXES);
+    }
+
+    private static String date(SplittableRandom random) {
+        char separator = random.nextInt(4) == 0 ? '/' : '.';
+        String year = switch (random.nextInt(4)) {
+            case 0 -> String.valueOf(random.nextInt(100));
+            case 1 -> String.format("%02d", random.nextInt(100));
+            case 2 -> String.valueOf(1990 + random.nextInt(50));
+            default -> String.valueOf(random.nextInt(100_000));
+        };
+        String date = random.nextInt(40) + "" + separator + random.nextInt(15) + separator + year;
+        return random.nextBoolean() ? date : date + " " + random.nextInt(24) + ":" + twoDigits(random);
+    }
+
+    private static String noise(SplittableRandom random) {
+        int length = random.nextInt(40);
+        StringBuilder noise = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            noise.append(NOISE.charAt(random.nextInt(NOISE.length())));
+        }
+        return noise.toString();
+    }
+
+    private static String lineBreak(SplittableRandom random) {
+        return switch (random.nextInt(10)) {
+            case 0 -> "\r\n";
+            case 1 -> "\n\n";
+            case 2 -> " ";
+            default -> "\n";
+        };
+    }
+
+    private static String twoDigits(SplittableRandom random) {
+        return String.format("%02d", random.nextInt(100));
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
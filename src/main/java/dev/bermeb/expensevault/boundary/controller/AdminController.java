@@ -0,0 +1,85 @@
+package dev.bermeb.expensevault.boundary.controller;
+
+import dev.bermeb.expensevault.boundary.dto.response.ReparseRunResponse;
+import dev.bermeb.expensevault.boundary.dto.response.RollupRebuildResponse;
+import dev.bermeb.expensevault.boundary.mapper.ReparseRunMapper;
+import dev.bermeb.expensevault.control.exception.ReparseRunNotFoundException;
+import dev.bermeb.expensevault.control.service.ReceiptRollupService;
+import dev.bermeb.expensevault.control.service.ReparseService;
+import dev.bermeb.expensevault.entity.model.ReparseRun;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/admin")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Admin", description = "Maintenance jobs")
+public class AdminController {
+
+    private final ReparseService reparseService;
+    private final ReparseRunMapper reparseRunMapper;
+    private final ReceiptRollupService receiptRollupService;
+
+    @PostMapping("/reparse")
+    @Operation(summary = "Start Re-parse Run", description = "Re-run receipt parsing over all stored OCR text and update the extracted fields and untouched receipt values. No OCR calls are made.")
+    public ResponseEntity<ReparseRunResponse> startReparse() {
+        ReparseRun run = reparseService.start();
+
+        log.info("Started re-parse run with ID: {}", run.getId());
+
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{runId}")
+                .buildAndExpand(run.getId())
+                .toUri();
+
+        return ResponseEntity.accepted()
+                .location(location)
+                .body(reparseRunMapper.toResponse(run));
+    }
+
+    @GetMapping("/reparse/{runId}")
+    @Operation(summary = "Get Re-parse Run", description = "Retrieve progress and throughput of a re-parse run.")
+    public ResponseEntity<ReparseRunResponse> getReparse(@PathVariable UUID runId) {
+        ReparseRun run = reparseService.findById(runId)
+                .orElseThrow(() -> new ReparseRunNotFoundException(runId));
+
+        return ResponseEntity.ok(reparseRunMapper.toResponse(run));
+    }
+
+    @PostMapping("/reparse/{runId}/resume")
+    @Operation(summary = "Resume Re-parse Run", description = "Continue a failed or interrupted re-parse run after its last checkpoint.")
+    public ResponseEntity<ReparseRunResponse> resumeReparse(@PathVariable UUID runId) {
+        ReparseRun run = reparseService.resume(runId);
+
+        log.info("Resumed re-parse run with ID: {}", runId);
+
+        return ResponseEntity.accepted().body(reparseRunMapper.toResponse(run));
+    }
+
+    @PostMapping("/rollups/rebuild")
+    @Operation(summary = "Rebuild Daily Rollups", description = "Recompute the daily receipt rollups behind the reports from the receipts, for all days or the given period. Receipt writes wait until the rebuild is done.")
+    public ResponseEntity<RollupRebuildResponse> rebuildRollups(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        int rollupRows = receiptRollupService.rebuild(startDate, endDate);
+
+        log.info("Rebuilt {} daily rollup rows from {} to {}", rollupRows, startDate, endDate);
+
+        return ResponseEntity.ok(RollupRebuildResponse.builder()
+                .startDate(startDate)
+                .endDate(endDate)
+                .rollupRows(rollupRows)
+                .build());
+    }
+}
@@ -5,8 +5,12 @@ import dev.bermeb.expensevault.boundary.dto.request.CategoryUpdateRequest;
 import dev.bermeb.expensevault.boundary.dto.response.CategoryResponse;
 import dev.bermeb.expensevault.boundary.mapper.CategoryMapper;
 import dev.bermeb.expensevault.control.exception.CategoryNotFoundException;
+import dev.bermeb.expensevault.control.service.CachedCategory;
 import dev.bermeb.expensevault.control.service.CategoryService;
+import dev.bermeb.expensevault.control.service.ResourceVersion;
+import dev.bermeb.expensevault.control.service.ResourceVersionService;
 import dev.bermeb.expensevault.entity.model.Category;
+import dev.bermeb.expensevault.entity.model.CategoryReceiptStats;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -15,8 +19,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -29,25 +35,55 @@ public class CategoryController {
 
     private final CategoryService categoryService;
     private final CategoryMapper categoryMapper;
+    private final ResourceVersionService resourceVersionService;
 
     @GetMapping
-    @Operation(summary = "Get All Categories", description = "Retrieve a list of all expense categories.")
-    public ResponseEntity<List<CategoryResponse>> getAllCategories() {
-        List<Category> categories = categoryService.findAll();
-        List<CategoryResponse> responses = categories.stream()
-                .map(categoryMapper::toResponse)
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(responses);
+    @Operation(summary = "Get All Categories", description = "Retrieve a list of all expense categories, " +
+            "optionally with their receipt count and total amount.")
+    public ResponseEntity<List<CategoryResponse>> getAllCategories(
+            @RequestParam(defaultValue = "false") boolean withStats,
+            ServletWebRequest webRequest) {
+        // The validator is built from the same cached snapshot the body is rendered from
+        List<CachedCategory> categories = categoryService.findAll();
+        ResourceVersion version = resourceVersionService.categories(categories, withStats);
+        if (ConditionalRequests.notModified(webRequest, version)) {
+            return null;
+        }
+
+        List<CategoryResponse> responses;
+        if (withStats) {
+            Map<UUID, CategoryReceiptStats> stats = categoryService.findAllStats();
+            responses = categories.stream()
+                    .map(category -> categoryMapper.toResponse(category,
+                            stats.getOrDefault(category.id(), CategoryReceiptStats.empty(category.id()))))
+                    .collect(Collectors.toList());
+        } else {
+            responses = categories.stream()
+                    .map(categoryMapper::toResponse)
+                    .collect(Collectors.toList());
+        }
+
+        return ConditionalRequests.ok(version).body(responses);
     }
 
     @GetMapping("/{categoryId}")
-    @Operation(summary = "Get Category by ID", description = "Retrieve a specific category by its ID.")
-    public ResponseEntity<CategoryResponse> getCategory(@PathVariable UUID categoryId) {
-        Category category = categoryService.findById(categoryId)
+    @Operation(summary = "Get Category by ID", description = "Retrieve a specific category by its ID, " +
+            "optionally with its receipt count and total amount.")
+    public ResponseEntity<CategoryResponse> getCategory(
+            @PathVariable UUID categoryId,
+            @RequestParam(defaultValue = "false") boolean withStats,
+            ServletWebRequest webRequest) {
+        CachedCategory category = categoryService.findById(categoryId)
                 .orElseThrow(() -> new CategoryNotFoundException(categoryId));
-
-        return ResponseEntity.ok(categoryMapper.toResponse(category));
+        ResourceVersion version = resourceVersionService.category(category, withStats);
+        if (ConditionalRequests.notModified(webRequest, version)) {
+            return null;
+        }
+
+        CategoryResponse response = withStats
+                ? categoryMapper.toResponse(category, categoryService.findStats(categoryId))
+                : categoryMapper.toResponse(category);
+        return ConditionalRequests.ok(version).body(response);
     }
 
     @PostMapping
@@ -0,0 +1,37 @@
+package dev.bermeb.expensevault.boundary.controller;
+
+import dev.bermeb.expensevault.control.service.ResourceVersion;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * Conditional GET support for resources validated by a {@link ResourceVersion}. Read the version
+ * before the resource: a change in between then only costs the client one more full response.
+ */
+final class ConditionalRequests {
+
+    private ConditionalRequests() {
+    }
+
+    /**
+     * Evaluates {@code If-None-Match} and {@code If-Modified-Since}. When it returns true, 304 is
+     * already set on the response and the handler should return {@code null}.
+     */
+    static boolean notModified(ServletWebRequest webRequest, ResourceVersion version) {
+        return webRequest.checkNotModified(version.etag(), version.lastModifiedMillis());
+    }
+
+    /**
+     * A 200 response carrying the validators. Clients may keep it but have to revalidate before reuse.
+     */
+    static ResponseEntity.BodyBuilder ok(ResourceVersion version) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(version.etag())
+                .cacheControl(CacheControl.noCache().cachePrivate());
+        if (version.lastModified() != null) {
+            response.lastModified(version.lastModifiedMillis());
+        }
+        return response;
+    }
+}
@@ -2,9 +2,11 @@ package dev.bermeb.expensevault.boundary.controller;
 
 import dev.bermeb.expensevault.boundary.dto.response.OcrExtractionResponse;
 import dev.bermeb.expensevault.boundary.dto.response.OcrResult;
-import dev.bermeb.expensevault.control.exception.InvalidFileException;
 import dev.bermeb.expensevault.control.exception.OrcProcessingException;
+import dev.bermeb.expensevault.control.service.ImageUploadService;
 import dev.bermeb.expensevault.control.service.OcrService;
+import dev.bermeb.expensevault.control.service.UploadedImage;
+import dev.bermeb.expensevault.control.service.UploadedImages;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -17,6 +19,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
@@ -28,41 +31,43 @@ import java.util.Map;
 public class OcrController {
 
     private final OcrService ocrService;
+    private final ImageUploadService imageUploadService;
 
     @PostMapping(value = "/extract", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @Operation(summary = "Extract text from an image using OCR", description = "Uploads an image and extracts text using OCR technology.")
-    public ResponseEntity<OcrExtractionResponse> extractText(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<OcrExtractionResponse> extractText(@RequestParam("file") List<MultipartFile> files) throws IOException {
         long startTime = System.nanoTime();
 
-        try {
-            if (file.isEmpty()) {
-                throw new InvalidFileException("File is empty");
-            }
-
-            log.info("Processing OCR extraction for file: {}", file.getOriginalFilename());
+        try (UploadedImages images = imageUploadService.readAll(files)) {
+            UploadedImage image = images.first();
+            log.info("Processing OCR extraction for file: {} ({} files)", image.originalFilename(), images.images().size());
 
-            OcrResult result = ocrService.extractReceiptData(file.getBytes());
+            try {
+                OcrResult result = ocrService.extractReceiptData(images.data(), false);
 
-            int processingTimeMs = (int) ((System.nanoTime() - startTime) / 1_000_000);
+                int processingTimeMs = (int) ((System.nanoTime() - startTime) / 1_000_000);
 
-            OcrExtractionResponse response = OcrExtractionResponse.builder()
-                    .rawText(result.getRawText())
-                    .confidence(result.getConfidence())
-                    .extractedData(Map.of(
-                            "amount", result.getTotalAmount() != null ? result.getTotalAmount() : 0,
-                            "date", result.getDate() != null ? result.getDate().toString() : "N/A",
-                            "merchant", result.getMerchantName() != null ? result.getMerchantName() : "N/A",
-                            "items", result.getDetectedItems() != null ? result.getDetectedItems() : List.of()
-                    ))
-                    .processingTimeMs(processingTimeMs)
-                    .build();
+                OcrExtractionResponse response = OcrExtractionResponse.builder()
+                        .rawText(result.getRawText())
+                        .confidence(result.getConfidence())
+                        .extractedData(Map.of(
+                                "amount", result.getTotalAmount() != null ? result.getTotalAmount() : 0,
+                                "date", result.getDate() != null ? result.getDate().toString() : "N/A",
+                                "merchant", result.getMerchantName() != null ? result.getMerchantName() : "N/A",
+                                "items", result.getDetectedItems() != null ? result.getDetectedItems() : List.of(),
+                                "currency", result.getCurrency() != null ? result.getCurrency() : "N/A",
+                                "locale", result.getLocale() != null ? result.getLocale() : "N/A"
+                        ))
+                        .processingTimeMs(processingTimeMs)
+                        .build();
 
-            log.info("OCR extraction completed in {}ms with {} confidence for file: {}", processingTimeMs, result.getConfidence(), file.getOriginalFilename());
+                log.info("OCR extraction completed in {}ms with {} confidence for file: {}", processingTimeMs, result.getConfidence(), image.originalFilename());
 
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            log.error("OCR extraction failed for file: {}", file.getOriginalFilename(), e);
-            throw new OrcProcessingException("OCR extraction failed, e");
+                return ResponseEntity.ok(response);
+            } catch (Exception e) {
+                log.error("OCR extraction failed for file: {}", image.originalFilename(), e);
+                throw new OrcProcessingException("OCR extraction failed, e");
+            }
         }
     }
-}
\ No newline at end of file
+}
@@ -1,32 +1,76 @@
 package dev.bermeb.expensevault.boundary.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.bermeb.expensevault.boundary.dto.request.ReceiptUpdateRequest;
+import dev.bermeb.expensevault.boundary.dto.response.OcrJobResponse;
 import dev.bermeb.expensevault.boundary.dto.response.OcrResult;
 import dev.bermeb.expensevault.boundary.dto.response.ReceiptResponse;
+import dev.bermeb.expensevault.boundary.dto.response.ReceiptSearchResultResponse;
+import dev.bermeb.expensevault.boundary.mapper.OcrJobMapper;
 import dev.bermeb.expensevault.boundary.mapper.ReceiptMapper;
-import dev.bermeb.expensevault.control.exception.InvalidFileException;
+import dev.bermeb.expensevault.config.ReceiptImportProperties;
+import dev.bermeb.expensevault.config.ReceiptListProperties;
+import dev.bermeb.expensevault.control.exception.InvalidQueryParameterException;
+import dev.bermeb.expensevault.control.exception.OcrJobNotFoundException;
+import dev.bermeb.expensevault.control.exception.ReceiptImageNotFoundException;
 import dev.bermeb.expensevault.control.exception.ReceiptNotFoundException;
 import dev.bermeb.expensevault.control.exception.ReceiptProcessingException;
+import dev.bermeb.expensevault.control.service.ImageStore;
+import dev.bermeb.expensevault.control.service.ImageUploadService;
+import dev.bermeb.expensevault.control.service.OcrJobService;
 import dev.bermeb.expensevault.control.service.OcrService;
+import dev.bermeb.expensevault.control.service.ReceiptCursor;
+import dev.bermeb.expensevault.control.service.ReceiptExportFormat;
+import dev.bermeb.expensevault.control.service.ReceiptExportService;
+import dev.bermeb.expensevault.control.service.ReceiptImportService;
+import dev.bermeb.expensevault.control.service.ReceiptIngestionService;
+import dev.bermeb.expensevault.control.service.ReceiptPage;
+import dev.bermeb.expensevault.control.service.ReceiptSearchCursor;
+import dev.bermeb.expensevault.control.service.ReceiptSearchPage;
+import dev.bermeb.expensevault.control.service.ReceiptSearchService;
 import dev.bermeb.expensevault.control.service.ReceiptService;
+import dev.bermeb.expensevault.control.service.ResourceVersion;
+import dev.bermeb.expensevault.control.service.ResourceVersionService;
+import dev.bermeb.expensevault.control.service.StoredImage;
+import dev.bermeb.expensevault.control.service.UploadedImage;
+import dev.bermeb.expensevault.control.service.UploadedImages;
+import dev.bermeb.expensevault.entity.model.OcrJob;
 import dev.bermeb.expensevault.entity.model.Receipt;
+import dev.bermeb.expensevault.entity.repository.ReceiptListItem;
+import dev.bermeb.expensevault.entity.repository.ReceiptView;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
-
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/receipts")
@@ -35,80 +79,313 @@ import java.util.stream.Collectors;
 @Tag(name = "Receipts", description = "Endpoints for managing receipts")
 public class ReceiptController {
 
+    // Request attributes of Tomcat's sendfile support, the same ones its DefaultServlet uses
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final ReceiptService receiptService;
     private final OcrService ocrService;
+    private final ReceiptIngestionService receiptIngestionService;
+    private final OcrJobService ocrJobService;
+    private final ImageUploadService imageUploadService;
+    private final ImageStore imageStore;
+    private final ReceiptImportService receiptImportService;
+    private final ReceiptExportService receiptExportService;
+    private final ReceiptSearchService receiptSearchService;
+    private final ResourceVersionService resourceVersionService;
     private final ReceiptMapper receiptMapper;
+    private final OcrJobMapper ocrJobMapper;
+    private final ObjectMapper objectMapper;
+    private final ReceiptListProperties receiptListProperties;
+    private final ReceiptImportProperties receiptImportProperties;
+    private final ThreadPoolTaskExecutor importResponseExecutor;
+    private final ThreadPoolTaskExecutor exportResponseExecutor;
 
-    // TODO: Change limit parameter to be configurable via request param or be unlimited
-    // TODO: Change sort parameter to be configurable via request param
     @GetMapping
-    @Operation(summary = "Get All Receipts", description = "Retrieve a list of all receipts.")
+    @Operation(summary = "Get All Receipts", description = "Retrieve receipts page by page, ordered by date. "
+            + "If there are more, the response carries the cursor of the next page in the X-Next-Cursor header "
+            + "and a Link header with rel=\"next\".")
     public ResponseEntity<List<ReceiptResponse>> getAllReceipts(
             @RequestParam(required = false) String category,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDate startDate,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDate endDate) {
-
-        Sort.Direction direction = Sort.Direction.DESC;
-        Sort sort = Sort.by(direction, "date");
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDate endDate,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "desc") String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "standard") String view,
+            @RequestParam(defaultValue = "false") boolean includeRawText,
+            ServletWebRequest webRequest) {
+
+        Sort.Direction direction = Sort.Direction.fromOptionalString(sort)
+                .orElseThrow(() -> new InvalidQueryParameterException("Sort must be asc or desc"));
+        // includeRawText predates views and stays as a shorthand for view=full
+        ReceiptView receiptView = includeRawText ? ReceiptView.FULL : parseView(view);
+        int pageSize = limit == null
+                ? receiptListProperties.getDefaultPageSize()
+                : Math.clamp(limit, 1, receiptListProperties.getMaxPageSize());
+        ReceiptCursor after = cursor != null ? ReceiptCursor.decode(cursor) : null;
+
+        ReceiptPage page = receiptService.findPage(category, startDate, endDate, direction, after, pageSize, receiptView);
+        ResourceVersion version = resourceVersionService.receiptPage(page, receiptView);
+        if (ConditionalRequests.notModified(webRequest, version)) {
+            return null;
+        }
 
-        List<Receipt> receipts = receiptService.findAll(category, startDate, endDate, sort, 1000);
-        List<ReceiptResponse> responses = receipts.stream()
+        List<ReceiptResponse> responses = page.receipts().stream()
                 .map(receiptMapper::toResponse)
-                .collect(Collectors.toList());
+                .toList();
 
         log.info("Received {} receipts with filters - category: {}, dateFrom: {}, dateTo: {}", responses.size(), category, startDate, endDate);
 
-        return ResponseEntity.ok(responses);
+        ResponseEntity.BodyBuilder response = ConditionalRequests.ok(version);
+        if (page.next() != null) {
+            addNextPageHeaders(response, page.next().encode());
+        }
+        return response.body(responses);
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Export Receipts", description = "Download all receipts matching the filters as CSV or NDJSON, ordered by date. "
+            + "The file is streamed while it is read from the database, so there is no limit on its size.")
+    public ResponseEntity<StreamingResponseBody> exportReceipts(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            ServletWebRequest webRequest) {
+
+        ReceiptExportFormat exportFormat = ReceiptExportFormat.fromParameter(format);
+        ReceiptExportService.Slot slot = receiptExportService.reserveSlot();
+        log.info("Starting receipt export - format: {}, category: {}, dateFrom: {}, dateTo: {}", exportFormat, category, startDate, endDate);
+
+        StreamingResponseBody body = StreamingResponses.stream(webRequest, exportResponseExecutor,
+                receiptListProperties.getExportTimeout(), slot,
+                out -> receiptExportService.export(exportFormat, category, startDate, endDate, out));
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("receipts." + exportFormat.getFileExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search Receipts", description = "Full-text search over merchant names, descriptions and OCR text, "
+            + "best match first. Supports quoted phrases, or and -word. Paged like the receipt list.")
+    public ResponseEntity<List<ReceiptSearchResultResponse>> searchReceipts(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean headline) {
+
+        int pageSize = limit == null
+                ? receiptListProperties.getDefaultSearchPageSize()
+                : Math.clamp(limit, 1, receiptListProperties.getMaxPageSize());
+        ReceiptSearchCursor after = cursor != null ? ReceiptSearchCursor.decode(cursor) : null;
+
+        ReceiptSearchPage page = receiptSearchService.search(q, after, pageSize, headline);
+        List<ReceiptSearchResultResponse> responses = page.hits().stream()
+                .map(receiptMapper::toResponse)
+                .toList();
+
+        log.info("Found {} receipts for search query", responses.size());
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.next() != null) {
+            addNextPageHeaders(response, page.next().encode());
+        }
+        return response.body(responses);
     }
 
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    @Operation(summary = "Upload Receipt", description = "Upload a new receipt image for OCR processing and storage.")
+    @Operation(summary = "Upload Receipt", description = "Upload a new receipt image for OCR processing and storage. Long receipts can be uploaded as several images or as a multi-page PDF.")
     public ResponseEntity<ReceiptResponse> uploadReceipt(
-            @RequestParam("file") MultipartFile file,
+            @RequestParam("file") List<MultipartFile> files,
             @RequestParam(required = false) String category,
-            @RequestParam(required = false) String description) {
+            @RequestParam(required = false) String description) throws IOException {
 
-        long startTime = System.nanoTime();
+        try (UploadedImages images = imageUploadService.readAll(files)) {
+            log.info("Processing receipt upload - filename: {}, files: {}, size: {} bytes", images.first().originalFilename(), images.images().size(), images.totalSize());
 
-        try {
-            validateFile(file);
+            try {
+                Receipt savedReceipt = receiptIngestionService.ingest(images.data(), category, description);
 
-            log.info("Processing receipt upload - filename: {}, size: {} bytes", file.getOriginalFilename(), file.getSize());
+                log.info("Receipt processed and saved with ID: {}", savedReceipt.getId());
 
-            OcrResult ocrResult = ocrService.extractReceiptData(file.getBytes());
+                return ResponseEntity.status(HttpStatus.CREATED)
+                        .body(receiptMapper.toResponse(savedReceipt));
+            } catch (Exception e) {
+                log.error("Receipt processing failed for file: {}", images.first().originalFilename(), e);
+                throw new ReceiptProcessingException("Receipt processing failed", e);
+            }
+        }
+    }
 
-            Receipt receipt = Receipt.builder()
-                    .amount(ocrResult.getTotalAmount())
-                    .merchantName(ocrResult.getMerchantName())
-                    .date(ocrResult.getDate() != null ? ocrResult.getDate() : LocalDate.now())
-                    .description(description)
-                    .currency("EUR") // TODO: Extract currency from OCR result
-                    .build();
+    @PostMapping(value = "/import",
+            consumes = {"application/zip", "application/x-zip-compressed", MediaType.APPLICATION_OCTET_STREAM_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Import Receipt Archive", description = "Import a ZIP archive with one receipt image or PDF per file. The archive is sent as the raw request body and the outcome of every file is streamed back as one JSON line, followed by a summary line.")
+    public ResponseEntity<StreamingResponseBody> importReceipts(
+            InputStream archive,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String description,
+            ServletWebRequest webRequest) {
 
-            if (category != null) {
-                receipt.setCategory(receiptService.findCategoryByName(category));
-            }
+        // Fail fast on unknown categories, once streaming has started the status code is fixed
+        if (category != null) {
+            receiptService.findCategoryByName(category);
+        }
 
-            int processingTimeMs = (int) ((System.nanoTime() - startTime) / 1_000_000);
-            Receipt savedReceipt = receiptService.save(receipt, ocrResult, processingTimeMs);
+        ReceiptImportService.Slot slot = receiptImportService.reserveSlot();
+        log.info("Starting receipt import - category: {}", category);
+
+        StreamingResponseBody body = StreamingResponses.stream(webRequest, importResponseExecutor,
+                receiptImportProperties.getTimeout(), slot,
+                out -> receiptImportService.importArchive(archive, category, description, result -> {
+                    try {
+                        out.write(objectMapper.writeValueAsBytes(result));
+                        out.write('\n');
+                        out.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
 
-            log.info("Receipt processed and saved with ID: {} in {}ms", savedReceipt.getId(), processingTimeMs);
+    @PostMapping(value = "/jobs", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Upload Receipt Asynchronously", description = "Queue a receipt image for OCR processing and return immediately with a job ID.")
+    public ResponseEntity<OcrJobResponse> enqueueReceipt(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String description) throws IOException {
+
+        // Fail fast on unknown categories instead of letting the job fail later
+        if (category != null) {
+            receiptService.findCategoryByName(category);
+        }
 
-            return ResponseEntity.status(HttpStatus.CREATED)
-                    .body(receiptMapper.toResponse(savedReceipt));
-        } catch (Exception e) {
-            log.error("Receipt processing failed for file: {}", file.getOriginalFilename(), e);
-            throw new ReceiptProcessingException("Receipt processing failed", e);
+        OcrJob job;
+        try (UploadedImage image = imageUploadService.read(file)) {
+            job = ocrJobService.enqueue(image.data(), image.format().getContentType(), image.originalFilename(), category, description);
         }
+
+        log.info("Queued receipt upload - filename: {}, size: {} bytes, job ID: {}", file.getOriginalFilename(), file.getSize(), job.getId());
+
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{jobId}")
+                .buildAndExpand(job.getId())
+                .toUri();
+
+        return ResponseEntity.accepted()
+                .location(location)
+                .body(ocrJobMapper.toResponse(job));
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    @Operation(summary = "Get OCR Job Status", description = "Retrieve the status of an asynchronous receipt upload.")
+    public ResponseEntity<OcrJobResponse> getJob(@PathVariable UUID jobId) {
+        OcrJob job = ocrJobService.findById(jobId)
+                .orElseThrow(() -> new OcrJobNotFoundException(jobId));
+
+        return ResponseEntity.ok(ocrJobMapper.toResponse(job));
     }
 
     @GetMapping("/{receiptId}")
-    @Operation(summary = "Get Receipt by ID", description = "Retrieve a specific receipt by its ID.")
-    public ResponseEntity<ReceiptResponse> getReceipt(@PathVariable UUID receiptId) {
+    @Operation(summary = "Get Receipt by ID", description = "Retrieve a specific receipt by its ID. "
+            + "The view parameter selects summary, standard or full (default) detail.")
+    public ResponseEntity<ReceiptResponse> getReceipt(
+            @PathVariable UUID receiptId,
+            @RequestParam(defaultValue = "full") String view,
+            ServletWebRequest webRequest) {
+        ReceiptView receiptView = parseView(view);
+        ResourceVersion version = resourceVersionService.receipt(receiptId)
+                .orElseThrow(() -> new ReceiptNotFoundException(receiptId));
+        if (ConditionalRequests.notModified(webRequest, version)) {
+            return null;
+        }
+
+        ReceiptListItem receipt = receiptService.findItemById(receiptId, receiptView)
+                .orElseThrow(() -> new ReceiptNotFoundException(receiptId));
+
+        return ConditionalRequests.ok(version).body(receiptMapper.toResponse(receipt));
+    }
+
+    @GetMapping("/{receiptId}/image")
+    @Operation(summary = "Get Receipt Image", description = "Download the original receipt file. Supports HTTP Range requests and conditional requests with the ETag.")
+    public ResponseEntity<Resource> getReceiptImage(@PathVariable UUID receiptId, ServletWebRequest webRequest) {
+        Receipt receipt = receiptService.findById(receiptId)
+                .orElseThrow(() -> new ReceiptNotFoundException(receiptId));
+
+        return serveImage(receiptId, receipt.getImageHash(), receipt.getImageContentType(), webRequest);
+    }
+
+    @GetMapping("/{receiptId}/thumbnail")
+    @Operation(summary = "Get Receipt Thumbnail", description = "Download a small JPEG preview of the receipt, meant for list views.")
+    public ResponseEntity<Resource> getReceiptThumbnail(@PathVariable UUID receiptId, ServletWebRequest webRequest) {
         Receipt receipt = receiptService.findById(receiptId)
                 .orElseThrow(() -> new ReceiptNotFoundException(receiptId));
 
-        return ResponseEntity.ok(receiptMapper.toResponse(receipt));
+        return serveImage(receiptId, receipt.getThumbnailHash(), MediaType.IMAGE_JPEG_VALUE, webRequest);
+    }
+
+    private static ReceiptView parseView(String view) {
+        try {
+            return ReceiptView.valueOf(view.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidQueryParameterException("View must be summary, standard or full", e);
+        }
+    }
+
+    private static void addNextPageHeaders(ResponseEntity.BodyBuilder response, String next) {
+        URI nextPage = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("cursor", next)
+                .build()
+                .toUri();
+        response.header(NEXT_CURSOR_HEADER, next)
+                .header(HttpHeaders.LINK, "<" + nextPage + ">; rel=\"next\"");
+    }
+
+    /**
+     * Stored images never change, so their hash is a strong ETag. Range requests are answered by
+     * Spring as resource regions; a full GET is handed to Tomcat's sendfile, which copies the file
+     * to the socket with {@code FileChannel.transferTo} instead of through the heap.
+     */
+    private ResponseEntity<Resource> serveImage(UUID receiptId, String hash, String contentType, ServletWebRequest webRequest) {
+        Path path = imageStore.find(hash)
+                .orElseThrow(() -> new ReceiptImageNotFoundException(receiptId));
+
+        if (webRequest.checkNotModified(hash)) {
+            // 304 (or 412) is already set on the response
+            return null;
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(hash)
+                .contentType(MediaType.parseMediaType(contentType))
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        HttpServletRequest request = webRequest.getRequest();
+        if (request.getHeader(HttpHeaders.RANGE) == null && HttpMethod.GET.matches(request.getMethod())
+                && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            long size = path.toFile().length();
+            request.setAttribute(SENDFILE_FILENAME, path.toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, size);
+            return response.contentLength(size).build();
+        }
+
+        return response.body(new FileSystemResource(path));
     }
 
     @PutMapping("/{receiptId}")
@@ -145,51 +422,31 @@ public class ReceiptController {
     @Operation(summary = "Reprocess Receipt OCR", description = "Reprocess the OCR data for an existing receipt.")
     public ResponseEntity<ReceiptResponse> reprocessReceipt(
             @PathVariable UUID receiptId,
-            @RequestParam("file") MultipartFile file) {
-
-        try {
-            validateFile(file);
+            @RequestParam("file") List<MultipartFile> files,
+            @RequestParam(defaultValue = "false") boolean refresh) throws IOException {
 
-            Receipt receipt = receiptService.findById(receiptId)
-                    .orElseThrow(() -> new ReceiptNotFoundException(receiptId));
+        Receipt receipt = receiptService.findById(receiptId)
+                .orElseThrow(() -> new ReceiptNotFoundException(receiptId));
 
+        try (UploadedImages images = imageUploadService.readAll(files)) {
             log.info("Reprocessing receipt with ID: {}", receiptId);
 
-            OcrResult newOcrResult = ocrService.extractReceiptData(file.getBytes());
-
-            receipt.setAmount(newOcrResult.getTotalAmount());
-            receipt.setMerchantName(newOcrResult.getMerchantName());
-            if (newOcrResult.getDate() != null) {
-                receipt.setDate(newOcrResult.getDate());
-            }
-
-            Receipt updatedReceipt = receiptService.updateWithNewOcr(receipt, newOcrResult);
+            try {
+                // refresh=true forces a new OCR read even if this exact image was recognized before
+                OcrResult newOcrResult = ocrService.extractReceiptData(images.data(), refresh);
 
-            log.info("Reprocessed Receipt with ID: {}", updatedReceipt.getId());
+                StoredImage image = imageStore.store(images.first().data());
+                image.applyTo(receipt);
 
-            return ResponseEntity.ok(receiptMapper.toResponse(updatedReceipt));
-        } catch (Exception e) {
-            log.error("Receipt reprocessing failed for ID: {}", receiptId, e);
-            throw new ReceiptProcessingException("Receipt reprocessing failed", e);
-        }
-    }
+                Receipt updatedReceipt = receiptService.updateWithNewOcr(receipt, newOcrResult);
 
-    private void validateFile(MultipartFile file) {
-        if (file.isEmpty()) {
-            throw new InvalidFileException("File is empty");
-        }
+                log.info("Reprocessed Receipt with ID: {}", updatedReceipt.getId());
 
-        String contentType = file.getContentType();
-        if (contentType == null || !isValidImageType(contentType)) {
-            throw new InvalidFileException("Unsupported file type: " + contentType + ". Supported types are: PNG, JPG and PDF");
-        }
-
-        if (file.getSize() > 10 * 1024 * 1024) { // 10 MB limit
-            throw new InvalidFileException("File size exceeds the maximum limit of 10MB");
+                return ResponseEntity.ok(receiptMapper.toResponse(updatedReceipt));
+            } catch (Exception e) {
+                log.error("Receipt reprocessing failed for ID: {}", receiptId, e);
+                throw new ReceiptProcessingException("Receipt reprocessing failed", e);
+            }
         }
     }
-
-    private boolean isValidImageType(String contentType) {
-        return contentType.equals("image/jpeg") || contentType.equals("image/png") || contentType.equals("application/pdf");
-    }
-}
\ No newline at end of file
+}
@@ -1,7 +1,15 @@
 package dev.bermeb.expensevault.boundary.controller;
 
+import dev.bermeb.expensevault.boundary.dto.response.CategoryStatisticsResponse;
 import dev.bermeb.expensevault.boundary.dto.response.ExpenseSummaryResponse;
+import dev.bermeb.expensevault.boundary.dto.response.MonthlyTotalResponse;
+import dev.bermeb.expensevault.boundary.dto.response.TimeSeriesResponse;
+import dev.bermeb.expensevault.control.service.CachedReport;
 import dev.bermeb.expensevault.control.service.ReportService;
+import dev.bermeb.expensevault.control.service.ResourceVersion;
+import dev.bermeb.expensevault.control.service.ResourceVersionService;
+import dev.bermeb.expensevault.control.service.StatisticsViewService;
+import dev.bermeb.expensevault.control.service.TimeSeriesGranularity;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -12,8 +20,10 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.time.LocalDate;
+import java.util.List;
 
 @RestController
 @RequestMapping("reports")
@@ -23,20 +33,84 @@ import java.time.LocalDate;
 public class ReportController {
 
     private final ReportService reportService;
+    private final ResourceVersionService resourceVersionService;
+    private final StatisticsViewService statisticsViewService;
 
-    // TODO: Add period presets (e.g., last month, last quarter) and category filtering
+    // TODO: Add period presets (e.g., last month, last quarter)
     @GetMapping("/summary")
     @Operation(summary = "Get Expense Summary", description = "Retrieve a summary of expenses over a specified period.")
     public ResponseEntity<ExpenseSummaryResponse> getExpenseSummary(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
-            @RequestParam(required = false) String category) {
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String currency,
+            ServletWebRequest webRequest) {
 
-        // Since there is no category filtering implemented yet, we ignore the category parameter
-        log.info("Generating expense summary from {} to {}", startDate, endDate);
+        log.info("Getting expense summary from {} to {} for category {} in {}", startDate, endDate, category, currency);
 
-        ExpenseSummaryResponse summary = reportService.generateSummary(startDate, endDate);
+        CachedReport<ExpenseSummaryResponse> summary = reportService.getSummary(startDate, endDate, category, currency);
+        if (ConditionalRequests.notModified(webRequest, summary.version())) {
+            return null;
+        }
 
-        return ResponseEntity.ok(summary);
+        return ConditionalRequests.ok(summary.version()).body(summary.body());
     }
-}
\ No newline at end of file
+
+    @GetMapping("/timeseries")
+    @Operation(summary = "Get Time Series", description = "Retrieve receipt count and total amount per day, week or month " +
+            "of a period as parallel arrays, including buckets without receipts, for charts.")
+    public ResponseEntity<TimeSeriesResponse> getTimeSeries(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "month") String granularity,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String merchant,
+            @RequestParam(required = false) String currency,
+            ServletWebRequest webRequest) {
+
+        TimeSeriesGranularity bucketGranularity = TimeSeriesGranularity.fromParameter(granularity);
+        ResourceVersion version = resourceVersionService.report("timeseries-" + bucketGranularity.getField(),
+                startDate, endDate);
+        if (ConditionalRequests.notModified(webRequest, version)) {
+            return null;
+        }
+
+        log.info("Generating {} time series from {} to {} for category {} and merchant {}",
+                bucketGranularity.getField(), startDate, endDate, category, merchant);
+
+        return ConditionalRequests.ok(version).body(reportService.generateTimeSeries(startDate, endDate,
+                bucketGranularity, category, merchant, currency));
+    }
+
+    @GetMapping("/monthly")
+    @Operation(summary = "Get Monthly Totals", description = "Retrieve receipt count, total and average amount per month, " +
+            "optionally limited to the months overlapping a period. Served from a materialized view refreshed a few seconds after receipts change.")
+    public ResponseEntity<List<MonthlyTotalResponse>> getMonthlyTotals(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            ServletWebRequest webRequest) {
+
+        ResourceVersion version = resourceVersionService.statistics(StatisticsViewService.MONTHLY_EXPENSE_TOTALS);
+        if (ConditionalRequests.notModified(webRequest, version)) {
+            return null;
+        }
+
+        return ConditionalRequests.ok(version).body(statisticsViewService.monthlyTotals(startDate, endDate));
+    }
+
+    @GetMapping("/categories")
+    @Operation(summary = "Get Category Statistics", description = "Retrieve receipt count and amounts per month and category, " +
+            "optionally limited to the months overlapping a period. Served from a materialized view refreshed a few seconds after receipts change.")
+    public ResponseEntity<List<CategoryStatisticsResponse>> getCategoryStatistics(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            ServletWebRequest webRequest) {
+
+        ResourceVersion version = resourceVersionService.statistics(StatisticsViewService.RECEIPT_STATISTICS);
+        if (ConditionalRequests.notModified(webRequest, version)) {
+            return null;
+        }
+
+        return ConditionalRequests.ok(version).body(statisticsViewService.categoryStatistics(startDate, endDate));
+    }
+}
@@ -0,0 +1,62 @@
+package dev.bermeb.expensevault.boundary.controller;
+
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Streaming responses that run on an executor and with a timeout of their own instead of Spring
+ * MVC's defaults, and that hold a capacity slot reserved before the response started.
+ */
+final class StreamingResponses {
+
+    private StreamingResponses() {
+    }
+
+    /**
+     * Wraps {@code body} so it releases {@code slot} when done. If the body never runs, because the
+     * executor rejected it or the request ended before its turn, the slot is released when the
+     * request completes instead.
+     */
+    static StreamingResponseBody stream(WebRequest webRequest, AsyncTaskExecutor executor, Duration timeout,
+                                        AutoCloseable slot, StreamingResponseBody body) {
+        WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(webRequest);
+        asyncManager.setTaskExecutor(executor);
+        AsyncWebRequest asyncWebRequest = asyncManager.getAsyncWebRequest();
+
+        AtomicBoolean started = new AtomicBoolean();
+        if (asyncWebRequest != null) {
+            asyncWebRequest.setTimeout(timeout.toMillis());
+            asyncWebRequest.addCompletionHandler(() -> {
+                if (started.compareAndSet(false, true)) {
+                    close(slot);
+                }
+            });
+        }
+
+        return out -> {
+            if (!started.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                body.writeTo(out);
+            } finally {
+                close(slot);
+            }
+        };
+    }
+
+    private static void close(AutoCloseable slot) {
+        try {
+            slot.close();
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to release streaming slot", e);
+        }
+    }
+}
@@ -1,20 +1,25 @@
 package dev.bermeb.expensevault.boundary.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
 import java.util.UUID;
 
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+// Stats are only sent when requested
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class CategoryResponse {
     private UUID id;
     private String name;
     private String color;
     private String icon;
     private Integer receiptCount;
+    private BigDecimal totalAmount;
 }
@@ -0,0 +1,25 @@
+package dev.bermeb.expensevault.boundary.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryStatisticsResponse {
+    private YearMonth month;
+    private UUID categoryId;
+    private String categoryName;
+    private Integer receiptCount;
+    private BigDecimal totalAmount;
+    private BigDecimal averageAmount;
+    private BigDecimal minAmount;
+    private BigDecimal maxAmount;
+}
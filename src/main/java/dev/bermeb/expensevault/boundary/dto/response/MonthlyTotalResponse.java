@@ -0,0 +1,20 @@
+package dev.bermeb.expensevault.boundary.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonthlyTotalResponse {
+    private YearMonth month;
+    private Integer receiptCount;
+    private BigDecimal totalAmount;
+    private BigDecimal averageAmount;
+}
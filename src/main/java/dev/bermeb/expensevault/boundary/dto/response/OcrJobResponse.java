@@ -0,0 +1,25 @@
+package dev.bermeb.expensevault.boundary.dto.response;
+
+import dev.bermeb.expensevault.entity.model.OcrJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OcrJobResponse {
+    private UUID id;
+    private OcrJobStatus status;
+    private UUID receiptId;
+    private Integer attempts;
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime completedAt;
+}
@@ -24,4 +24,6 @@ public class OcrResult {
     private String merchantName;
     private Float confidence;
     private List<String> detectedItems;
+    private String currency;
+    private String locale;
 }
@@ -0,0 +1,45 @@
+package dev.bermeb.expensevault.boundary.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * One line of the NDJSON import progress: the outcome of one archive entry, or the
+ * {@link Status#COMPLETED} summary as the last line.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ReceiptImportResult {
+
+    public enum Status {
+        IMPORTED,
+        SKIPPED,
+        FAILED,
+        COMPLETED
+    }
+
+    private Status status;
+    private String entry;
+    private UUID receiptId;
+    private BigDecimal amount;
+    private String currency;
+    private String merchantName;
+    private LocalDate date;
+    private Integer processingTimeMs;
+    private String error;
+
+    // Summary line only
+    private Integer imported;
+    private Integer skipped;
+    private Integer failed;
+}
@@ -1,5 +1,6 @@
 package dev.bermeb.expensevault.boundary.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -14,6 +15,8 @@ import java.util.UUID;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+// Fields outside the requested view are left out instead of sent as null
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class ReceiptResponse {
 
     private UUID id;
@@ -24,6 +27,8 @@ public class ReceiptResponse {
     private LocalDate date;
     private CategoryResponse category;
     private OcrDataResponse ocrData;
+    private String imageContentType;
+    private Long imageSize;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package dev.bermeb.expensevault.boundary.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReceiptSearchResultResponse {
+
+    private ReceiptResponse receipt;
+    private Float rank;
+    private String headline;
+}
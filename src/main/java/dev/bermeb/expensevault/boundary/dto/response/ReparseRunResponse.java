@@ -0,0 +1,30 @@
+package dev.bermeb.expensevault.boundary.dto.response;
+
+import dev.bermeb.expensevault.entity.model.ReparseRunStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReparseRunResponse {
+    private UUID id;
+    private ReparseRunStatus status;
+    private Long totalRows;
+    private long processedRows;
+    private long changedRows;
+    private long changedReceipts;
+    private long failedRows;
+    private Double rowsPerSecond;
+    private UUID lastOcrDataId;
+    private String errorMessage;
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,18 @@
+package dev.bermeb.expensevault.boundary.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollupRebuildResponse {
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private int rollupRows;
+}
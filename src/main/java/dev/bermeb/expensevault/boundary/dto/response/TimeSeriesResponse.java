@@ -0,0 +1,27 @@
+package dev.bermeb.expensevault.boundary.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * One entry per bucket at the same index of each list, buckets without receipts included.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TimeSeriesResponse {
+    private String granularity;
+    private String currency;
+    private List<LocalDate> buckets;
+    private List<Integer> receiptCounts;
+    private List<BigDecimal> totalAmounts;
+}
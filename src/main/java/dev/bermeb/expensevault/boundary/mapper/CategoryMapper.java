@@ -1,7 +1,9 @@
 package dev.bermeb.expensevault.boundary.mapper;
 
 import dev.bermeb.expensevault.boundary.dto.response.CategoryResponse;
+import dev.bermeb.expensevault.control.service.CachedCategory;
 import dev.bermeb.expensevault.entity.model.Category;
+import dev.bermeb.expensevault.entity.model.CategoryReceiptStats;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -11,9 +13,19 @@ import org.mapstruct.Mapping;
 )
 public interface CategoryMapper {
 
-    @Mapping(target = "receiptCount", expression = "java(category.getReceipts() != null ? category.getReceipts().size() : 0)")
+    /**
+     * Without stats, counting through the receipts collection would load all receipts of the category.
+     */
+    @Mapping(target = "receiptCount", ignore = true)
+    @Mapping(target = "totalAmount", ignore = true)
     CategoryResponse toResponse(Category category);
 
     @Mapping(target = "receiptCount", ignore = true)
-    CategoryResponse toResponseWithoutCount(Category category);
+    @Mapping(target = "totalAmount", ignore = true)
+    CategoryResponse toResponse(CachedCategory category);
+
+    @Mapping(target = "id", source = "category.id")
+    @Mapping(target = "receiptCount", source = "stats.receiptCount")
+    @Mapping(target = "totalAmount", source = "stats.totalAmount")
+    CategoryResponse toResponse(CachedCategory category, CategoryReceiptStats stats);
 }
@@ -4,10 +4,12 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.bermeb.expensevault.boundary.dto.response.OcrDataResponse;
 import dev.bermeb.expensevault.entity.model.OcrData;
+import dev.bermeb.expensevault.entity.repository.ReceiptListItem;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Named;
 import org.mapstruct.ReportingPolicy;
+import org.springframework.beans.factory.annotation.Autowired;
 
 import java.util.Map;
 
@@ -17,15 +19,27 @@ import java.util.Map;
 )
 public abstract class OcrDataMapper {
 
-    private final ObjectMapper objectMapper;
-
-    protected OcrDataMapper(ObjectMapper objectMapper) {
-        this.objectMapper = objectMapper;
-    }
+    // Field injection, the generated subclass needs a no-args constructor
+    @Autowired
+    protected ObjectMapper objectMapper;
 
     @Mapping(target = "extractedFields", source = "extractedFields", qualifiedByName = "jsonToMap")
     public abstract OcrDataResponse toResponse(OcrData ocrData);
 
+    @Named("listItemOcrData")
+    public OcrDataResponse toResponse(ReceiptListItem receipt) {
+        // processed_at is NOT NULL, so null means the receipt has no OCR data
+        if (receipt.ocrProcessedAt() == null) {
+            return null;
+        }
+        return OcrDataResponse.builder()
+                .rawText(receipt.ocrRawText())
+                .confidence(receipt.ocrConfidence())
+                .processedAt(receipt.ocrProcessedAt())
+                .extractedFields(jsonToMap(receipt.ocrExtractedFields()))
+                .build();
+    }
+
     @Named("jsonToMap")
     protected Map<String, Object> jsonToMap(String json) {
         if (json == null || json.trim().isEmpty()) {
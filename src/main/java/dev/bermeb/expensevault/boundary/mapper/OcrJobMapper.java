@@ -0,0 +1,14 @@
+package dev.bermeb.expensevault.boundary.mapper;
+
+import dev.bermeb.expensevault.boundary.dto.response.OcrJobResponse;
+import dev.bermeb.expensevault.entity.model.OcrJob;
+import org.mapstruct.Mapper;
+
+@Mapper(
+        componentModel = "spring",
+        unmappedTargetPolicy = org.mapstruct.ReportingPolicy.IGNORE
+)
+public interface OcrJobMapper {
+
+    OcrJobResponse toResponse(OcrJob ocrJob);
+}
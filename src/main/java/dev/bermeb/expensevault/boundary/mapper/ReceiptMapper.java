@@ -1,7 +1,11 @@
 package dev.bermeb.expensevault.boundary.mapper;
 
+import dev.bermeb.expensevault.boundary.dto.response.CategoryResponse;
 import dev.bermeb.expensevault.boundary.dto.response.ReceiptResponse;
+import dev.bermeb.expensevault.boundary.dto.response.ReceiptSearchResultResponse;
+import dev.bermeb.expensevault.control.service.ReceiptSearchHit;
 import dev.bermeb.expensevault.entity.model.Receipt;
+import dev.bermeb.expensevault.entity.repository.ReceiptListItem;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -12,7 +16,24 @@ import org.mapstruct.Mapping;
 )
 public interface ReceiptMapper {
 
-    @Mapping(target = "category", source = "category")
     @Mapping(target = "ocrData", source = "ocrData")
     ReceiptResponse toResponse(Receipt receipt);
+
+    @Mapping(target = "category", source = ".")
+    @Mapping(target = "ocrData", source = ".", qualifiedByName = "listItemOcrData")
+    ReceiptResponse toResponse(ReceiptListItem receipt);
+
+    ReceiptSearchResultResponse toResponse(ReceiptSearchHit hit);
+
+    default CategoryResponse toCategoryResponse(ReceiptListItem receipt) {
+        if (receipt.categoryId() == null) {
+            return null;
+        }
+        return CategoryResponse.builder()
+                .id(receipt.categoryId())
+                .name(receipt.categoryName())
+                .color(receipt.categoryColor())
+                .icon(receipt.categoryIcon())
+                .build();
+    }
 }
@@ -0,0 +1,34 @@
+package dev.bermeb.expensevault.boundary.mapper;
+
+import dev.bermeb.expensevault.boundary.dto.response.ReparseRunResponse;
+import dev.bermeb.expensevault.entity.model.ReparseRun;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Mapper(
+        componentModel = "spring",
+        unmappedTargetPolicy = org.mapstruct.ReportingPolicy.IGNORE
+)
+public interface ReparseRunMapper {
+
+    @Mapping(target = "rowsPerSecond", expression = "java(rowsPerSecond(reparseRun))")
+    ReparseRunResponse toResponse(ReparseRun reparseRun);
+
+    /**
+     * Average since the run was first started, including any time it spent interrupted.
+     */
+    default Double rowsPerSecond(ReparseRun reparseRun) {
+        if (reparseRun.getStartedAt() == null || reparseRun.getProcessedRows() == 0) {
+            return null;
+        }
+        LocalDateTime end = reparseRun.getCompletedAt() != null ? reparseRun.getCompletedAt() : reparseRun.getUpdatedAt();
+        if (end == null) {
+            return null;
+        }
+        long millis = Duration.between(reparseRun.getStartedAt(), end).toMillis();
+        return millis > 0 ? reparseRun.getProcessedRows() * 1000.0 / millis : null;
+    }
+}
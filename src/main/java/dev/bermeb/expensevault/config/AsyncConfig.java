@@ -0,0 +1,118 @@
+package dev.bermeb.expensevault.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+@EnableScheduling
+public class AsyncConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor ocrJobExecutor(OcrJobProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getConcurrency());
+        executor.setMaxPoolSize(properties.getConcurrency());
+        // The worker never claims more jobs than there are free threads; the small queue only
+        // absorbs the gap between a task finishing and its thread returning to the pool
+        executor.setQueueCapacity(properties.getConcurrency());
+        executor.setThreadNamePrefix("ocr-job-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor imagePreprocessingExecutor(OcrPreprocessingProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        int threads = Math.max(1, properties.getConcurrency());
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        // Bounded on purpose: when full, ImagePreprocessor sends the original image instead of queueing more decodes
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setThreadNamePrefix("image-prep-");
+        return executor;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor ocrPageExecutor(OcrPagesProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getConcurrency());
+        executor.setMaxPoolSize(properties.getConcurrency());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        // Page tasks never wait on other page tasks, so running overflow on the caller is safe and throttles it
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("ocr-page-");
+        return executor;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor receiptImportExecutor(ReceiptImportProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        int threads = properties.getConcurrency() * properties.getMaxConcurrentImports();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        // Every import holds back its reader once its own window is in use, so the queue stays short
+        executor.setQueueCapacity(threads);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("receipt-import-");
+        return executor;
+    }
+
+    /**
+     * Streams the NDJSON progress of imports. Also Spring MVC's default for async requests, without
+     * one it falls back to a new unbounded thread per request.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor importResponseExecutor(ReceiptImportProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getMaxConcurrentImports());
+        executor.setMaxPoolSize(properties.getMaxConcurrentImports());
+        // ReceiptImportService turns away imports beyond the limit before they get here
+        executor.setQueueCapacity(properties.getMaxConcurrentImports());
+        executor.setThreadNamePrefix("import-response-");
+        return executor;
+    }
+
+    /**
+     * Streams receipt exports, sized on its own so long exports never take the threads of imports.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor exportResponseExecutor(ReceiptListProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getMaxConcurrentExports());
+        executor.setMaxPoolSize(properties.getMaxConcurrentExports());
+        // ReceiptExportService turns away exports beyond the limit before they get here
+        executor.setQueueCapacity(properties.getMaxConcurrentExports());
+        executor.setThreadNamePrefix("export-response-");
+        return executor;
+    }
+
+    /**
+     * Drives re-parse runs, one at a time.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor reparseExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("reparse-");
+        return executor;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor reparseParseExecutor(ReparseProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        int threads = Math.max(1, properties.getParallelism());
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        // A chunk is split into exactly as many slices as there are threads
+        executor.setQueueCapacity(threads);
+        executor.setThreadNamePrefix("reparse-parse-");
+        return executor;
+    }
+}
@@ -0,0 +1,16 @@
+package dev.bermeb.expensevault.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "expensevault.categories.cache")
+public class CategoryCacheProperties {
+
+    /**
+     * Full reload regardless of notifications, a safety net for changes the listener missed.
+     */
+    private Duration refreshInterval = Duration.ofMinutes(10);
+}
@@ -3,6 +3,8 @@ package dev.bermeb.expensevault.config;
 import dev.bermeb.expensevault.boundary.dto.response.ErrorResponse;
 import dev.bermeb.expensevault.control.exception.*;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -34,6 +36,62 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
 
+    @ExceptionHandler(ReceiptImageNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleReceiptImageNotFound(ReceiptImageNotFoundException ex, WebRequest request) {
+        log.warn("Receipt image not found: {}", ex.getMessage());
+
+        ErrorResponse error = ErrorResponse.builder()
+                .error(ex.getErrorCode())
+                .message(ex.getMessage())
+                .timestamp(LocalDateTime.now())
+                .path(request.getDescription(false).replace("uri=", ""))
+                .build();
+
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    }
+
+    @ExceptionHandler(OcrJobNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleOcrJobNotFound(OcrJobNotFoundException ex, WebRequest request) {
+        log.warn("OCR job not found: {}", ex.getMessage());
+
+        ErrorResponse error = ErrorResponse.builder()
+                .error(ex.getErrorCode())
+                .message(ex.getMessage())
+                .timestamp(LocalDateTime.now())
+                .path(request.getDescription(false).replace("uri=", ""))
+                .build();
+
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    }
+
+    @ExceptionHandler(ReparseRunNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleReparseRunNotFound(ReparseRunNotFoundException ex, WebRequest request) {
+        log.warn("Re-parse run not found: {}", ex.getMessage());
+
+        ErrorResponse error = ErrorResponse.builder()
+                .error(ex.getErrorCode())
+                .message(ex.getMessage())
+                .timestamp(LocalDateTime.now())
+                .path(request.getDescription(false).replace("uri=", ""))
+                .build();
+
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    }
+
+    @ExceptionHandler(ReparseRunConflictException.class)
+    public ResponseEntity<ErrorResponse> handleReparseRunConflict(ReparseRunConflictException ex, WebRequest request) {
+        log.warn("Re-parse run conflict: {}", ex.getMessage());
+
+        ErrorResponse error = ErrorResponse.builder()
+                .error(ex.getErrorCode())
+                .message(ex.getMessage())
+                .timestamp(LocalDateTime.now())
+                .path(request.getDescription(false).replace("uri=", ""))
+                .build();
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
     @ExceptionHandler(CategoryNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleCategoryNotFound(CategoryNotFoundException ex, WebRequest request) {
         log.warn("Category not found: {}", ex.getMessage());
@@ -104,6 +162,38 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
+    @ExceptionHandler(UploadCapacityExceededException.class)
+    public ResponseEntity<ErrorResponse> handleUploadCapacityExceeded(UploadCapacityExceededException ex, WebRequest request) {
+        log.warn("Upload rejected: {}", ex.getMessage());
+
+        ErrorResponse error = ErrorResponse.builder()
+                .error(ex.getErrorCode())
+                .message(ex.getMessage())
+                .timestamp(LocalDateTime.now())
+                .path(request.getDescription(false).replace("uri=", ""))
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(error);
+    }
+
+    @ExceptionHandler(ExportCapacityExceededException.class)
+    public ResponseEntity<ErrorResponse> handleExportCapacityExceeded(ExportCapacityExceededException ex, WebRequest request) {
+        log.warn("Export rejected: {}", ex.getMessage());
+
+        ErrorResponse error = ErrorResponse.builder()
+                .error(ex.getErrorCode())
+                .message(ex.getMessage())
+                .timestamp(LocalDateTime.now())
+                .path(request.getDescription(false).replace("uri=", ""))
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(error);
+    }
+
     @ExceptionHandler(ReceiptProcessingException.class)
     public ResponseEntity<ErrorResponse> handleReceiptProcessing(ReceiptProcessingException ex, WebRequest request) {
         log.error("Receipt processing failed: {}", ex.getMessage());
@@ -118,6 +208,20 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
     }
 
+    @ExceptionHandler(InvalidQueryParameterException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidQueryParameter(InvalidQueryParameterException ex, WebRequest request) {
+        log.warn("Invalid query parameter: {}", ex.getMessage());
+
+        ErrorResponse error = ErrorResponse.builder()
+                .error(ex.getErrorCode())
+                .message(ex.getMessage())
+                .timestamp(LocalDateTime.now())
+                .path(request.getDescription(false).replace("uri=", ""))
+                .build();
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationErrors(MethodArgumentNotValidException ex, WebRequest request) {
         Map<String, String> errors = new HashMap<>();
@@ -140,6 +244,20 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailure(OptimisticLockingFailureException ex, WebRequest request) {
+        log.warn("Concurrent modification: {}", ex.getMessage());
+
+        ErrorResponse error = ErrorResponse.builder()
+                .error("CONCURRENT_MODIFICATION")
+                .message("The resource was modified by another request, reload it and try again.")
+                .timestamp(LocalDateTime.now())
+                .path(request.getDescription(false).replace("uri=", ""))
+                .build();
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
     @ExceptionHandler(MaxUploadSizeExceededException.class)
     public ResponseEntity<ErrorResponse> handleMaxUploadSizeException(MaxUploadSizeExceededException ex, WebRequest request) {
         log.warn("File size exceeded limit: {}", ex.getMessage());
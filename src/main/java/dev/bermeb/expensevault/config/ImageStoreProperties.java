@@ -0,0 +1,28 @@
+package dev.bermeb.expensevault.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Local store for the original receipt files and their thumbnails, see {@code ImageStore}.
+ */
+@Data
+@ConfigurationProperties(prefix = "expensevault.images")
+public class ImageStoreProperties {
+
+    /**
+     * Directory holding the blobs. Every node serving images needs the same content here,
+     * e.g. a shared volume.
+     */
+    private String root = "data/images";
+
+    /**
+     * Longest side of a thumbnail in pixels.
+     */
+    private int thumbnailSize = 320;
+
+    /**
+     * JPEG quality (0 to 1) of thumbnails.
+     */
+    private float thumbnailQuality = 0.7f;
+}
@@ -0,0 +1,46 @@
+package dev.bermeb.expensevault.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings of the local OCR engine ({@code expensevault.ocr.engine=local}), meant for development and load tests.
+ */
+@Data
+@ConfigurationProperties(prefix = "expensevault.ocr.local")
+public class LocalOcrProperties {
+
+    /**
+     * Text returned for every image without a sidecar file.
+     */
+    private Resource cannedText = new ClassPathResource("ocr/local-receipt.txt");
+
+    /**
+     * Optional directory with sidecar files named {@code <sha256 of the uploaded image>.txt}, or
+     * {@code <sha256 of the PDF>-<page number>.txt} per page of a PDF. A matching file is returned
+     * instead of the canned text, so a test corpus can carry its expected OCR output.
+     */
+    private Path sidecarDirectory;
+
+    private float confidence = 0.95f;
+
+    /**
+     * Simulated OCR time per image.
+     */
+    private Duration latency = Duration.ZERO;
+
+    /**
+     * Random extra time on top of {@link #latency}, uniformly distributed between zero and this value.
+     */
+    private Duration latencyJitter = Duration.ZERO;
+
+    /**
+     * Share of requests (0 to 1) that fail with an OCR error.
+     */
+    private double errorRate = 0.0;
+}
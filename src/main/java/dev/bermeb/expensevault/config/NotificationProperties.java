@@ -0,0 +1,22 @@
+package dev.bermeb.expensevault.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "expensevault.notifications")
+public class NotificationProperties {
+
+    /**
+     * Whether this node listens for changes made by other nodes. Without it the category cache only
+     * notices them at its periodic refresh and report results are not cached.
+     */
+    private boolean listen = true;
+
+    /**
+     * Wait before the listener reconnects after losing its database connection.
+     */
+    private Duration reconnectDelay = Duration.ofSeconds(5);
+}
@@ -0,0 +1,38 @@
+package dev.bermeb.expensevault.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "expensevault.ocr.batching")
+public class OcrBatchingProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * How long the first request of a batch waits for others to join it.
+     */
+    private Duration window = Duration.ofMillis(20);
+
+    /**
+     * Images per batchAnnotateImages call. Google Vision accepts at most 16.
+     */
+    private int maxSize = 16;
+
+    /**
+     * Upper bound for the summed image size of one batch, keeps the gRPC message within limits.
+     */
+    private DataSize maxBytes = DataSize.ofMegabytes(10);
+
+    /**
+     * Number of batches that may be in flight to Google Vision at the same time.
+     */
+    private int concurrency = 4;
+
+    private int queueCapacity = 256;
+
+    private Duration requestTimeout = Duration.ofSeconds(60);
+}
@@ -0,0 +1,25 @@
+package dev.bermeb.expensevault.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "expensevault.ocr.cache")
+public class OcrCacheProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Number of OCR texts kept in the in-memory LRU tier of this node.
+     */
+    private int maxEntries = 1000;
+
+    /**
+     * Whether results are also stored in PostgreSQL, shared by all nodes and surviving restarts.
+     */
+    private boolean persistent = true;
+
+    private Duration persistentRetention = Duration.ofDays(90);
+}
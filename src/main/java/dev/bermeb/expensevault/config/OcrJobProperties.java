@@ -0,0 +1,42 @@
+package dev.bermeb.expensevault.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "expensevault.ocr.jobs")
+public class OcrJobProperties {
+
+    /**
+     * Whether this node claims and processes queued jobs. API-only nodes can switch this off
+     * and still accept uploads.
+     */
+    private boolean workerEnabled = true;
+
+    private String nodeId = ManagementFactory.getRuntimeMXBean().getName();
+
+    private Duration pollInterval = Duration.ofSeconds(1);
+
+    /**
+     * Maximum number of jobs processed concurrently on this node.
+     */
+    private int concurrency = 4;
+
+    private int maxAttempts = 3;
+
+    private Duration retryBackoff = Duration.ofSeconds(30);
+
+    /**
+     * Jobs whose lock was not renewed for this long (e.g. after a node crash) are handed out again.
+     */
+    private Duration staleAfter = Duration.ofMinutes(5);
+
+    /**
+     * How often a worker renews the lock of the jobs it is processing, well below {@link #staleAfter}
+     * so a long multi-page job is not handed out again while it still runs.
+     */
+    private Duration heartbeatInterval = Duration.ofMinutes(1);
+}
@@ -0,0 +1,29 @@
+package dev.bermeb.expensevault.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Multi-page receipts: PDFs and receipts uploaded as several images.
+ */
+@Data
+@ConfigurationProperties(prefix = "expensevault.ocr.pages")
+public class OcrPagesProperties {
+
+    /**
+     * Upper bound of pages (PDF pages plus images) per receipt.
+     */
+    private int maxPages = 20;
+
+    /**
+     * Resolution PDF pages are rendered at. 200 DPI gives about 1650x2340 px for A4.
+     */
+    private int renderDpi = 200;
+
+    /**
+     * Pages OCRed in parallel across all requests of this node.
+     */
+    private int concurrency = 8;
+
+    private int queueCapacity = 64;
+}
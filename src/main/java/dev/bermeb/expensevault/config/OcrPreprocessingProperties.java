@@ -0,0 +1,44 @@
+package dev.bermeb.expensevault.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "expensevault.ocr.preprocessing")
+public class OcrPreprocessingProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Longest side in pixels after downscaling. Receipt text stays well readable for OCR at 2000px.
+     */
+    private int maxDimension = 2000;
+
+    private boolean grayscale = true;
+
+    /**
+     * JPEG quality (0 to 1) of the re-encoded image.
+     */
+    private float jpegQuality = 0.8f;
+
+    /**
+     * Images smaller than this are sent unchanged, decoding them would cost more than it saves.
+     */
+    private DataSize minSize = DataSize.ofKilobytes(300);
+
+    /**
+     * Threads of the pre-processing executor. Decoding a 12 MP photo needs about 50 MB of heap,
+     * so this also bounds the memory used by pre-processing. 0 runs it on the calling thread.
+     */
+    private int concurrency = 2;
+
+    private int queueCapacity = 16;
+
+    /**
+     * How long a caller waits for its image. On timeout or a full queue the original image is used.
+     */
+    private Duration timeout = Duration.ofSeconds(10);
+}
@@ -0,0 +1,45 @@
+package dev.bermeb.expensevault.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Bulk import of receipt archives via {@code POST /receipts/import}.
+ */
+@Data
+@ConfigurationProperties(prefix = "expensevault.import")
+public class ReceiptImportProperties {
+
+    /**
+     * Receipts of one import in OCR at the same time. The archive is not read any further while
+     * all of them are busy, so a fast client cannot push more than this many images onto the heap.
+     */
+    private int concurrency = 4;
+
+    /**
+     * Imports streamed at the same time on this node, each with its own reader thread.
+     */
+    private int maxConcurrentImports = 2;
+
+    /**
+     * Recognized receipts stored per transaction.
+     */
+    private int batchSize = 25;
+
+    /**
+     * Recognized receipts wait at most this long for their batch to fill up.
+     */
+    private Duration flushInterval = Duration.ofSeconds(2);
+
+    /**
+     * Upper bound of files per archive, directories and hidden files not counted.
+     */
+    private int maxEntries = 1000;
+
+    /**
+     * How long a single import may stream before the response is cut off.
+     */
+    private Duration timeout = Duration.ofMinutes(30);
+}
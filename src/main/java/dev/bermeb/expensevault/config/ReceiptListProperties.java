@@ -0,0 +1,47 @@
+package dev.bermeb.expensevault.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Paging of {@code GET /receipts} and streaming of {@code GET /receipts/export}.
+ */
+@Data
+@ConfigurationProperties(prefix = "expensevault.receipts")
+public class ReceiptListProperties {
+
+    /**
+     * Page size of the receipt list when the client does not ask for one. Matches the 1000 receipts
+     * the list returned before it was paged, so clients that do not follow the {@code Link} header
+     * still get what they used to.
+     */
+    private int defaultPageSize = 1000;
+
+    /**
+     * Page size of the search when the client does not ask for one.
+     */
+    private int defaultSearchPageSize = 50;
+
+    /**
+     * Larger page sizes asked for by clients are cut down to this.
+     */
+    private int maxPageSize = 1000;
+
+    /**
+     * Rows the export reads from the database per round trip. Bounds the memory an export holds.
+     */
+    private int exportFetchSize = 1000;
+
+    /**
+     * Exports streamed at the same time on this node, each holding a thread and a database
+     * connection. Further exports are turned away with 503.
+     */
+    private int maxConcurrentExports = 4;
+
+    /**
+     * How long a single export may stream before the response is cut off.
+     */
+    private Duration exportTimeout = Duration.ofMinutes(30);
+}
@@ -0,0 +1,33 @@
+package dev.bermeb.expensevault.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+
+/**
+ * Admin job that re-runs receipt parsing over the stored OCR text, see {@code POST /admin/reparse}.
+ */
+@Data
+@ConfigurationProperties(prefix = "expensevault.reparse")
+public class ReparseProperties {
+
+    /**
+     * Rows read, parsed and written per transaction. Each chunk also moves the checkpoint.
+     */
+    private int chunkSize = 2000;
+
+    /**
+     * Threads parsing a chunk in parallel.
+     */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * A running run without a checkpoint for this long is considered dead (e.g. its node crashed)
+     * and may be resumed elsewhere.
+     */
+    private Duration staleAfter = Duration.ofMinutes(5);
+
+    private String nodeId = ManagementFactory.getRuntimeMXBean().getName();
+}
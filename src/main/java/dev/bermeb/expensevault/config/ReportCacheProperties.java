@@ -0,0 +1,28 @@
+package dev.bermeb.expensevault.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "expensevault.reports.cache")
+public class ReportCacheProperties {
+
+    /**
+     * Whether report results are cached, only in effect while the node listens for changes, see
+     * {@link NotificationProperties#isListen()}.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Number of report results kept on this node, the least recently used are dropped first.
+     */
+    private int maxEntries = 500;
+
+    /**
+     * Age at which a result is read again even without a change in its period, a safety net for
+     * missed change notifications.
+     */
+    private Duration ttl = Duration.ofHours(6);
+}
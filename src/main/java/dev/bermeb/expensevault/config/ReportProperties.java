@@ -0,0 +1,19 @@
+package dev.bermeb.expensevault.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "expensevault.reports")
+public class ReportProperties {
+
+    /**
+     * Number of merchants listed in an expense summary, the ones with the highest amounts.
+     */
+    private int topMerchants = 10;
+
+    /**
+     * Maximum number of buckets in a time series, e.g. about three years of days.
+     */
+    private int maxTimeSeriesBuckets = 1100;
+}
@@ -0,0 +1,23 @@
+package dev.bermeb.expensevault.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "expensevault.reports.statistics")
+public class StatisticsProperties {
+
+    /**
+     * Whether this node refreshes the materialized statistics views. Any number of nodes can; only
+     * one of them refreshes at a time.
+     */
+    private boolean refreshEnabled = true;
+
+    /**
+     * How often to check for receipt changes. All changes within one interval are covered by a
+     * single refresh, and nothing is refreshed without changes.
+     */
+    private Duration refreshInterval = Duration.ofSeconds(5);
+}
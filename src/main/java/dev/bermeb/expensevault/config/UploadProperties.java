@@ -0,0 +1,25 @@
+package dev.bermeb.expensevault.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "expensevault.upload")
+public class UploadProperties {
+
+    private DataSize maxFileSize = DataSize.ofMegabytes(10);
+
+    /**
+     * Upload bytes that may be held on the heap at the same time, across all requests of this node.
+     * An upload holds its share from reading until its OCR call (or job enqueue) is done.
+     */
+    private DataSize inFlightBudget = DataSize.ofMegabytes(128);
+
+    /**
+     * How long an upload waits for budget before it is rejected with 503.
+     */
+    private Duration budgetWait = Duration.ofSeconds(5);
+}
@@ -1,18 +1,32 @@
 package dev.bermeb.expensevault.config;
 
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
+@RequiredArgsConstructor
 public class WebConfig implements WebMvcConfigurer {
 
+    private final ThreadPoolTaskExecutor importResponseExecutor;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        // Import and export choose their own executor and timeout, see StreamingResponses
+        configurer.setTaskExecutor(importResponseExecutor);
+    }
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/api/v1/**")
                 .allowedOrigins("http://localhost:4200", "http://localhost:3000", "https://expensevault.bermeb.dev")
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
+                // Paging and conditional requests need these readable from scripts
+                .exposedHeaders("X-Next-Cursor", "Link", "ETag")
                 .allowCredentials(true)
                 .maxAge(3600);
     }
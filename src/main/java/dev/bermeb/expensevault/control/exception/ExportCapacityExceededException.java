@@ -0,0 +1,15 @@
+package dev.bermeb.expensevault.control.exception;
+
+public class ExportCapacityExceededException extends BaseException {
+
+    private static final String ERROR_CODE = "EXPORT_CAPACITY_EXCEEDED";
+
+    public ExportCapacityExceededException(String message) {
+        super(message);
+    }
+
+    @Override
+    public String getErrorCode() {
+        return ERROR_CODE;
+    }
+}
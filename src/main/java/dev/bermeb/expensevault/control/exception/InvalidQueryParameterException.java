@@ -0,0 +1,19 @@
+package dev.bermeb.expensevault.control.exception;
+
+public class InvalidQueryParameterException extends BaseException {
+
+    private static final String ERROR_CODE = "INVALID_QUERY_PARAMETER";
+
+    public InvalidQueryParameterException(String message) {
+        super(message);
+    }
+
+    public InvalidQueryParameterException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    @Override
+    public String getErrorCode() {
+        return ERROR_CODE;
+    }
+}
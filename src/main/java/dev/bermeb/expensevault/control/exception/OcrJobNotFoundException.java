@@ -0,0 +1,17 @@
+package dev.bermeb.expensevault.control.exception;
+
+import java.util.UUID;
+
+public class OcrJobNotFoundException extends BaseException {
+
+    private static final String ERROR_CODE = "OCR_JOB_NOT_FOUND";
+
+    public OcrJobNotFoundException(UUID jobId) {
+        super("OCR job with ID " + jobId + " not found");
+    }
+
+    @Override
+    public String getErrorCode() {
+        return ERROR_CODE;
+    }
+}
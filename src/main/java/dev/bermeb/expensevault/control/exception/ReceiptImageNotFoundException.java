@@ -0,0 +1,17 @@
+package dev.bermeb.expensevault.control.exception;
+
+import java.util.UUID;
+
+public class ReceiptImageNotFoundException extends BaseException {
+
+    private static final String ERROR_CODE = "RECEIPT_IMAGE_NOT_FOUND";
+
+    public ReceiptImageNotFoundException(UUID receiptId) {
+        super("No image stored for receipt with ID " + receiptId);
+    }
+
+    @Override
+    public String getErrorCode() {
+        return ERROR_CODE;
+    }
+}
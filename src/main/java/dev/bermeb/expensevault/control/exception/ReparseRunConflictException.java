@@ -0,0 +1,15 @@
+package dev.bermeb.expensevault.control.exception;
+
+public class ReparseRunConflictException extends BaseException {
+
+    private static final String ERROR_CODE = "REPARSE_RUN_CONFLICT";
+
+    public ReparseRunConflictException(String message) {
+        super(message);
+    }
+
+    @Override
+    public String getErrorCode() {
+        return ERROR_CODE;
+    }
+}
@@ -0,0 +1,17 @@
+package dev.bermeb.expensevault.control.exception;
+
+import java.util.UUID;
+
+public class ReparseRunNotFoundException extends BaseException {
+
+    private static final String ERROR_CODE = "REPARSE_RUN_NOT_FOUND";
+
+    public ReparseRunNotFoundException(UUID runId) {
+        super("Re-parse run with ID " + runId + " not found");
+    }
+
+    @Override
+    public String getErrorCode() {
+        return ERROR_CODE;
+    }
+}
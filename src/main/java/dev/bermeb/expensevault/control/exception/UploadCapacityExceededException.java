@@ -0,0 +1,15 @@
+package dev.bermeb.expensevault.control.exception;
+
+public class UploadCapacityExceededException extends BaseException {
+
+    private static final String ERROR_CODE = "UPLOAD_CAPACITY_EXCEEDED";
+
+    public UploadCapacityExceededException(String message) {
+        super(message);
+    }
+
+    @Override
+    public String getErrorCode() {
+        return ERROR_CODE;
+    }
+}
@@ -0,0 +1,34 @@
+package dev.bermeb.expensevault.control.service;
+
+import dev.bermeb.expensevault.entity.model.Category;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Immutable copy of a category in the {@link CategoryCache}, safe to share between threads.
+ *
+ * @param lastModified when the category was last changed, validator of responses served from the cache
+ */
+public record CachedCategory(UUID id, String name, String color, String icon, Long version,
+                             LocalDateTime lastModified) {
+
+    static CachedCategory of(Category category) {
+        return new CachedCategory(category.getId(), category.getName(), category.getColor(), category.getIcon(),
+                category.getVersion(),
+                category.getUpdatedAt() != null ? category.getUpdatedAt() : category.getCreatedAt());
+    }
+
+    /**
+     * A new detached entity, good for referencing the category from a receipt without loading it.
+     */
+    public Category toEntity() {
+        return Category.builder()
+                .id(id)
+                .name(name)
+                .color(color)
+                .icon(icon)
+                .version(version)
+                .build();
+    }
+}
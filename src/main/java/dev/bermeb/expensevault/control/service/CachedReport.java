@@ -0,0 +1,8 @@
+package dev.bermeb.expensevault.control.service;
+
+/**
+ * A report result together with the {@link ResourceVersion} it was read at, so a cached report
+ * also answers conditional GETs without a query.
+ */
+public record CachedReport<T>(ResourceVersion version, T body) {
+}
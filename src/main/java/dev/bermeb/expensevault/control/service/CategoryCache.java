@@ -0,0 +1,116 @@
+package dev.bermeb.expensevault.control.service;
+
+import dev.bermeb.expensevault.entity.repository.CategoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * All categories of this node in memory, by id and by name.
+ * <p>
+ * Categories are few and rarely change, so the cache holds all of them and a change simply drops
+ * the whole set; the next read loads it again with one query. Changes made through this node drop
+ * it right after their commit. Changes from other nodes arrive through the {@code category_changed}
+ * notification, see {@link DatabaseChangeListener}, and a periodic reload catches anything missed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CategoryCache {
+
+    private record Snapshot(List<CachedCategory> all, Map<UUID, CachedCategory> byId, Map<String, CachedCategory> byName) {
+    }
+
+    private final CategoryRepository categoryRepository;
+
+    // Moves on with every invalidation, so a load that raced with a change is not installed
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    public List<CachedCategory> findAll() {
+        return snapshot().all();
+    }
+
+    public Optional<CachedCategory> findById(UUID id) {
+        return Optional.ofNullable(snapshot().byId().get(id));
+    }
+
+    public Optional<CachedCategory> findByName(String name) {
+        return Optional.ofNullable(snapshot().byName().get(name));
+    }
+
+    /**
+     * Drops the cached categories. Inside a transaction this happens after its commit, earlier
+     * another thread could load the old state again.
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateNow();
+                }
+            });
+        } else {
+            invalidateNow();
+        }
+    }
+
+    void invalidateNow() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${expensevault.categories.cache.refresh-interval:10m}",
+            fixedDelayString = "${expensevault.categories.cache.refresh-interval:10m}")
+    public void reload() {
+        invalidateNow();
+        snapshot();
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+
+        long loadedGeneration = generation.get();
+        Snapshot loaded = load();
+        synchronized (this) {
+            if (generation.get() == loadedGeneration) {
+                snapshot = loaded;
+            }
+        }
+        return loaded;
+    }
+
+    private Snapshot load() {
+        List<CachedCategory> all = categoryRepository.findAll(Sort.by("name")).stream()
+                .map(CachedCategory::of)
+                .toList();
+
+        Map<UUID, CachedCategory> byId = new LinkedHashMap<>();
+        Map<String, CachedCategory> byName = new LinkedHashMap<>();
+        for (CachedCategory category : all) {
+            byId.put(category.id(), category);
+            byName.put(category.name(), category);
+        }
+
+        log.debug("Loaded {} categories into the cache", all.size());
+        return new Snapshot(all, Map.copyOf(byId), Map.copyOf(byName));
+    }
+}
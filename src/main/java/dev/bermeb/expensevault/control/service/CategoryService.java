@@ -6,6 +6,8 @@ import dev.bermeb.expensevault.control.exception.CategoryAlreadyExistsException;
 import dev.bermeb.expensevault.control.exception.CategoryHasReceiptsException;
 import dev.bermeb.expensevault.control.exception.CategoryNotFoundException;
 import dev.bermeb.expensevault.entity.model.Category;
+import dev.bermeb.expensevault.entity.model.CategoryReceiptStats;
+import dev.bermeb.expensevault.entity.repository.CategoryReceiptStatsRepository;
 import dev.bermeb.expensevault.entity.repository.CategoryRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,8 +15,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -23,15 +28,30 @@ import java.util.UUID;
 public class CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final CategoryReceiptStatsRepository categoryReceiptStatsRepository;
+    private final CategoryCache categoryCache;
+    private final ReportCache reportCache;
 
     @Transactional(readOnly = true)
-    public List<Category> findAll() {
-        return categoryRepository.findAll();
+    public List<CachedCategory> findAll() {
+        return categoryCache.findAll();
     }
 
     @Transactional(readOnly = true)
-    public Optional<Category> findById(UUID id) {
-        return categoryRepository.findById(id);
+    public Optional<CachedCategory> findById(UUID id) {
+        return categoryCache.findById(id);
+    }
+
+    @Transactional(readOnly = true)
+    public Map<UUID, CategoryReceiptStats> findAllStats() {
+        return categoryReceiptStatsRepository.findAll().stream()
+                .collect(Collectors.toMap(CategoryReceiptStats::getCategoryId, Function.identity()));
+    }
+
+    @Transactional(readOnly = true)
+    public CategoryReceiptStats findStats(UUID id) {
+        return categoryReceiptStatsRepository.findById(id)
+                .orElseGet(() -> CategoryReceiptStats.empty(id));
     }
 
     public Category create(CategoryCreateRequest request) {
@@ -46,6 +66,8 @@ public class CategoryService {
                 .build();
 
         Category savedCategory = categoryRepository.save(category);
+        categoryCache.invalidate();
+        reportCache.invalidateCategoriesAfterCommit();
         log.info("Category created with ID: {} and name: {}", savedCategory.getId(), savedCategory.getName());
         return savedCategory;
     }
@@ -70,19 +92,24 @@ public class CategoryService {
         }
 
         Category updatedCategory = categoryRepository.save(category);
+        categoryCache.invalidate();
+        reportCache.invalidateCategoriesAfterCommit();
         log.info("Category updated with ID: {}", updatedCategory.getId());
         return updatedCategory;
     }
 
     public void deleteById(UUID id) {
-        Category category = categoryRepository.findById(id)
+        // Locked first, so no receipt can be assigned between the check and the delete
+        categoryRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new CategoryNotFoundException(id));
 
-        if(!category.getReceipts().isEmpty()) {
+        if (findStats(id).getReceiptCount() > 0) {
             throw new CategoryHasReceiptsException(id);
         }
 
         categoryRepository.deleteById(id);
+        categoryCache.invalidate();
+        reportCache.invalidateCategoriesAfterCommit();
         log.info("Category deleted with ID: {}", id);
     }
 }
\ No newline at end of file
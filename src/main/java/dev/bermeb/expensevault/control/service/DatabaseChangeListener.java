@@ -0,0 +1,152 @@
+package dev.bermeb.expensevault.control.service;
+
+import dev.bermeb.expensevault.config.NotificationProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Listens on the channels that triggers notify on every committed change and drops what the caches
+ * of this node hold of it:
+ * <ul>
+ *     <li>{@code category_changed}, from {@code categories}: the {@link CategoryCache} and the
+ *     reports filtered by category name</li>
+ *     <li>{@code receipt_dates_changed}, from {@code daily_receipt_rollups} with the changed day:
+ *     the reports in the {@link ReportCache} whose period contains it</li>
+ * </ul>
+ * Changes made through this node arrive the same way, a few milliseconds after their commit.
+ * <p>
+ * The listener keeps its own connection outside the pool, it is held for the lifetime of the node.
+ * After losing it both caches are dropped on reconnect, notifications sent in between are lost.
+ */
+@Component
+@ConditionalOnProperty(prefix = "expensevault.notifications", name = "listen", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class DatabaseChangeListener {
+
+    private static final String CATEGORY_CHANNEL = "category_changed";
+    private static final String RECEIPT_DATES_CHANNEL = "receipt_dates_changed";
+
+    private static final int POLL_TIMEOUT_MS = 10_000;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+
+    private final CategoryCache categoryCache;
+    private final ReportCache reportCache;
+    private final NotificationProperties properties;
+    private final DataSourceProperties dataSourceProperties;
+
+    private volatile boolean stopping;
+    private volatile Thread thread;
+
+    public DatabaseChangeListener(CategoryCache categoryCache,
+                                  ReportCache reportCache,
+                                  NotificationProperties properties,
+                                  DataSourceProperties dataSourceProperties) {
+        this.categoryCache = categoryCache;
+        this.reportCache = reportCache;
+        this.properties = properties;
+        this.dataSourceProperties = dataSourceProperties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        thread = Thread.ofPlatform()
+                .name("database-change-listener")
+                .daemon()
+                .start(this::run);
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopping = true;
+        Thread current = thread;
+        if (current != null) {
+            current.interrupt();
+        }
+    }
+
+    private void run() {
+        boolean reconnect = false;
+        while (!stopping) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CATEGORY_CHANNEL);
+                    statement.execute("LISTEN " + RECEIPT_DATES_CHANNEL);
+                }
+                if (reconnect) {
+                    log.info("Database change listener reconnected");
+                    categoryCache.invalidateNow();
+                    reportCache.invalidateAll();
+                }
+                listen(connection);
+            } catch (SQLException e) {
+                if (stopping) {
+                    return;
+                }
+                log.warn("Database change listener lost its connection, retrying in {}: {}",
+                        properties.getReconnectDelay(), e.getMessage());
+            }
+
+            reconnect = true;
+            try {
+                Thread.sleep(properties.getReconnectDelay());
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void listen(Connection connection) throws SQLException {
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        while (!stopping) {
+            PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+            if (notifications != null && notifications.length > 0) {
+                log.debug("Received {} change notifications", notifications.length);
+                handle(notifications);
+            } else if (!connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                // A silently dropped connection would otherwise just never deliver anything again
+                throw new SQLException("Listener connection is no longer valid");
+            }
+        }
+    }
+
+    private void handle(PGNotification[] notifications) {
+        boolean categoriesChanged = false;
+        Set<LocalDate> changedDates = new HashSet<>();
+        for (PGNotification notification : notifications) {
+            if (CATEGORY_CHANNEL.equals(notification.getName())) {
+                categoriesChanged = true;
+            } else if (RECEIPT_DATES_CHANNEL.equals(notification.getName())) {
+                try {
+                    changedDates.add(LocalDate.parse(notification.getParameter()));
+                } catch (DateTimeParseException e) {
+                    log.warn("Ignoring receipt date notification '{}'", notification.getParameter());
+                }
+            }
+        }
+
+        if (categoriesChanged) {
+            categoryCache.invalidateNow();
+            reportCache.invalidateCategories();
+        }
+        if (!changedDates.isEmpty()) {
+            reportCache.invalidate(changedDates);
+        }
+    }
+}
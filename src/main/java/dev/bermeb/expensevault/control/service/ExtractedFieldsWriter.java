@@ -0,0 +1,43 @@
+package dev.bermeb.expensevault.control.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.bermeb.expensevault.boundary.dto.response.OcrResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serializes the parsed fields of an {@link OcrResult} into the {@code ocr_data.extracted_fields} JSON.
+ * Thread safe, used by regular saves as well as by the parallel re-parse job.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ExtractedFieldsWriter {
+
+    static final String DETECTED_AMOUNT = "detectedAmount";
+    static final String DETECTED_DATE = "detectedDate";
+    static final String DETECTED_MERCHANT = "detectedMerchant";
+
+    private final ObjectMapper objectMapper;
+
+    public String toJson(OcrResult ocrResult) {
+        try {
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put(DETECTED_AMOUNT, ocrResult.getTotalAmount() != null ? ocrResult.getTotalAmount() : 0);
+            data.put(DETECTED_DATE, ocrResult.getDate() != null ? ocrResult.getDate().toString() : "");
+            data.put(DETECTED_MERCHANT, ocrResult.getMerchantName() != null ? ocrResult.getMerchantName() : "");
+            data.put("detectedItems", ocrResult.getDetectedItems() != null ? ocrResult.getDetectedItems() : List.of());
+            data.put("detectedCurrency", ocrResult.getCurrency() != null ? ocrResult.getCurrency() : "");
+            data.put("detectedLocale", ocrResult.getLocale() != null ? ocrResult.getLocale() : "");
+            return objectMapper.writeValueAsString(data);
+        } catch (Exception e) {
+            log.warn("Failed to serialize OCR result to JSON", e);
+            return "{}";
+        }
+    }
+}
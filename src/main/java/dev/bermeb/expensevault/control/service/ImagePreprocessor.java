@@ -0,0 +1,206 @@
+package dev.bermeb.expensevault.control.service;
+
+import dev.bermeb.expensevault.config.OcrPreprocessingProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Shrinks receipt photos before they are sent to the OCR engine: downscale to
+ * {@code max-dimension}, optionally convert to grayscale and re-encode as JPEG.
+ * <p>
+ * Pre-processing never fails an upload. Formats ImageIO cannot decode, results that are not
+ * smaller, errors, timeouts and a full executor queue all fall back to the original bytes.
+ */
+@Component
+@Slf4j
+public class ImagePreprocessor {
+
+    private final OcrPreprocessingProperties properties;
+    private final ThreadPoolTaskExecutor imagePreprocessingExecutor;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary bytesSaved;
+
+    public ImagePreprocessor(OcrPreprocessingProperties properties,
+                             ThreadPoolTaskExecutor imagePreprocessingExecutor,
+                             MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.imagePreprocessingExecutor = imagePreprocessingExecutor;
+        this.meterRegistry = meterRegistry;
+        this.bytesSaved = DistributionSummary.builder("expensevault.ocr.preprocessing.bytes.saved")
+                .description("Bytes not sent to the OCR engine thanks to pre-processing")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public byte[] prepare(byte[] imageData) {
+        if (!properties.isEnabled() || imageData.length < properties.getMinSize().toBytes()) {
+            return imageData;
+        }
+
+        long startTime = System.nanoTime();
+        Outcome outcome = Outcome.FAILED;
+        byte[] result = imageData;
+        try {
+            byte[] processed = properties.getConcurrency() > 0 ? processOnExecutor(imageData) : process(imageData);
+            if (processed == null) {
+                outcome = Outcome.UNSUPPORTED;
+            } else if (processed.length < imageData.length) {
+                outcome = Outcome.REDUCED;
+                result = processed;
+            } else {
+                outcome = Outcome.NOT_SMALLER;
+            }
+        } catch (TaskRejectedException e) {
+            outcome = Outcome.REJECTED;
+            log.debug("Pre-processing queue full, sending original image");
+        } catch (TimeoutException e) {
+            outcome = Outcome.TIMEOUT;
+            log.warn("Pre-processing did not finish within {}, sending original image", properties.getTimeout());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("Pre-processing failed, sending original image: {}", e.getMessage());
+        } finally {
+            Timer.builder("expensevault.ocr.preprocessing")
+                    .description("Time spent shrinking images before OCR")
+                    .tag("outcome", outcome.tag)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        }
+
+        bytesSaved.record(imageData.length - result.length);
+        if (result != imageData) {
+            log.debug("Pre-processed image from {} to {} bytes", imageData.length, result.length);
+        }
+        return result;
+    }
+
+    private byte[] processOnExecutor(byte[] imageData) throws Exception {
+        Future<byte[]> future = imagePreprocessingExecutor.submit(() -> process(imageData));
+        try {
+            return future.get(properties.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        } finally {
+            future.cancel(true);
+        }
+    }
+
+    /**
+     * @return the re-encoded image, or {@code null} if ImageIO cannot read the format (e.g. HEIC or PDF)
+     */
+    private byte[] process(byte[] imageData) throws IOException {
+        BufferedImage source = decode(imageData);
+        if (source == null) {
+            return null;
+        }
+
+        BufferedImage scaled = scale(source);
+        return encodeJpeg(scaled);
+    }
+
+    /**
+     * Decodes with source subsampling, so a 4000px photo that ends up at 2000px is never
+     * fully materialized in memory.
+     */
+    private BufferedImage decode(byte[] imageData) throws IOException {
+        try (ImageInputStream input = new MemoryCacheImageInputStream(new ByteArrayInputStream(imageData))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int longestSide = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int subsampling = Math.max(1, longestSide / properties.getMaxDimension());
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private BufferedImage scale(BufferedImage source) {
+        int longestSide = Math.max(source.getWidth(), source.getHeight());
+        double factor = Math.min(1.0, (double) properties.getMaxDimension() / longestSide);
+        int width = Math.max(1, (int) Math.round(source.getWidth() * factor));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * factor));
+
+        BufferedImage target = new BufferedImage(width, height,
+                properties.isGrayscale() ? BufferedImage.TYPE_BYTE_GRAY : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            // Transparent areas (PNG screenshots) become white instead of black
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (ImageOutputStream output = new MemoryCacheImageOutputStream(buffer)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(properties.getJpegQuality());
+
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return buffer.toByteArray();
+    }
+
+    private enum Outcome {
+        REDUCED("reduced"),
+        NOT_SMALLER("not_smaller"),
+        UNSUPPORTED("unsupported"),
+        REJECTED("rejected"),
+        TIMEOUT("timeout"),
+        FAILED("failed");
+
+        private final String tag;
+
+        Outcome(String tag) {
+            this.tag = tag;
+        }
+    }
+}
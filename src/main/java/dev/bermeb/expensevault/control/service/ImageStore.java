@@ -0,0 +1,121 @@
+package dev.bermeb.expensevault.control.service;
+
+import dev.bermeb.expensevault.config.ImageStoreProperties;
+import dev.bermeb.expensevault.control.exception.ReceiptProcessingException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed blob store for receipt files on the local filesystem.
+ * <p>
+ * A blob lives at {@code <root>/ab/cd/abcd...} where the name is the SHA-256 of its bytes, so the
+ * same file uploaded twice is stored once and a blob never changes once written. Blobs are written
+ * to a temporary file next to their target and moved into place, readers never see half a file.
+ * Thumbnails are ordinary blobs, generated once when the original is stored. The original's
+ * thumbnail address is kept next to it in {@code abcd....thumbnail} (empty if none could be made),
+ * so storing a known file again neither decodes nor scales it.
+ */
+@Component
+@Slf4j
+public class ImageStore {
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    private static final String FALLBACK_CONTENT_TYPE = "application/octet-stream";
+    private static final String THUMBNAIL_SUFFIX = ".thumbnail";
+
+    private final Path root;
+    private final ThumbnailGenerator thumbnailGenerator;
+
+    public ImageStore(ImageStoreProperties properties, ThumbnailGenerator thumbnailGenerator) {
+        this.root = Path.of(properties.getRoot()).toAbsolutePath().normalize();
+        this.thumbnailGenerator = thumbnailGenerator;
+    }
+
+    /**
+     * Stores a receipt file and its thumbnail. Call it outside of any transaction, it writes to disk.
+     */
+    public StoredImage store(byte[] data) {
+        UploadedImage.Format format = UploadedImage.Format.sniff(data, data.length);
+        String hash = OcrResultCache.hash(data);
+
+        try {
+            boolean created = write(pathOf(hash), data);
+            Path thumbnailReference = thumbnailReferenceOf(hash);
+
+            String thumbnailHash;
+            if (!created && Files.exists(thumbnailReference)) {
+                String reference = Files.readString(thumbnailReference, StandardCharsets.US_ASCII);
+                thumbnailHash = reference.isEmpty() ? null : reference;
+            } else {
+                // Also for blobs stored before their thumbnail was referenced, or by a writer that died in between
+                thumbnailHash = null;
+                byte[] thumbnail = thumbnailGenerator.generate(data, format);
+                if (thumbnail != null) {
+                    thumbnailHash = OcrResultCache.hash(thumbnail);
+                    write(pathOf(thumbnailHash), thumbnail);
+                }
+                write(thumbnailReference, (thumbnailHash != null ? thumbnailHash : "").getBytes(StandardCharsets.US_ASCII));
+            }
+
+            log.debug("{} receipt image {} ({} bytes)", created ? "Stored" : "Reused", hash, data.length);
+            return new StoredImage(hash, format != null ? format.getContentType() : FALLBACK_CONTENT_TYPE,
+                    data.length, thumbnailHash);
+        } catch (IOException e) {
+            throw new ReceiptProcessingException("Receipt image could not be stored", e);
+        }
+    }
+
+    /**
+     * @return the file of a blob, empty if the hash is malformed or the blob is missing
+     */
+    public Optional<Path> find(String hash) {
+        if (hash == null || !HASH.matcher(hash).matches()) {
+            return Optional.empty();
+        }
+        Path path = pathOf(hash);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    /**
+     * @return whether the file was new
+     */
+    private boolean write(Path target, byte[] data) throws IOException {
+        if (Files.exists(target)) {
+            return false;
+        }
+
+        Path directory = target.getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, data);
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                // Another writer may have won the race, its content is identical
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return true;
+    }
+
+    private Path pathOf(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    private Path thumbnailReferenceOf(String hash) {
+        Path blob = pathOf(hash);
+        return blob.resolveSibling(blob.getFileName() + THUMBNAIL_SUFFIX);
+    }
+}
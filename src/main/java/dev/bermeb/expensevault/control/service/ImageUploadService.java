@@ -0,0 +1,144 @@
+package dev.bermeb.expensevault.control.service;
+
+import dev.bermeb.expensevault.config.UploadProperties;
+import dev.bermeb.expensevault.control.exception.InvalidFileException;
+import dev.bermeb.expensevault.control.exception.UploadCapacityExceededException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads receipt uploads from the multipart stream into a single exactly sized array.
+ * <p>
+ * Large multipart parts are spooled to disk by the servlet container
+ * ({@code spring.servlet.multipart.file-size-threshold}), so the array created here is the only
+ * heap copy of a big upload. Before reading, the upload has to get its size from a node-wide byte
+ * budget; the file type is decided by the magic bytes, not by the client's Content-Type header.
+ */
+@Service
+@Slf4j
+public class ImageUploadService {
+
+    private static final int SNIFF_LENGTH = 8;
+
+    private final UploadProperties properties;
+
+    /**
+     * Permits are KiB, which keeps budgets of several GB within the int range of a semaphore.
+     */
+    private final Semaphore budget;
+    private final int budgetKib;
+
+    public ImageUploadService(UploadProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.budgetKib = (int) Math.min(Integer.MAX_VALUE, properties.getInFlightBudget().toKilobytes());
+        this.budget = new Semaphore(budgetKib, true);
+
+        Gauge.builder("expensevault.upload.bytes.in.flight", budget, b -> (budgetKib - b.availablePermits()) * 1024.0)
+                .description("Upload bytes currently held on the heap")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public UploadedImage read(MultipartFile file) throws IOException {
+        long size = file.getSize();
+        if (file.isEmpty() || size == 0) {
+            throw new InvalidFileException("File is empty");
+        }
+
+        if (size > properties.getMaxFileSize().toBytes()) {
+            throw new InvalidFileException("File size exceeds the maximum limit of " + properties.getMaxFileSize().toMegabytes() + "MB");
+        }
+
+        int permits = acquire(size);
+        boolean handedOver = false;
+        try (InputStream in = file.getInputStream()) {
+            byte[] data = new byte[(int) size];
+
+            // Look at the first bytes before pulling the rest of a possibly large file off disk
+            int read = in.readNBytes(data, 0, (int) Math.min(SNIFF_LENGTH, size));
+            UploadedImage.Format format = UploadedImage.Format.sniff(data, read);
+            if (format == null) {
+                throw new InvalidFileException("Unsupported file type: " + file.getContentType() + ". Supported types are: PNG, JPG and PDF");
+            }
+            if (!format.getContentType().equals(file.getContentType())) {
+                log.debug("Upload {} declared as {} but is {}", file.getOriginalFilename(), file.getContentType(), format);
+            }
+
+            read += in.readNBytes(data, read, data.length - read);
+            if (read != data.length || in.read() != -1) {
+                throw new InvalidFileException("File size does not match the uploaded content");
+            }
+
+            UploadedImage image = new UploadedImage(data, format, file.getOriginalFilename(), () -> budget.release(permits));
+            handedOver = true;
+            return image;
+        } finally {
+            if (!handedOver) {
+                budget.release(permits);
+            }
+        }
+    }
+
+    /**
+     * Puts bytes read from somewhere else than a multipart upload, e.g. one entry of an uploaded
+     * archive, under the same byte budget and file type check as a regular upload.
+     */
+    public UploadedImage adopt(byte[] data, String filename) {
+        if (data.length == 0) {
+            throw new InvalidFileException("File is empty");
+        }
+
+        UploadedImage.Format format = UploadedImage.Format.sniff(data, Math.min(SNIFF_LENGTH, data.length));
+        if (format == null) {
+            throw new InvalidFileException("Unsupported file type: " + filename + ". Supported types are: PNG, JPG and PDF");
+        }
+
+        int permits = acquire(data.length);
+        return new UploadedImage(data, format, filename, () -> budget.release(permits));
+    }
+
+    /**
+     * Reads all files of a multi-image receipt. If one of them is rejected, the ones already read
+     * are released again.
+     */
+    public UploadedImages readAll(List<MultipartFile> files) throws IOException {
+        if (files == null || files.isEmpty()) {
+            throw new InvalidFileException("File is empty");
+        }
+
+        List<UploadedImage> images = new ArrayList<>(files.size());
+        try {
+            for (MultipartFile file : files) {
+                images.add(read(file));
+            }
+            return new UploadedImages(images);
+        } catch (IOException | RuntimeException e) {
+            images.forEach(UploadedImage::close);
+            throw e;
+        }
+    }
+
+    private int acquire(long size) {
+        // A single upload larger than the whole budget could never run, let it take the whole budget instead
+        int permits = (int) Math.min(budgetKib, (size + 1023) / 1024);
+        try {
+            if (!budget.tryAcquire(permits, properties.getBudgetWait().toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new UploadCapacityExceededException("Too many uploads in progress, please retry shortly");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UploadCapacityExceededException("Interrupted while waiting for upload capacity");
+        }
+        return permits;
+    }
+}
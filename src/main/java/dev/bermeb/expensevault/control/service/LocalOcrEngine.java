@@ -0,0 +1,91 @@
+package dev.bermeb.expensevault.control.service;
+
+import dev.bermeb.expensevault.config.LocalOcrProperties;
+import dev.bermeb.expensevault.control.exception.OrcProcessingException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OCR engine without network access. Returns the sidecar text of an image if there is one and
+ * the canned text otherwise, after the configured latency. Errors are injected at the configured rate.
+ */
+@Component
+@ConditionalOnProperty(prefix = "expensevault.ocr", name = "engine", havingValue = "local")
+@Slf4j
+public class LocalOcrEngine implements OcrEngine {
+
+    private final LocalOcrProperties properties;
+    private final String cannedText;
+
+    public LocalOcrEngine(LocalOcrProperties properties) {
+        this.properties = properties;
+        this.cannedText = readCannedText(properties);
+        log.warn("Local OCR engine active, images are NOT sent to any OCR service (latency {}, jitter {}, error rate {})",
+                properties.getLatency(), properties.getLatencyJitter(), properties.getErrorRate());
+    }
+
+    @Override
+    public RecognizedText recognize(byte[] imageData, String sourceKey) {
+        simulateLatency();
+
+        if (properties.getErrorRate() > 0 && ThreadLocalRandom.current().nextDouble() < properties.getErrorRate()) {
+            throw new OrcProcessingException("Injected OCR failure");
+        }
+
+        return new RecognizedText(sidecarText(sourceKey), properties.getConfidence());
+    }
+
+    // Keyed by the upload, the prepared image differs from it whenever it was re-encoded
+    private String sidecarText(String sourceKey) {
+        Path directory = properties.getSidecarDirectory();
+        if (directory == null) {
+            return cannedText;
+        }
+
+        Path sidecar = directory.resolve(sourceKey + ".txt");
+        try {
+            return Files.readString(sidecar, StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            return cannedText;
+        } catch (IOException e) {
+            throw new OrcProcessingException("Failed to read OCR sidecar file " + sidecar, e);
+        }
+    }
+
+    private void simulateLatency() {
+        long delayNanos = properties.getLatency().toNanos();
+        long jitterNanos = properties.getLatencyJitter().toNanos();
+        if (jitterNanos > 0) {
+            delayNanos += ThreadLocalRandom.current().nextLong(jitterNanos + 1);
+        }
+        if (delayNanos <= 0) {
+            return;
+        }
+
+        try {
+            TimeUnit.NANOSECONDS.sleep(delayNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OrcProcessingException("Interrupted during simulated OCR", e);
+        }
+    }
+
+    private static String readCannedText(LocalOcrProperties properties) {
+        try (InputStream in = properties.getCannedText().getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read canned OCR text " + properties.getCannedText(), e);
+        }
+    }
+}
@@ -0,0 +1,389 @@
+package dev.bermeb.expensevault.control.service;
+
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Single walk over a receipt page driven by a {@link ReceiptRuleSet}, used for every locale but German.
+ * <ul>
+ *     <li>total: the first total keyword (at a word boundary) followed on the same line by an optional
+ *     colon, an optional currency symbol or code and an amount in the locale's number format</li>
+ *     <li>fallback total: the largest amount marked with a currency, otherwise the largest amount</li>
+ *     <li>date: the first valid date in the locale's order, ISO {@code yyyy-mm-dd} is always accepted</li>
+ *     <li>merchant: the first short line starting with an upper case letter</li>
+ *     <li>items: lines with an amount after some letter</li>
+ * </ul>
+ * Mutable state of one parse run, never shared between threads.
+ */
+final class LocaleReceiptScan implements ReceiptTextParser.PageScan {
+
+    private static final int MAX_MERCHANT_LINE_LENGTH = 50;
+    private static final int MAX_EXACT_DIGITS = 16;
+
+    private final String text;
+    private final int length;
+    private final ReceiptRuleSet rules;
+
+    private BigDecimal total;
+    private BigDecimal maxMarkedAmount;
+    private BigDecimal maxAmount;
+    private LocalDate date;
+    private String merchant;
+    private final List<String> items = new ArrayList<>();
+
+    LocaleReceiptScan(String text, ReceiptRuleSet rules) {
+        this.text = text;
+        this.length = text.length();
+        this.rules = rules;
+    }
+
+    void run() {
+        int lineStart = 0;
+        for (int i = 0; i <= length; i++) {
+            if (i == length || text.charAt(i) == '\n') {
+                scanLine(lineStart, i);
+                lineStart = i + 1;
+            }
+        }
+    }
+
+    @Override
+    public BigDecimal total() {
+        return total;
+    }
+
+    @Override
+    public BigDecimal largestAmount() {
+        return maxMarkedAmount != null ? maxMarkedAmount : maxAmount;
+    }
+
+    @Override
+    public LocalDate date() {
+        return date;
+    }
+
+    @Override
+    public String merchant() {
+        return merchant;
+    }
+
+    @Override
+    public List<String> items() {
+        return items;
+    }
+
+    private void scanLine(int start, int end) {
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            return;
+        }
+
+        if (merchant == null) {
+            matchMerchant(start, end);
+        }
+
+        boolean sawLetter = false;
+        boolean isItem = false;
+        int pos = start;
+        while (pos < end) {
+            char c = text.charAt(pos);
+
+            if (Character.isLetter(c)) {
+                if (total == null && !isLetter(pos - 1)) {
+                    total = matchTotalAt(pos, end);
+                }
+                sawLetter = true;
+                pos++;
+                continue;
+            }
+
+            if (isDigit(c) && !isDigit(pos - 1)) {
+                // Dates like 12.03.24 must not be read as an amount of 12.03
+                int dateEnd = matchDateAt(pos, end);
+                if (dateEnd > pos) {
+                    pos = dateEnd;
+                    continue;
+                }
+
+                long[] amount = new long[1];
+                int amountEnd = matchAmountAt(pos, end, amount);
+                if (amountEnd > pos) {
+                    recordAmount(BigDecimal.valueOf(amount[0], 2), pos, amountEnd, end);
+                    isItem |= sawLetter;
+                    pos = amountEnd;
+                    continue;
+                }
+            }
+            pos++;
+        }
+
+        if (isItem) {
+            items.add(text.substring(start, end));
+        }
+    }
+
+    // --- Total ----------------------------------------------------------------------------------
+
+    private BigDecimal matchTotalAt(int start, int lineEnd) {
+        for (String keyword : rules.totalKeywords()) {
+            int pos = matchKeyword(start, lineEnd, keyword);
+            if (pos < 0 || isLetter(pos)) {
+                continue;
+            }
+
+            pos = skipSpaces(pos, lineEnd);
+            if (pos < lineEnd && text.charAt(pos) == ':') {
+                pos = skipSpaces(pos + 1, lineEnd);
+            }
+            int afterCurrency = currencyMarkerEnd(pos, lineEnd);
+            if (afterCurrency > pos) {
+                pos = skipSpaces(afterCurrency, lineEnd);
+            }
+
+            long[] amount = new long[1];
+            if (pos < lineEnd && isDigit(text.charAt(pos)) && matchAmountAt(pos, lineEnd, amount) > pos) {
+                return BigDecimal.valueOf(amount[0], 2);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the position after the keyword, or -1; a space in the keyword matches a run of whitespace
+     */
+    private int matchKeyword(int start, int lineEnd, String keyword) {
+        int pos = start;
+        for (int k = 0; k < keyword.length(); k++) {
+            char expected = keyword.charAt(k);
+            if (expected == ' ') {
+                if (pos >= lineEnd || !Character.isWhitespace(text.charAt(pos))) {
+                    return -1;
+                }
+                pos = skipSpaces(pos, lineEnd);
+                continue;
+            }
+            if (pos >= lineEnd || Character.toLowerCase(text.charAt(pos)) != expected) {
+                return -1;
+            }
+            pos++;
+        }
+        return pos;
+    }
+
+    // --- Amounts --------------------------------------------------------------------------------
+
+    /**
+     * Reads an amount with exactly two decimals in the locale's format, e.g. {@code 1.234,56} or {@code 1,234.56}.
+     *
+     * @param result receives the amount in cents
+     * @return the position after the amount, or {@code start} if there is none
+     */
+    private int matchAmountAt(int start, int lineEnd, long[] result) {
+        int pos = start;
+        while (pos < lineEnd && isDigit(text.charAt(pos))) {
+            pos++;
+        }
+        int digits = pos - start;
+
+        // Thousands groups are only allowed after a leading run of at most three digits
+        if (digits <= 3) {
+            while (pos + 3 < lineEnd && isThousandsSeparator(text.charAt(pos))
+                    && isDigit(text.charAt(pos + 1)) && isDigit(text.charAt(pos + 2)) && isDigit(text.charAt(pos + 3))
+                    && !isDigit(pos + 4)) {
+                pos += 4;
+                digits += 3;
+            }
+        }
+
+        if (digits > MAX_EXACT_DIGITS || pos + 2 >= lineEnd
+                || text.charAt(pos) != rules.decimalSeparator()
+                || !isDigit(text.charAt(pos + 1)) || !isDigit(text.charAt(pos + 2)) || isDigit(pos + 3)) {
+            return start;
+        }
+
+        long units = 0;
+        for (int i = start; i < pos; i++) {
+            char c = text.charAt(i);
+            if (isDigit(c)) {
+                units = units * 10 + (c - '0');
+            }
+        }
+        result[0] = units * 100 + (text.charAt(pos + 1) - '0') * 10 + (text.charAt(pos + 2) - '0');
+        return pos + 3;
+    }
+
+    private void recordAmount(BigDecimal amount, int start, int end, int lineEnd) {
+        if (maxAmount == null || amount.compareTo(maxAmount) > 0) {
+            maxAmount = amount;
+        }
+
+        boolean marked = currencyMarkerEnd(skipSpaces(end, lineEnd), lineEnd) > skipSpaces(end, lineEnd)
+                || hasCurrencyMarkerBefore(start);
+        if (marked && (maxMarkedAmount == null || amount.compareTo(maxMarkedAmount) > 0)) {
+            maxMarkedAmount = amount;
+        }
+    }
+
+    /**
+     * @return the position after a currency symbol or ISO code starting at {@code pos}, or {@code pos}
+     */
+    private int currencyMarkerEnd(int pos, int lineEnd) {
+        if (pos >= lineEnd) {
+            return pos;
+        }
+        char c = text.charAt(pos);
+        if (c == '€' || c == '£' || c == '$') {
+            return pos + 1;
+        }
+        if (pos + 3 <= lineEnd && !isLetter(pos + 3) && !isLetter(pos - 1) && isCurrencyCode(pos)) {
+            return pos + 3;
+        }
+        return pos;
+    }
+
+    private boolean hasCurrencyMarkerBefore(int start) {
+        int pos = start - 1;
+        while (pos >= 0 && (text.charAt(pos) == ' ' || text.charAt(pos) == '\t')) {
+            pos--;
+        }
+        if (pos < 0) {
+            return false;
+        }
+        char c = text.charAt(pos);
+        return c == '€' || c == '£' || c == '$' || (pos >= 2 && !isLetter(pos - 3) && isCurrencyCode(pos - 2));
+    }
+
+    private boolean isCurrencyCode(int pos) {
+        for (String code : ReceiptRuleSets.CURRENCIES) {
+            if (text.regionMatches(true, pos, code, 0, 3)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // --- Date -----------------------------------------------------------------------------------
+
+    /**
+     * Keeps the first valid date in {@link #date}.
+     *
+     * @return the position after anything shaped like a date, or {@code start} if there is none
+     */
+    private int matchDateAt(int start, int lineEnd) {
+        int firstEnd = digitRunEnd(start, lineEnd);
+        if (firstEnd >= lineEnd) {
+            return start;
+        }
+        char separator = text.charAt(firstEnd);
+        if (separator != '.' && separator != '/' && separator != '-') {
+            return start;
+        }
+
+        int secondStart = firstEnd + 1;
+        int secondEnd = digitRunEnd(secondStart, lineEnd);
+        if (secondEnd == secondStart || secondEnd - secondStart > 2
+                || secondEnd >= lineEnd || text.charAt(secondEnd) != separator) {
+            return start;
+        }
+
+        int thirdStart = secondEnd + 1;
+        int thirdEnd = digitRunEnd(thirdStart, lineEnd);
+        int firstDigits = firstEnd - start;
+        int thirdDigits = thirdEnd - thirdStart;
+
+        boolean iso = firstDigits == 4 && separator == '-' && thirdDigits >= 1 && thirdDigits <= 2;
+        if (!iso && (firstDigits > 2 || (thirdDigits != 2 && thirdDigits != 4))) {
+            return start;
+        }
+
+        if (date == null) {
+            int first = parseDigits(start, firstEnd);
+            int second = parseDigits(secondStart, secondEnd);
+            int third = parseDigits(thirdStart, thirdEnd);
+            try {
+                if (iso) {
+                    date = LocalDate.of(first, second, third);
+                } else {
+                    int year = thirdDigits == 2 ? (third < 50 ? 2000 + third : 1900 + third) : third;
+                    date = rules.dateOrder() == ReceiptRuleSet.DateOrder.MONTH_DAY_YEAR
+                            ? LocalDate.of(year, first, second)
+                            : LocalDate.of(year, second, first);
+                }
+            } catch (DateTimeException e) {
+                // Not a date after all, keep looking
+            }
+        }
+        return thirdEnd;
+    }
+
+    // --- Merchant -------------------------------------------------------------------------------
+
+    private void matchMerchant(int start, int end) {
+        if (end - start >= MAX_MERCHANT_LINE_LENGTH || !Character.isUpperCase(text.charAt(start))) {
+            return;
+        }
+
+        int tailEnd = start + 1;
+        while (tailEnd < end && isMerchantChar(text.charAt(tailEnd))) {
+            tailEnd++;
+        }
+        while (tailEnd > start && text.charAt(tailEnd - 1) <= ' ') {
+            tailEnd--;
+        }
+        if (tailEnd - start > 2) {
+            merchant = text.substring(start, tailEnd);
+        }
+    }
+
+    private static boolean isMerchantChar(char c) {
+        return Character.isLetter(c) || c == ' ' || c == '&' || c == '-' || c == '.' || c == '\'';
+    }
+
+    // --- Character helpers ----------------------------------------------------------------------
+
+    private boolean isThousandsSeparator(char c) {
+        return rules.thousandsSeparators().indexOf(c) >= 0;
+    }
+
+    private boolean isLetter(int pos) {
+        return pos >= 0 && pos < length && Character.isLetter(text.charAt(pos));
+    }
+
+    private boolean isDigit(int pos) {
+        return pos >= 0 && pos < length && isDigit(text.charAt(pos));
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private int skipSpaces(int pos, int lineEnd) {
+        while (pos < lineEnd && Character.isWhitespace(text.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private int digitRunEnd(int pos, int lineEnd) {
+        while (pos < lineEnd && isDigit(text.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private int parseDigits(int start, int end) {
+        int value = 0;
+        for (int pos = start; pos < end; pos++) {
+            value = value * 10 + (text.charAt(pos) - '0');
+        }
+        return value;
+    }
+}
@@ -0,0 +1,18 @@
+package dev.bermeb.expensevault.control.service;
+
+/**
+ * Turns an image into raw text. Everything after that (caching, parsing, storing) is engine independent.
+ * <p>
+ * Exactly one engine is active, selected by {@code expensevault.ocr.engine}:
+ * {@code vision} (default) or {@code local}.
+ */
+public interface OcrEngine {
+
+    /**
+     * @param imageData image as prepared for OCR, possibly downscaled or rendered from a PDF page
+     * @param sourceKey identifies what was uploaded: the SHA-256 of the uploaded image, or
+     *                  {@code <sha256 of the PDF>-<page number>} for a PDF page
+     * @throws dev.bermeb.expensevault.control.exception.OrcProcessingException if the image could not be read
+     */
+    RecognizedText recognize(byte[] imageData, String sourceKey);
+}
@@ -0,0 +1,175 @@
+package dev.bermeb.expensevault.control.service;
+
+import dev.bermeb.expensevault.boundary.dto.response.OcrResult;
+import dev.bermeb.expensevault.config.OcrJobProperties;
+import dev.bermeb.expensevault.control.exception.OcrJobNotFoundException;
+import dev.bermeb.expensevault.entity.model.OcrJob;
+import dev.bermeb.expensevault.entity.model.OcrJobPayload;
+import dev.bermeb.expensevault.entity.model.OcrJobStatus;
+import dev.bermeb.expensevault.entity.model.Receipt;
+import dev.bermeb.expensevault.entity.repository.OcrJobPayloadRepository;
+import dev.bermeb.expensevault.entity.repository.OcrJobRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+@Slf4j
+public class OcrJobService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final String STALE_ERROR_MESSAGE = "Processing did not finish, the worker stopped or hung on every attempt";
+
+    private final OcrJobRepository ocrJobRepository;
+    private final OcrJobPayloadRepository ocrJobPayloadRepository;
+    private final ReceiptIngestionService receiptIngestionService;
+    private final OcrJobProperties properties;
+
+    public OcrJob enqueue(byte[] imageData, String contentType, String originalFilename,
+                          String categoryName, String description) {
+        OcrJob job = OcrJob.builder()
+                .status(OcrJobStatus.PENDING)
+                .contentType(contentType)
+                .originalFilename(originalFilename)
+                .categoryName(categoryName)
+                .description(description)
+                .availableAt(LocalDateTime.now())
+                .build();
+
+        OcrJob savedJob = ocrJobRepository.save(job);
+        ocrJobPayloadRepository.save(OcrJobPayload.builder()
+                .jobId(savedJob.getId())
+                .imageData(imageData)
+                .build());
+
+        log.info("OCR job enqueued with ID: {}", savedJob.getId());
+        return savedJob;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<OcrJob> findById(UUID id) {
+        return ocrJobRepository.findById(id);
+    }
+
+    /**
+     * Claims up to {@code limit} pending jobs for this node. The row locks only live for this
+     * short transaction; ownership afterwards is tracked through {@code status} and {@code lockedBy}.
+     */
+    public List<OcrJob> claim(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OcrJob> jobs = ocrJobRepository.lockNextPending(now, limit);
+
+        for (OcrJob job : jobs) {
+            job.setStatus(OcrJobStatus.PROCESSING);
+            job.setLockedBy(properties.getNodeId());
+            job.setLockedAt(now);
+            job.setAttempts(job.getAttempts() + 1);
+        }
+
+        if (!jobs.isEmpty()) {
+            log.debug("Claimed {} OCR jobs on node {}", jobs.size(), properties.getNodeId());
+        }
+        return jobs;
+    }
+
+    @Transactional(readOnly = true)
+    public byte[] loadPayload(UUID jobId) {
+        return ocrJobPayloadRepository.findById(jobId)
+                .map(OcrJobPayload::getImageData)
+                .orElseThrow(() -> new OcrJobNotFoundException(jobId));
+    }
+
+    /**
+     * Stores the receipt and completes the job in one transaction, so a job is never marked
+     * done without its receipt (or vice versa). Returns empty if this node no longer owns the job.
+     */
+    public Optional<Receipt> complete(UUID jobId, OcrResult ocrResult, int processingTimeMs, StoredImage image) {
+        OcrJob job = ocrJobRepository.findByIdForUpdate(jobId)
+                .orElseThrow(() -> new OcrJobNotFoundException(jobId));
+
+        if (!isOwnedByThisNode(job)) {
+            log.warn("OCR job {} was reclaimed by {} before completion, discarding result", jobId, job.getLockedBy());
+            return Optional.empty();
+        }
+
+        Receipt receipt = receiptIngestionService.store(ocrResult, job.getCategoryName(), job.getDescription(), processingTimeMs, image);
+
+        job.setStatus(OcrJobStatus.COMPLETED);
+        job.setReceiptId(receipt.getId());
+        job.setErrorMessage(null);
+        job.setLockedBy(null);
+        job.setLockedAt(null);
+        job.setCompletedAt(LocalDateTime.now());
+        ocrJobPayloadRepository.deleteById(jobId);
+
+        log.info("OCR job {} completed with receipt ID: {}", jobId, receipt.getId());
+        return Optional.of(receipt);
+    }
+
+    public void fail(UUID jobId, String errorMessage, boolean retryable) {
+        OcrJob job = ocrJobRepository.findByIdForUpdate(jobId)
+                .orElseThrow(() -> new OcrJobNotFoundException(jobId));
+
+        if (!isOwnedByThisNode(job)) {
+            return;
+        }
+
+        job.setErrorMessage(truncate(errorMessage));
+        job.setLockedBy(null);
+        job.setLockedAt(null);
+
+        if (retryable && job.getAttempts() < properties.getMaxAttempts()) {
+            job.setStatus(OcrJobStatus.PENDING);
+            job.setAvailableAt(LocalDateTime.now().plus(properties.getRetryBackoff().multipliedBy(job.getAttempts())));
+            log.warn("OCR job {} failed (attempt {}/{}), retrying: {}", jobId, job.getAttempts(), properties.getMaxAttempts(), errorMessage);
+        } else {
+            job.setStatus(OcrJobStatus.FAILED);
+            job.setCompletedAt(LocalDateTime.now());
+            ocrJobPayloadRepository.deleteById(jobId);
+            log.error("OCR job {} failed permanently after {} attempts: {}", jobId, job.getAttempts(), errorMessage);
+        }
+    }
+
+    /**
+     * Renews the lock of jobs this node is still processing.
+     */
+    public int renewLocks(Collection<UUID> jobIds) {
+        if (jobIds.isEmpty()) {
+            return 0;
+        }
+        return ocrJobRepository.renewLocks(jobIds, properties.getNodeId(), LocalDateTime.now(), OcrJobStatus.PROCESSING);
+    }
+
+    public int requeueStale() {
+        LocalDateTime now = LocalDateTime.now();
+        int released = ocrJobRepository.requeueStale(now.minus(properties.getStaleAfter()), now,
+                properties.getMaxAttempts(), STALE_ERROR_MESSAGE,
+                OcrJobStatus.PENDING, OcrJobStatus.FAILED, OcrJobStatus.PROCESSING);
+        if (released > 0) {
+            int failed = ocrJobPayloadRepository.deleteOfFailedJobs(OcrJobStatus.FAILED);
+            log.warn("Released {} stale OCR jobs, {} of them failed after {} attempts",
+                    released, failed, properties.getMaxAttempts());
+        }
+        return released;
+    }
+
+    private boolean isOwnedByThisNode(OcrJob job) {
+        return job.getStatus() == OcrJobStatus.PROCESSING && properties.getNodeId().equals(job.getLockedBy());
+    }
+
+    private String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,94 @@
+package dev.bermeb.expensevault.control.service;
+
+import dev.bermeb.expensevault.boundary.dto.response.OcrResult;
+import dev.bermeb.expensevault.config.OcrJobProperties;
+import dev.bermeb.expensevault.control.exception.CategoryNotFoundException;
+import dev.bermeb.expensevault.entity.model.OcrJob;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Polls the shared job table and runs OCR for claimed jobs on a bounded local pool.
+ * Any number of nodes can run a worker; {@code FOR UPDATE SKIP LOCKED} keeps their claims disjoint.
+ * While a job runs its lock is renewed on a heartbeat, so only jobs of a stopped or hung worker
+ * are released as stale.
+ */
+@Component
+@ConditionalOnProperty(prefix = "expensevault.ocr.jobs", name = "worker-enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class OcrJobWorker {
+
+    private final OcrJobService ocrJobService;
+    private final OcrService ocrService;
+    private final ImageStore imageStore;
+    private final OcrJobProperties properties;
+    private final ThreadPoolTaskExecutor ocrJobExecutor;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Set<UUID> running = ConcurrentHashMap.newKeySet();
+
+    @Scheduled(fixedDelayString = "${expensevault.ocr.jobs.poll-interval:1s}")
+    public void poll() {
+        int freeSlots = properties.getConcurrency() - inFlight.get();
+        if (freeSlots <= 0) {
+            return;
+        }
+
+        List<OcrJob> jobs = ocrJobService.claim(freeSlots);
+        for (OcrJob job : jobs) {
+            inFlight.incrementAndGet();
+            running.add(job.getId());
+            try {
+                ocrJobExecutor.execute(() -> process(job.getId()));
+            } catch (TaskRejectedException e) {
+                inFlight.decrementAndGet();
+                running.remove(job.getId());
+                ocrJobService.fail(job.getId(), "Worker rejected job: " + e.getMessage(), true);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${expensevault.ocr.jobs.heartbeat-interval:1m}")
+    public void heartbeat() {
+        ocrJobService.renewLocks(List.copyOf(running));
+    }
+
+    @Scheduled(fixedDelayString = "${expensevault.ocr.jobs.stale-after:5m}")
+    public void requeueStale() {
+        ocrJobService.requeueStale();
+    }
+
+    private void process(UUID jobId) {
+        long startTime = System.nanoTime();
+
+        try {
+            byte[] imageData = ocrJobService.loadPayload(jobId);
+            OcrResult ocrResult = ocrService.extractReceiptData(imageData);
+
+            int processingTimeMs = (int) ((System.nanoTime() - startTime) / 1_000_000);
+            // Written before the completing transaction; if that fails the blob is simply reused on retry
+            StoredImage image = imageStore.store(imageData);
+            ocrJobService.complete(jobId, ocrResult, processingTimeMs, image);
+        } catch (CategoryNotFoundException e) {
+            ocrJobService.fail(jobId, e.getMessage(), false);
+        } catch (Exception e) {
+            log.error("OCR job {} failed", jobId, e);
+            ocrJobService.fail(jobId, e.getMessage(), true);
+        } finally {
+            running.remove(jobId);
+            inFlight.decrementAndGet();
+        }
+    }
+}
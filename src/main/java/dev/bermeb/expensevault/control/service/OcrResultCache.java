@@ -0,0 +1,141 @@
+package dev.bermeb.expensevault.control.service;
+
+import dev.bermeb.expensevault.config.OcrCacheProperties;
+import dev.bermeb.expensevault.entity.model.OcrCacheEntry;
+import dev.bermeb.expensevault.entity.repository.OcrCacheEntryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Content-addressed cache for OCR text, keyed by the SHA-256 of the image bytes.
+ * <p>
+ * Lookups go to a bounded in-memory LRU first and then to the {@code ocr_result_cache} table,
+ * which is shared by all nodes. Only the recognized text is cached, the receipt fields are
+ * always parsed fresh so parser improvements apply to cache hits as well.
+ */
+@Component
+@Slf4j
+public class OcrResultCache {
+
+    private final OcrCacheEntryRepository repository;
+    private final OcrCacheProperties properties;
+    private final Map<String, RecognizedText> memory;
+
+    private final Counter memoryHits;
+    private final Counter databaseHits;
+    private final Counter misses;
+
+    public OcrResultCache(OcrCacheEntryRepository repository, OcrCacheProperties properties, MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.properties = properties;
+        this.memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, RecognizedText> eldest) {
+                return size() > properties.getMaxEntries();
+            }
+        };
+
+        this.memoryHits = cacheCounter(meterRegistry, "hit", "memory");
+        this.databaseHits = cacheCounter(meterRegistry, "hit", "database");
+        this.misses = cacheCounter(meterRegistry, "miss", "none");
+        Gauge.builder("expensevault.ocr.cache.size", this, OcrResultCache::memorySize)
+                .description("Entries in the in-memory OCR cache tier")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public static String hash(byte[] imageData) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(imageData));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public Optional<RecognizedText> get(String imageHash) {
+        RecognizedText cached;
+        synchronized (memory) {
+            cached = memory.get(imageHash);
+        }
+        if (cached != null) {
+            memoryHits.increment();
+            return Optional.of(cached);
+        }
+
+        if (properties.isPersistent()) {
+            try {
+                Optional<RecognizedText> stored = repository.findById(imageHash)
+                        .map(entry -> new RecognizedText(entry.getRawText(),
+                                entry.getConfidence() != null ? entry.getConfidence() : 0.0f));
+                if (stored.isPresent()) {
+                    databaseHits.increment();
+                    putInMemory(imageHash, stored.get());
+                    return stored;
+                }
+            } catch (Exception e) {
+                log.warn("OCR cache lookup failed for {}: {}", imageHash, e.getMessage());
+            }
+        }
+
+        misses.increment();
+        return Optional.empty();
+    }
+
+    public void put(String imageHash, RecognizedText text) {
+        putInMemory(imageHash, text);
+
+        if (properties.isPersistent()) {
+            try {
+                repository.upsert(imageHash, text.text(), text.confidence(), LocalDateTime.now());
+            } catch (Exception e) {
+                // The cache is an optimization, a failed write must not fail the OCR request
+                log.warn("Failed to persist OCR cache entry {}: {}", imageHash, e.getMessage());
+            }
+        }
+    }
+
+    @Scheduled(cron = "${expensevault.ocr.cache.cleanup-cron:0 30 3 * * *}")
+    public void removeExpired() {
+        if (!properties.isPersistent()) {
+            return;
+        }
+
+        int removed = repository.deleteOlderThan(LocalDateTime.now().minus(properties.getPersistentRetention()));
+        log.info("Removed {} expired OCR cache entries", removed);
+    }
+
+    private void putInMemory(String imageHash, RecognizedText text) {
+        synchronized (memory) {
+            memory.put(imageHash, text);
+        }
+    }
+
+    private int memorySize() {
+        synchronized (memory) {
+            return memory.size();
+        }
+    }
+
+    private static Counter cacheCounter(MeterRegistry meterRegistry, String result, String tier) {
+        return Counter.builder("expensevault.ocr.cache.requests")
+                .description("OCR cache lookups")
+                .tag("result", result)
+                .tag("tier", tier)
+                .register(meterRegistry);
+    }
+}
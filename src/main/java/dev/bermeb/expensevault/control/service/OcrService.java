@@ -1,246 +1,173 @@
 package dev.bermeb.expensevault.control.service;
 
-import com.google.cloud.vision.v1.*;
-import com.google.protobuf.ByteString;
 import dev.bermeb.expensevault.boundary.dto.response.OcrResult;
+import dev.bermeb.expensevault.config.OcrPagesProperties;
 import dev.bermeb.expensevault.control.exception.OrcProcessingException;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
-import java.io.IOException;
-import java.math.BigDecimal;
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Coded with Docs and Claude.ai
  * TODO: Needs testing with different receipt formats and edge cases
  */
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class OcrService {
 
-    private final ImageAnnotatorClient visionClient;
-
-    // Regex patterns for German receipts
-    // TODO: Add more patterns for different countries and edge cases
-    private static final Pattern TOTAL_PATTERN = Pattern.compile(
-            "(?i)(?:summe|gesamt|total|sum|betrag|endsumme|zu\\s+zahlen)\\s*:?\\s*(\\d+[,.]\\d{2})",
-            Pattern.MULTILINE
-    );
-
-    private static final Pattern DATE_PATTERN = Pattern.compile(
-            "(\\d{1,2})[./](\\d{1,2})[./](\\d{2,4})",
-            Pattern.MULTILINE
-    );
-
-    // TODO: Check if it detects merchant names correctly
-    private static final Pattern MERCHANT_PATTERN = Pattern.compile(
-            "^([A-ZÄÖÜ][A-ZÄÖÜa-zäöüß\\s&\\-.]{2,50})",
-            Pattern.MULTILINE
-    );
-
-    // TODO: Handle different currency formats
-    private static final Pattern AMOUNT_PATTERN = Pattern.compile(
-            "(\\d{1,3}(?:[,.]\\d{3})*[,.]\\d{2})\\s*€?\\s*EUR?",
-            Pattern.MULTILINE
-    );
-
-    public OcrService() throws IOException {
-        this.visionClient = ImageAnnotatorClient.create();
-        log.info("Google Vision OCR Service initialized successfully");
-    }
+    private final OcrEngine ocrEngine;
+    private final ImagePreprocessor imagePreprocessor;
+    private final PdfPageRenderer pdfPageRenderer;
+    private final OcrResultCache cache;
+    private final ReceiptTextParser parser;
+    private final OcrPagesProperties pagesProperties;
+    private final ThreadPoolTaskExecutor ocrPageExecutor;
 
-    // TODO: Add "multiple images"-receipt handling
     public OcrResult extractReceiptData(byte[] imageData) {
-        try {
-            log.debug("Starting OCR processing for image of size: {} bytes", imageData.length);
-
-            ByteString imgBytes = ByteString.copyFrom(imageData);
-            var img = Image.newBuilder().setContent(imgBytes).build();
-
-            var textFeature = Feature.newBuilder()
-                    .setType(Feature.Type.TEXT_DETECTION)
-                    .build();
-
-            var annotateImageRequest = AnnotateImageRequest.newBuilder()
-                    .addFeatures(textFeature)
-                    .setImage(img)
-                    .build();
-
-            BatchAnnotateImagesResponse response = visionClient
-                    .batchAnnotateImages(List.of(annotateImageRequest));
-
-            AnnotateImageResponse imgResponse = response.getResponses(0);
-
-            if (imgResponse.hasError()) {
-                throw new OrcProcessingException("Google Vision API error: "
-                        + imgResponse.getError().getMessage());
-            }
-
-            if (imgResponse.getTextAnnotationsList().isEmpty()) {
-                throw new OrcProcessingException("No text detected in the image");
-            }
-
-            String extractedText = imgResponse.getTextAnnotations(0).getDescription();
-            float confidence = calculateAverageConfidence(imgResponse.getTextAnnotationsList());
-
-            log.debug("OCR extraction completed with confidence: {}", confidence);
-
-           return parseReceiptText(extractedText, confidence);
-        } catch (Exception e) {
-            log.error("OCR processing failed: {}", e.getMessage());
-            throw new OrcProcessingException("Failed to process image for OCR", e);
-        }
+        return extractReceiptData(imageData, false);
     }
 
-    private OcrResult parseReceiptText(String text, float confidence) {
-        log.debug("Parsing extracted text: {}", text.substring(0, Math.min(text.length(), 100)) + "...");
-
-        OcrResult.OcrResultBuilder builder = OcrResult.builder()
-                .rawText(text)
-                .confidence(confidence);
-
-        // Extract total amount
-        BigDecimal totalAmount = extractTotalAmount(text);
-        builder.totalAmount(totalAmount);
-
-        // Extract date
-        LocalDate date = extractDate(text);
-        builder.date(date);
+    /**
+     * @param bypassCache skip the cache lookup and always run the OCR engine; the fresh result
+     *                    still replaces the cached one
+     */
+    public OcrResult extractReceiptData(byte[] imageData, boolean bypassCache) {
+        return extractReceiptData(List.of(imageData), bypassCache);
+    }
 
-        // Extract merchant name
-        String merchantName = extractMerchantName(text);
-        builder.merchantName(merchantName);
+    /**
+     * OCR for one receipt made of several files, e.g. a long receipt photographed in parts.
+     * Every file may be an image or a PDF. Images and PDF pages are recognized in parallel on the
+     * bounded page executor, the texts are joined in upload order with
+     * {@link ReceiptTextParser#PAGE_BREAK} and parsed as one receipt.
+     */
+    public OcrResult extractReceiptData(List<byte[]> files, boolean bypassCache) {
+        if (files.isEmpty()) {
+            throw new OrcProcessingException("No image to process");
+        }
+        if (files.size() > pagesProperties.getMaxPages()) {
+            throw new OrcProcessingException("A receipt can have at most " + pagesProperties.getMaxPages() + " pages");
+        }
 
-        // Extract detected items/amounts
-        List<String> detectedItems = extractItems(text);
-        builder.detectedItems(detectedItems);
+        // The common case of one plain image stays on the calling thread
+        if (files.size() == 1 && !PdfPageRenderer.isPdf(files.get(0))) {
+            RecognizedText recognized = recognizeFile(files.get(0), bypassCache, true).join();
+            return parseReceiptText(recognized.text(), recognized.confidence());
+        }
 
-        OcrResult result = builder.build();
-        log.info("Parsed receipt - Amount: {}, Date: {}, Merchant: {}",
-                totalAmount, date, merchantName);
+        List<CompletableFuture<RecognizedText>> results = new ArrayList<>(files.size());
+        for (byte[] file : files) {
+            results.add(recognizeFile(file, bypassCache, false));
+        }
 
-        return result;
+        RecognizedText combined = joinPages(results);
+        log.debug("Recognized receipt with {} files", files.size());
+        return parseReceiptText(combined.text(), combined.confidence());
     }
 
-    private BigDecimal extractTotalAmount(String text) {
-        Matcher matcher = TOTAL_PATTERN.matcher(text);
-        if (matcher.find()) {
-            // Replace comma with dot for BigDecimal parsing
-            String amountStr = matcher.group(1).replace(",", ".");
-            try {
-                return new BigDecimal(amountStr);
-            } catch (NumberFormatException e) {
-                log.warn("Failed to parse total amount: {}", amountStr);
+    /**
+     * Cached per file: a PDF is cached as a whole with its page texts already joined.
+     *
+     * @param inline recognize a plain image on the calling thread instead of the page executor
+     */
+    private CompletableFuture<RecognizedText> recognizeFile(byte[] file, boolean bypassCache, boolean inline) {
+        String fileHash = OcrResultCache.hash(file);
+
+        if (cache.isEnabled() && !bypassCache) {
+            Optional<RecognizedText> cached = cache.get(fileHash);
+            if (cached.isPresent()) {
+                log.debug("OCR cache hit for image {}", fileHash);
+                return CompletableFuture.completedFuture(cached.get());
             }
         }
 
-        return findLargestAmount(text);
-    }
-
-    private BigDecimal findLargestAmount(String text) {
-        Matcher matcher = AMOUNT_PATTERN.matcher(text);
-        BigDecimal maxAmount = BigDecimal.ZERO;
-
-        while (matcher.find()) {
-            String amountStr = matcher.group(1).replace(",", ".");
-            try {
-                BigDecimal amount = new BigDecimal(amountStr);
-                if (amount.compareTo(maxAmount) > 0) {
-                    maxAmount = amount;
-                }
-            } catch (NumberFormatException e) {
-                log.debug("Skipped invalid amount: {}", amountStr);
-            }
+        CompletableFuture<RecognizedText> recognized;
+        if (PdfPageRenderer.isPdf(file)) {
+            recognized = recognizePdf(file, fileHash);
+        } else if (inline) {
+            recognized = CompletableFuture.completedFuture(recognizeText(file, fileHash));
+        } else {
+            recognized = CompletableFuture.supplyAsync(() -> recognizeText(file, fileHash), ocrPageExecutor);
         }
 
-        return maxAmount.compareTo(BigDecimal.ZERO) > 0 ? maxAmount : null;
+        if (!cache.isEnabled()) {
+            return recognized;
+        }
+        return recognized.thenApply(text -> {
+            cache.put(fileHash, text);
+            return text;
+        });
     }
 
-    private LocalDate extractDate(String text) {
-        Matcher matcher = DATE_PATTERN.matcher(text);
-        if (matcher.find()) {
-            String day = matcher.group(1);
-            String month = matcher.group(2);
-            String year = matcher.group(3);
-
-            // Handle 2-digit years
-            if (year.length() == 2) {
-                int yearInt = Integer.parseInt(year);
-                year = String.valueOf(yearInt < 50 ? 2000 + yearInt : 1900 + yearInt);
-            }
-
-            try {
-                String dateStr = String.format("%s-%s-%s", year,
-                        month.length() == 1 ? "0" + month : month,
-                        day.length() == 1 ? "0" + day : day);
-                return LocalDate.parse(dateStr, DateTimeFormatter.ISO_LOCAL_DATE);
-            } catch (DateTimeParseException e) {
-                log.warn("Failed to parse date: {}/{}/{}", day, month, year);
-            }
-        }
+    private CompletableFuture<RecognizedText> recognizePdf(byte[] pdf, String pdfHash) {
+        List<CompletableFuture<RecognizedText>> pages = new ArrayList<>();
+        pdfPageRenderer.render(pdf, page -> {
+            String pageKey = pdfHash + "-" + (pages.size() + 1);
+            pages.add(CompletableFuture.supplyAsync(() -> recognizeText(page, pageKey), ocrPageExecutor));
+        });
 
-        return null;
+        return CompletableFuture.allOf(pages.toArray(CompletableFuture[]::new))
+                .thenApply(done -> joinPages(pages));
     }
 
-    private String extractMerchantName(String text) {
-        String[] lines = text.split("\n");
-        for (String line : lines) {
-            line = line.trim();
-            Matcher matcher = MERCHANT_PATTERN.matcher(line);
-            if (matcher.find() && line.length() < 50) {
-                String merchant = matcher.group(1).trim();
-                if (!merchant.matches("\\d+") && merchant.length() > 2) {
-                    return merchant;
-                }
+    private static RecognizedText joinPages(List<CompletableFuture<RecognizedText>> pages) {
+        List<RecognizedText> texts;
+        try {
+            texts = pages.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
             }
+            throw new OrcProcessingException("Failed to process image for OCR", e.getCause());
         }
-        return null;
-    }
 
-    private List<String> extractItems(String text) {
-        List<String> items = new ArrayList<>();
-        String[] lines = text.split("\n");
+        if (texts.size() == 1) {
+            return texts.get(0);
+        }
 
-        for (String line : lines) {
-            line = line.trim();
-            // Look for lines that contain both text and amounts
-            if (line.matches(".*[a-zA-ZäöüÄÖÜß].*\\d+[,.]\\d{2}.*")) {
-                items.add(line);
+        StringBuilder joined = new StringBuilder();
+        float confidenceSum = 0.0f;
+        for (RecognizedText text : texts) {
+            if (!joined.isEmpty()) {
+                joined.append(ReceiptTextParser.PAGE_BREAK);
             }
+            joined.append(text.text());
+            confidenceSum += text.confidence();
         }
-
-        return items;
+        return new RecognizedText(joined.toString(), confidenceSum / texts.size());
     }
 
-    private float calculateAverageConfidence(List<EntityAnnotation> annotations) {
-        if(annotations.isEmpty()) return 0.0f;
+    private RecognizedText recognizeText(byte[] imageData, String sourceKey) {
+        try {
+            log.debug("Starting OCR processing for image of size: {} bytes", imageData.length);
 
-        float totalConfidence = 0.0f;
-        int count = 0;
+            // The cache key stays the hash of the original upload, only the engine sees the smaller image
+            RecognizedText recognized = ocrEngine.recognize(imagePreprocessor.prepare(imageData), sourceKey);
 
-        for(EntityAnnotation annotation : annotations) {
-            // Score since confidence is deprecated
-            // Score is for overall qualitiy of the OCR result
-            // Confidence was only for text detection
-            if(annotation.getScore() > 0) {
-                totalConfidence += annotation.getScore();
-                count++;
-            }
-        }
+            log.debug("OCR extraction completed with confidence: {}", recognized.confidence());
 
-        if(count == 0) {
-            log.warn("No valid confidence scores found in annotations");
-            return 0.0f;
+            return recognized;
+        } catch (Exception e) {
+            log.error("OCR processing failed: {}", e.getMessage());
+            throw new OrcProcessingException("Failed to process image for OCR", e);
         }
+    }
+
+    private OcrResult parseReceiptText(String text, float confidence) {
+        log.debug("Parsing extracted text: {}", text.substring(0, Math.min(text.length(), 100)) + "...");
 
-        // Return average confidence for all annotations
-        return totalConfidence / count;
+        OcrResult result = parser.parse(text, confidence);
+        log.info("Parsed receipt - Amount: {}, Date: {}, Merchant: {}",
+                result.getTotalAmount(), result.getDate(), result.getMerchantName());
+
+        return result;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,83 @@
+package dev.bermeb.expensevault.control.service;
+
+import dev.bermeb.expensevault.config.OcrPagesProperties;
+import dev.bermeb.expensevault.control.exception.OrcProcessingException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Renders PDF receipts to one grayscale PNG per page, locally with PDFBox.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PdfPageRenderer {
+
+    private final OcrPagesProperties properties;
+
+    public static boolean isPdf(byte[] data) {
+        return data.length >= 5 && data[0] == '%' && data[1] == 'P' && data[2] == 'D' && data[3] == 'F' && data[4] == '-';
+    }
+
+    /**
+     * Hands every page to {@code pageConsumer} as soon as it is rendered, so callers can start
+     * OCR on the first page while the next one is still rendering. PDFBox documents are not
+     * thread safe, so rendering itself happens one page after the other on the calling thread.
+     *
+     * @return the number of pages
+     */
+    public int render(byte[] pdf, Consumer<byte[]> pageConsumer) {
+        try (PDDocument document = Loader.loadPDF(pdf)) {
+            int pageCount = document.getNumberOfPages();
+            if (pageCount == 0) {
+                throw new OrcProcessingException("PDF has no pages");
+            }
+            if (pageCount > properties.getMaxPages()) {
+                throw new OrcProcessingException("PDF has " + pageCount + " pages, at most "
+                        + properties.getMaxPages() + " are supported");
+            }
+
+            PDFRenderer renderer = new PDFRenderer(document);
+            for (int page = 0; page < pageCount; page++) {
+                BufferedImage image = renderer.renderImageWithDPI(page, properties.getRenderDpi(), ImageType.GRAY);
+                pageConsumer.accept(encodePng(image));
+            }
+
+            log.debug("Rendered {} PDF pages at {} DPI", pageCount, properties.getRenderDpi());
+            return pageCount;
+        } catch (IOException e) {
+            throw new OrcProcessingException("Failed to render PDF", e);
+        }
+    }
+
+    /**
+     * Renders only the first page, e.g. for a preview.
+     */
+    public BufferedImage renderFirstPage(byte[] pdf, int dpi) {
+        try (PDDocument document = Loader.loadPDF(pdf)) {
+            if (document.getNumberOfPages() == 0) {
+                throw new OrcProcessingException("PDF has no pages");
+            }
+            return new PDFRenderer(document).renderImageWithDPI(0, dpi, ImageType.RGB);
+        } catch (IOException e) {
+            throw new OrcProcessingException("Failed to render PDF", e);
+        }
+    }
+
+    private static byte[] encodePng(BufferedImage image) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", buffer);
+        return buffer.toByteArray();
+    }
+}
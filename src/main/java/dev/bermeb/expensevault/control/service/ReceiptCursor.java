@@ -0,0 +1,50 @@
+package dev.bermeb.expensevault.control.service;
+
+import dev.bermeb.expensevault.control.exception.InvalidQueryParameterException;
+import dev.bermeb.expensevault.entity.repository.ReceiptListItem;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position after the last receipt of a page, in the {@code (date, id)} order of the receipt list.
+ * <p>
+ * Clients only see it as an opaque string. It carries the sort direction it was created for,
+ * so a cursor cannot silently be applied to the opposite order.
+ */
+public record ReceiptCursor(LocalDate date, UUID id, Sort.Direction direction) {
+
+    private static final String VERSION = "1";
+    private static final char SEPARATOR = '|';
+
+    public static ReceiptCursor after(ReceiptListItem receipt, Sort.Direction direction) {
+        return new ReceiptCursor(receipt.date(), receipt.id(), direction);
+    }
+
+    public String encode() {
+        String plain = VERSION + SEPARATOR + direction.name().charAt(0) + SEPARATOR + date + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(plain.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ReceiptCursor decode(String cursor) {
+        try {
+            String plain = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = plain.split("\\|", -1);
+            if (parts.length != 4 || !VERSION.equals(parts[0])) {
+                throw new InvalidQueryParameterException("Invalid cursor");
+            }
+            Sort.Direction direction = switch (parts[1]) {
+                case "A" -> Sort.Direction.ASC;
+                case "D" -> Sort.Direction.DESC;
+                default -> throw new InvalidQueryParameterException("Invalid cursor");
+            };
+            return new ReceiptCursor(LocalDate.parse(parts[2]), UUID.fromString(parts[3]), direction);
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new InvalidQueryParameterException("Invalid cursor", e);
+        }
+    }
+}
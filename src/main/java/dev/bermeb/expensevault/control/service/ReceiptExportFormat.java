@@ -0,0 +1,34 @@
+package dev.bermeb.expensevault.control.service;
+
+import dev.bermeb.expensevault.control.exception.InvalidQueryParameterException;
+
+import java.util.Locale;
+
+public enum ReceiptExportFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String fileExtension;
+
+    ReceiptExportFormat(String contentType, String fileExtension) {
+        this.contentType = contentType;
+        this.fileExtension = fileExtension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    public static ReceiptExportFormat fromParameter(String format) {
+        try {
+            return valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidQueryParameterException("Format must be csv or ndjson", e);
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package dev.bermeb.expensevault.control.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.bermeb.expensevault.config.ReceiptListProperties;
+import dev.bermeb.expensevault.control.exception.ExportCapacityExceededException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Writes all receipts matching the list filters as CSV or NDJSON.
+ * <p>
+ * Rows come from a server-side cursor and are written to the output as they arrive, without
+ * entities or an intermediate list, so memory stays flat however many receipts are exported.
+ * PostgreSQL only honours the fetch size inside a transaction, which is why the query runs in one.
+ */
+@Service
+@Slf4j
+public class ReceiptExportService {
+
+    private static final String SELECT = "SELECT r.id, r.date, r.amount, r.currency, r.merchant_name, r.description, " +
+            "c.name AS category, r.created_at " +
+            "FROM receipts r LEFT JOIN categories c ON c.id = r.category_id";
+
+    private static final String ORDER_BY = " ORDER BY r.date, r.id";
+
+    private static final String CSV_HEADER = "id,date,amount,currency,merchant_name,description,category,created_at\r\n";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    private final Semaphore exports;
+
+    public ReceiptExportService(ReceiptListProperties properties,
+                                DataSource dataSource,
+                                PlatformTransactionManager transactionManager,
+                                ObjectMapper objectMapper) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(properties.getExportFetchSize());
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.exports = new Semaphore(properties.getMaxConcurrentExports());
+    }
+
+    /**
+     * One of the {@code max-concurrent-exports} export slots of this node.
+     */
+    public final class Slot implements AutoCloseable {
+
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Slot() {
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                exports.release();
+            }
+        }
+    }
+
+    /**
+     * Reserves an export slot up front, so a busy node can turn the request away before the
+     * response has started streaming.
+     */
+    public Slot reserveSlot() {
+        if (!exports.tryAcquire()) {
+            throw new ExportCapacityExceededException("Too many exports in progress, please retry shortly");
+        }
+        return new Slot();
+    }
+
+    /**
+     * Writes the receipts in {@code (date, id)} order. The output stream is flushed but not closed.
+     *
+     * @return the number of receipts written
+     */
+    public long export(ReceiptExportFormat format, String categoryName, LocalDate startDate, LocalDate endDate,
+                       OutputStream out) throws IOException {
+        StringBuilder sql = new StringBuilder(SELECT);
+        List<Object> args = new ArrayList<>();
+        String separator = " WHERE ";
+
+        if (categoryName != null && !categoryName.isEmpty()) {
+            sql.append(separator).append("c.name = ?");
+            args.add(categoryName);
+            separator = " AND ";
+        }
+        if (startDate != null) {
+            sql.append(separator).append("r.date >= ?");
+            args.add(startDate);
+            separator = " AND ";
+        }
+        if (endDate != null) {
+            sql.append(separator).append("r.date <= ?");
+            args.add(endDate);
+        }
+        sql.append(ORDER_BY);
+
+        long start = System.nanoTime();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        RowWriter rowWriter = format == ReceiptExportFormat.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+
+        try {
+            rowWriter.begin();
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.query(sql.toString(), rowWriter, args.toArray()));
+            rowWriter.end();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        log.info("Exported {} receipts as {} in {} ms", rowWriter.rows, format,
+                (System.nanoTime() - start) / 1_000_000);
+        return rowWriter.rows;
+    }
+
+    private abstract static class RowWriter implements RowCallbackHandler {
+
+        final Writer writer;
+        long rows;
+
+        RowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            try {
+                write(rs.getObject("id", UUID.class),
+                        rs.getObject("date", LocalDate.class),
+                        rs.getBigDecimal("amount"),
+                        rs.getString("currency"),
+                        rs.getString("merchant_name"),
+                        rs.getString("description"),
+                        rs.getString("category"),
+                        rs.getObject("created_at", LocalDateTime.class));
+                rows++;
+            } catch (IOException e) {
+                // Usually the client went away, there is no point in reading further rows
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        abstract void begin() throws IOException;
+
+        abstract void write(UUID id, LocalDate date, BigDecimal amount, String currency, String merchantName,
+                            String description, String category, LocalDateTime createdAt) throws IOException;
+
+        abstract void end() throws IOException;
+    }
+
+    /**
+     * RFC 4180 CSV. Text starting like a formula is prefixed with a quote so spreadsheets show it
+     * instead of evaluating it.
+     */
+    private static final class CsvRowWriter extends RowWriter {
+
+        CsvRowWriter(Writer writer) {
+            super(writer);
+        }
+
+        @Override
+        void begin() throws IOException {
+            // Flushed right away, the client sees the download start before the first row is read
+            writer.write(CSV_HEADER);
+            writer.flush();
+        }
+
+        @Override
+        void write(UUID id, LocalDate date, BigDecimal amount, String currency, String merchantName,
+                   String description, String category, LocalDateTime createdAt) throws IOException {
+            writer.write(id.toString());
+            writer.write(',');
+            writer.write(date.toString());
+            writer.write(',');
+            writer.write(amount.toPlainString());
+            writer.write(',');
+            writeText(currency);
+            writer.write(',');
+            writeText(merchantName);
+            writer.write(',');
+            writeText(description);
+            writer.write(',');
+            writeText(category);
+            writer.write(',');
+            if (createdAt != null) {
+                writer.write(createdAt.toString());
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        void end() throws IOException {
+            writer.flush();
+        }
+
+        private void writeText(String value) throws IOException {
+            if (value == null || value.isEmpty()) {
+                return;
+            }
+            char first = value.charAt(0);
+            boolean formula = first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r';
+            boolean quote = formula || value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            if (formula) {
+                writer.write('\'');
+            }
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    private final class NdjsonRowWriter extends RowWriter {
+
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(Writer writer) throws IOException {
+            super(writer);
+            this.generator = objectMapper.getFactory().createGenerator(writer)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        }
+
+        @Override
+        void begin() throws IOException {
+            // Nothing to write ahead of the first row, but the response headers can go out already
+            writer.flush();
+        }
+
+        @Override
+        void write(UUID id, LocalDate date, BigDecimal amount, String currency, String merchantName,
+                   String description, String category, LocalDateTime createdAt) throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField("id", id.toString());
+            generator.writeStringField("date", date.toString());
+            generator.writeNumberField("amount", amount);
+            generator.writeStringField("currency", currency);
+            generator.writeStringField("merchantName", merchantName);
+            generator.writeStringField("description", description);
+            generator.writeStringField("category", category);
+            generator.writeStringField("createdAt", createdAt != null ? createdAt.toString() : null);
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        void end() throws IOException {
+            generator.flush();
+            writer.flush();
+        }
+    }
+}
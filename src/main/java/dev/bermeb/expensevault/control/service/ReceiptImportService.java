@@ -0,0 +1,343 @@
+package dev.bermeb.expensevault.control.service;
+
+import dev.bermeb.expensevault.boundary.dto.response.OcrResult;
+import dev.bermeb.expensevault.boundary.dto.response.ReceiptImportResult;
+import dev.bermeb.expensevault.config.ReceiptImportProperties;
+import dev.bermeb.expensevault.config.UploadProperties;
+import dev.bermeb.expensevault.control.exception.InvalidFileException;
+import dev.bermeb.expensevault.control.exception.UploadCapacityExceededException;
+import dev.bermeb.expensevault.entity.model.Receipt;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Imports a ZIP archive of receipt images as one receipt per file.
+ * <p>
+ * The archive is read entry by entry straight from the request stream. Before an entry is read,
+ * the import needs a free slot in its OCR window ({@code expensevault.import.concurrency}); while
+ * the window is full the reader stops, so the client is throttled by TCP flow control instead of
+ * the archive piling up on the heap. Recognized receipts are collected on the reader thread and
+ * stored in batches of {@code batch-size} per transaction. Every entry reports its outcome to the
+ * caller, which streams it to the client as it happens.
+ */
+@Service
+@Slf4j
+public class ReceiptImportService {
+
+    private static final long POLL_MILLIS = 100;
+
+    private final ReceiptImportProperties properties;
+    private final UploadProperties uploadProperties;
+    private final ImageUploadService imageUploadService;
+    private final OcrService ocrService;
+    private final ReceiptIngestionService receiptIngestionService;
+    private final ImageStore imageStore;
+    private final ThreadPoolTaskExecutor receiptImportExecutor;
+
+    private final Semaphore imports;
+
+    public ReceiptImportService(ReceiptImportProperties properties,
+                                UploadProperties uploadProperties,
+                                ImageUploadService imageUploadService,
+                                OcrService ocrService,
+                                ReceiptIngestionService receiptIngestionService,
+                                ImageStore imageStore,
+                                ThreadPoolTaskExecutor receiptImportExecutor) {
+        this.properties = properties;
+        this.uploadProperties = uploadProperties;
+        this.imageUploadService = imageUploadService;
+        this.ocrService = ocrService;
+        this.receiptIngestionService = receiptIngestionService;
+        this.imageStore = imageStore;
+        this.receiptImportExecutor = receiptImportExecutor;
+        this.imports = new Semaphore(properties.getMaxConcurrentImports());
+    }
+
+    /**
+     * One of the {@code max-concurrent-imports} import slots of this node.
+     */
+    public final class Slot implements AutoCloseable {
+
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Slot() {
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                imports.release();
+            }
+        }
+    }
+
+    /**
+     * Reserves an import slot up front, so a busy node can turn the request away before the
+     * response has started streaming.
+     */
+    public Slot reserveSlot() {
+        if (!imports.tryAcquire()) {
+            throw new UploadCapacityExceededException("Too many imports in progress, please retry shortly");
+        }
+        return new Slot();
+    }
+
+    /**
+     * Imports all receipt files of {@code archive} and blocks until the last one is stored.
+     * Directories, hidden files and files that are not PNG, JPG or PDF are skipped.
+     *
+     * @param listener receives one result per entry in the order they finish, and the summary last;
+     *                 if it throws, the remaining archive is ignored but receipts already in OCR are still stored
+     */
+    public void importArchive(InputStream archive, String categoryName, String description,
+                              Consumer<ReceiptImportResult> listener) {
+        new ImportRun(categoryName, description, listener).run(archive);
+    }
+
+    private record Outcome(String entry, RecognizedReceipt recognized, String error) {
+    }
+
+    /**
+     * State of one import. Everything but {@link #recognize} runs on the reader thread.
+     */
+    private final class ImportRun {
+
+        private final String categoryName;
+        private final String description;
+        private final Consumer<ReceiptImportResult> listener;
+
+        private final Semaphore window = new Semaphore(properties.getConcurrency());
+        private final BlockingQueue<Outcome> completed = new LinkedBlockingQueue<>();
+        private final List<Outcome> pending = new ArrayList<>();
+        private long pendingSince;
+
+        private boolean aborted;
+        private int imported;
+        private int skipped;
+        private int failed;
+
+        private ImportRun(String categoryName, String description, Consumer<ReceiptImportResult> listener) {
+            this.categoryName = categoryName;
+            this.description = description;
+            this.listener = listener;
+        }
+
+        private void run(InputStream archive) {
+            long startTime = System.nanoTime();
+
+            try (ZipInputStream zip = new ZipInputStream(archive)) {
+                int entries = 0;
+                ZipEntry entry;
+                while (!aborted && (entry = zip.getNextEntry()) != null) {
+                    String name = entry.getName();
+                    if (entry.isDirectory() || isHidden(name)) {
+                        continue;
+                    }
+                    if (++entries > properties.getMaxEntries()) {
+                        emit(ReceiptImportResult.builder()
+                                .status(ReceiptImportResult.Status.FAILED)
+                                .error("Archive has more than " + properties.getMaxEntries() + " files, the rest was not imported")
+                                .build());
+                        break;
+                    }
+
+                    if (awaitWindow()) {
+                        submit(name, zip);
+                    }
+                }
+            } catch (IOException e) {
+                log.warn("Receipt archive could not be read: {}", e.getMessage());
+                emit(ReceiptImportResult.builder()
+                        .status(ReceiptImportResult.Status.FAILED)
+                        .error("Archive could not be read: " + e.getMessage())
+                        .build());
+            }
+
+            awaitInFlight();
+            flush();
+
+            log.info("Receipt import finished in {}ms: {} imported, {} skipped, {} failed",
+                    (System.nanoTime() - startTime) / 1_000_000, imported, skipped, failed);
+            emit(ReceiptImportResult.builder()
+                    .status(ReceiptImportResult.Status.COMPLETED)
+                    .imported(imported)
+                    .skipped(skipped)
+                    .failed(failed)
+                    .build());
+        }
+
+        private void submit(String name, ZipInputStream zip) throws IOException {
+            long maxBytes = uploadProperties.getMaxFileSize().toBytes();
+
+            UploadedImage image;
+            try {
+                byte[] data = zip.readNBytes((int) Math.min(Integer.MAX_VALUE - 8, maxBytes + 1));
+                if (data.length > maxBytes) {
+                    throw new InvalidFileException("File size exceeds the maximum limit of " + uploadProperties.getMaxFileSize().toMegabytes() + "MB");
+                }
+                image = imageUploadService.adopt(data, name);
+            } catch (InvalidFileException e) {
+                window.release();
+                skipped++;
+                emit(entryResult(name, ReceiptImportResult.Status.SKIPPED).error(e.getMessage()).build());
+                return;
+            } catch (UploadCapacityExceededException e) {
+                window.release();
+                failed++;
+                emit(entryResult(name, ReceiptImportResult.Status.FAILED).error(e.getMessage()).build());
+                return;
+            } catch (IOException | RuntimeException e) {
+                window.release();
+                throw e;
+            }
+
+            receiptImportExecutor.execute(() -> recognize(name, image));
+        }
+
+        /**
+         * Runs on the import executor. The window slot is only given back after the outcome is
+         * queued, so once all slots are free again every outcome has been queued.
+         */
+        private void recognize(String name, UploadedImage image) {
+            long startTime = System.nanoTime();
+            try (image) {
+                OcrResult ocrResult = ocrService.extractReceiptData(image.data(), false);
+                if (ocrResult.getTotalAmount() == null) {
+                    completed.add(new Outcome(name, null, "No total amount recognized"));
+                } else {
+                    int processingTimeMs = (int) ((System.nanoTime() - startTime) / 1_000_000);
+                    StoredImage stored = imageStore.store(image.data());
+                    completed.add(new Outcome(name, new RecognizedReceipt(ocrResult, processingTimeMs, stored), null));
+                }
+            } catch (RuntimeException e) {
+                log.warn("OCR failed for import entry {}: {}", name, e.getMessage());
+                completed.add(new Outcome(name, null, "OCR failed: " + e.getMessage()));
+            } finally {
+                window.release();
+            }
+        }
+
+        private boolean awaitWindow() {
+            try {
+                while (!window.tryAcquire(POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    drain();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                aborted = true;
+                return false;
+            }
+            drain();
+            return true;
+        }
+
+        private void awaitInFlight() {
+            int slots = properties.getConcurrency();
+            try {
+                while (!window.tryAcquire(slots, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    drain();
+                }
+                window.release(slots);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Receipt import interrupted with receipts still in OCR, they are not stored");
+            }
+            drain();
+        }
+
+        private void drain() {
+            Outcome outcome;
+            while ((outcome = completed.poll()) != null) {
+                if (outcome.error() != null) {
+                    failed++;
+                    emit(entryResult(outcome.entry(), ReceiptImportResult.Status.FAILED).error(outcome.error()).build());
+                    continue;
+                }
+                if (pending.isEmpty()) {
+                    pendingSince = System.nanoTime();
+                }
+                pending.add(outcome);
+            }
+
+            if (pending.size() >= properties.getBatchSize()
+                    || (!pending.isEmpty() && System.nanoTime() - pendingSince >= properties.getFlushInterval().toNanos())) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+
+            List<RecognizedReceipt> batch = pending.stream().map(Outcome::recognized).toList();
+            try {
+                List<Receipt> saved = receiptIngestionService.storeAll(batch, categoryName, description);
+                for (int i = 0; i < saved.size(); i++) {
+                    reportImported(pending.get(i), saved.get(i));
+                }
+            } catch (RuntimeException e) {
+                // One bad receipt must not cost the whole batch, retry them one by one
+                log.warn("Storing a batch of {} imported receipts failed, storing them one by one: {}", batch.size(), e.getMessage());
+                for (Outcome outcome : pending) {
+                    try {
+                        RecognizedReceipt recognized = outcome.recognized();
+                        reportImported(outcome, receiptIngestionService.store(recognized.ocrResult(), categoryName,
+                                description, recognized.processingTimeMs(), recognized.image()));
+                    } catch (RuntimeException ex) {
+                        failed++;
+                        emit(entryResult(outcome.entry(), ReceiptImportResult.Status.FAILED).error(ex.getMessage()).build());
+                    }
+                }
+            }
+            pending.clear();
+        }
+
+        private void reportImported(Outcome outcome, Receipt receipt) {
+            imported++;
+            emit(entryResult(outcome.entry(), ReceiptImportResult.Status.IMPORTED)
+                    .receiptId(receipt.getId())
+                    .amount(receipt.getAmount())
+                    .currency(receipt.getCurrency())
+                    .merchantName(receipt.getMerchantName())
+                    .date(receipt.getDate())
+                    .processingTimeMs(outcome.recognized().processingTimeMs())
+                    .build());
+        }
+
+        private void emit(ReceiptImportResult result) {
+            if (aborted) {
+                return;
+            }
+            try {
+                listener.accept(result);
+            } catch (RuntimeException e) {
+                // Most likely the client went away; finish what is already in OCR and stop reading
+                log.info("Receipt import progress could not be sent, stopping the import: {}", e.getMessage());
+                aborted = true;
+            }
+        }
+
+        private static ReceiptImportResult.ReceiptImportResultBuilder entryResult(String entry, ReceiptImportResult.Status status) {
+            return ReceiptImportResult.builder().entry(entry).status(status);
+        }
+
+        private static boolean isHidden(String name) {
+            return name.startsWith("__MACOSX/") || name.startsWith(".") || name.contains("/.");
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package dev.bermeb.expensevault.control.service;
+
+import dev.bermeb.expensevault.boundary.dto.response.OcrResult;
+import dev.bermeb.expensevault.entity.model.Category;
+import dev.bermeb.expensevault.entity.model.Receipt;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns an uploaded receipt image into a stored {@link Receipt}.
+ * Shared by the synchronous upload endpoint and the asynchronous OCR job workers.
+ * <p>
+ * The original file is kept in the {@link ImageStore}; for receipts uploaded as several files
+ * that is the first one.
+ */
+@Service
+@Slf4j
+public class ReceiptIngestionService {
+
+    private final OcrService ocrService;
+    private final ReceiptService receiptService;
+    private final ImageStore imageStore;
+    private final TransactionTemplate transactionTemplate;
+
+    public ReceiptIngestionService(OcrService ocrService,
+                                   ReceiptService receiptService,
+                                   ImageStore imageStore,
+                                   PlatformTransactionManager transactionManager) {
+        this.ocrService = ocrService;
+        this.receiptService = receiptService;
+        this.imageStore = imageStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public Receipt ingest(byte[] imageData, String categoryName, String description) {
+        return ingest(List.of(imageData), categoryName, description);
+    }
+
+    /**
+     * @param files the pages of one receipt in order, each an image or a PDF
+     */
+    public Receipt ingest(List<byte[]> files, String categoryName, String description) {
+        long startTime = System.nanoTime();
+
+        // OCR runs outside any transaction so no DB connection is held during the Vision call
+        OcrResult ocrResult = ocrService.extractReceiptData(files, false);
+
+        int processingTimeMs = (int) ((System.nanoTime() - startTime) / 1_000_000);
+        StoredImage image = imageStore.store(files.get(0));
+        // A call on this would bypass the proxy and with it the @Transactional of store
+        return transactionTemplate.execute(status ->
+                store(ocrResult, categoryName, description, processingTimeMs, image));
+    }
+
+    /**
+     * @param image the stored receipt file, or {@code null}
+     */
+    @Transactional
+    public Receipt store(OcrResult ocrResult, String categoryName, String description, int processingTimeMs,
+                         StoredImage image) {
+        Receipt receipt = toReceipt(ocrResult, description, image);
+
+        if (categoryName != null) {
+            receipt.setCategory(receiptService.findCategoryByName(categoryName));
+        }
+
+        Receipt savedReceipt = receiptService.save(receipt, ocrResult, processingTimeMs);
+        log.debug("Receipt ingested with ID: {} in {}ms", savedReceipt.getId(), processingTimeMs);
+        return savedReceipt;
+    }
+
+    /**
+     * Stores several recognized receipts in one transaction, e.g. one batch of a bulk import.
+     *
+     * @return the stored receipts in the order of {@code recognized}
+     */
+    @Transactional
+    public List<Receipt> storeAll(List<RecognizedReceipt> recognized, String categoryName, String description) {
+        Category category = categoryName != null ? receiptService.findCategoryByName(categoryName) : null;
+
+        List<Receipt> receipts = new ArrayList<>(recognized.size());
+        for (RecognizedReceipt entry : recognized) {
+            Receipt receipt = toReceipt(entry.ocrResult(), description, entry.image());
+            receipt.setCategory(category);
+            receipts.add(receipt);
+        }
+
+        List<Receipt> savedReceipts = receiptService.saveAll(receipts, recognized);
+        log.debug("Stored batch of {} receipts", savedReceipts.size());
+        return savedReceipts;
+    }
+
+    private static Receipt toReceipt(OcrResult ocrResult, String description, StoredImage image) {
+        Receipt receipt = Receipt.builder()
+                .amount(ocrResult.getTotalAmount())
+                .merchantName(ocrResult.getMerchantName())
+                .date(ocrResult.getDate() != null ? ocrResult.getDate() : LocalDate.now())
+                .description(description)
+                .currency(ocrResult.getCurrency() != null ? ocrResult.getCurrency() : "EUR")
+                .build();
+        if (image != null) {
+            image.applyTo(receipt);
+        }
+        return receipt;
+    }
+}
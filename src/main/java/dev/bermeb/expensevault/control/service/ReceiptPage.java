@@ -0,0 +1,13 @@
+package dev.bermeb.expensevault.control.service;
+
+import dev.bermeb.expensevault.entity.repository.ReceiptListItem;
+
+import java.util.List;
+
+/**
+ * One page of the receipt list.
+ *
+ * @param next where the following page starts, {@code null} on the last page
+ */
+public record ReceiptPage(List<ReceiptListItem> receipts, ReceiptCursor next) {
+}
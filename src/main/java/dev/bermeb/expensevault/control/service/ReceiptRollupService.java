@@ -0,0 +1,202 @@
+package dev.bermeb.expensevault.control.service;
+
+import dev.bermeb.expensevault.boundary.dto.response.TimeSeriesResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reads and rebuilds {@code daily_receipt_rollups}, the receipt count and amount per day, category,
+ * merchant and currency.
+ * <p>
+ * Triggers on {@code receipts} keep the rollups up to date in the transaction of every receipt
+ * write, so reports read them instead of the receipts and their cost depends on the number of days
+ * and groups in the period. A rebuild recomputes them from the receipts, for backfills and in case
+ * they drifted, e.g. after receipts were loaded with the triggers disabled.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+@Slf4j
+public class ReceiptRollupService {
+
+    // The empty grouping set yields the period totals, even without rollups, next to one row per merchant
+    private static final String SUMMARY_GROUPS = "WITH grouped AS (" +
+            "SELECT merchant_name, GROUPING(merchant_name) AS is_total, " +
+            "coalesce(sum(receipt_count), 0) AS receipt_count, coalesce(sum(total_amount), 0) AS total_amount " +
+            "FROM daily_receipt_rollups WHERE day BETWEEN ? AND ?";
+
+    private static final String SUMMARY_RANKING = " GROUP BY GROUPING SETS ((), (merchant_name))), " +
+            "ranked AS (SELECT grouped.*, row_number() OVER (PARTITION BY is_total " +
+            "ORDER BY total_amount DESC, merchant_name) AS merchant_rank " +
+            "FROM grouped WHERE is_total = 1 OR receipt_count > 0) " +
+            "SELECT merchant_name, is_total, receipt_count, total_amount FROM ranked " +
+            "WHERE is_total = 1 OR merchant_rank <= ? ORDER BY is_total DESC, merchant_rank";
+
+    // Every bucket from the one containing the start date to the one containing the end date, also those without rollups
+    private static final String TIME_SERIES_BUCKETS = "WITH buckets AS (" +
+            "SELECT generate_series(date_trunc('%1$s', ?::timestamp), date_trunc('%1$s', ?::timestamp), " +
+            "interval '1 %1$s')::date AS bucket), " +
+            "totals AS (SELECT date_trunc('%1$s', day::timestamp)::date AS bucket, " +
+            "sum(receipt_count) AS receipt_count, sum(total_amount) AS total_amount " +
+            "FROM daily_receipt_rollups WHERE day BETWEEN ? AND ?";
+
+    private static final String TIME_SERIES_FILL = " GROUP BY 1) " +
+            "SELECT b.bucket, coalesce(t.receipt_count, 0) AS receipt_count, coalesce(t.total_amount, 0) AS total_amount " +
+            "FROM buckets b LEFT JOIN totals t ON t.bucket = b.bucket ORDER BY b.bucket";
+
+    // Writers wait for the rebuild, so no receipt change falls between the delete and the insert
+    private static final String LOCK_RECEIPTS = "LOCK TABLE receipts IN SHARE MODE";
+
+    private static final String MAX_VERSION = "SELECT coalesce(max(version), 0) FROM daily_receipt_rollups";
+
+    private static final String DELETE_ROLLUPS = "DELETE FROM daily_receipt_rollups";
+
+    private static final String INSERT_ROLLUPS = "INSERT INTO daily_receipt_rollups " +
+            "(day, category_id, merchant_name, currency, receipt_count, total_amount, version, updated_at) " +
+            "SELECT date, category_id, merchant_name, currency, count(*), sum(amount), ?, CURRENT_TIMESTAMP " +
+            "FROM receipts";
+
+    private static final String GROUP_ROLLUPS = " GROUP BY date, category_id, merchant_name, currency";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Totals of the period and its merchants with the highest amounts, in a single statement.
+     *
+     * @param categoryId   only receipts of this category, or all receipts for {@code null}
+     * @param currency     only receipts in this currency, or all receipts for {@code null}
+     * @param topMerchants maximum number of merchants returned
+     */
+    public ReceiptRollupSummary summarize(LocalDate startDate, LocalDate endDate, UUID categoryId, String currency,
+                                          int topMerchants) {
+        StringBuilder sql = new StringBuilder(SUMMARY_GROUPS);
+        List<Object> args = new ArrayList<>(List.of(startDate, endDate));
+        if (categoryId != null) {
+            sql.append(" AND category_id = ?");
+            args.add(categoryId);
+        }
+        if (currency != null) {
+            sql.append(" AND currency = ?");
+            args.add(currency);
+        }
+        sql.append(SUMMARY_RANKING);
+        args.add(topMerchants);
+
+        ReceiptTotals[] totals = new ReceiptTotals[1];
+        List<ReceiptTotals> merchants = new ArrayList<>();
+        jdbcTemplate.query(sql.toString(), rs -> {
+            ReceiptTotals row = new ReceiptTotals(
+                    rs.getString("merchant_name"),
+                    rs.getLong("receipt_count"),
+                    rs.getBigDecimal("total_amount"));
+            if (rs.getInt("is_total") == 1) {
+                totals[0] = row;
+            } else {
+                merchants.add(row);
+            }
+        }, args.toArray());
+
+        return new ReceiptRollupSummary(totals[0], merchants);
+    }
+
+    /**
+     * Receipt count and amount per bucket of the period, as parallel lists in bucket order. Buckets
+     * are bounded by the period's start and end dates, not the whole week or month around them.
+     *
+     * @param categoryId   only receipts of this category, or all receipts for {@code null}
+     * @param merchantName only receipts of this merchant, or all receipts for {@code null}
+     * @param currency     only receipts in this currency, or all receipts for {@code null}
+     */
+    public TimeSeriesResponse timeSeries(LocalDate startDate, LocalDate endDate, TimeSeriesGranularity granularity,
+                                         UUID categoryId, String merchantName, String currency) {
+        // The field comes from the enum, never from the request
+        StringBuilder sql = new StringBuilder(TIME_SERIES_BUCKETS.formatted(granularity.getField()));
+        List<Object> args = new ArrayList<>(List.of(startDate, endDate, startDate, endDate));
+        if (categoryId != null) {
+            sql.append(" AND category_id = ?");
+            args.add(categoryId);
+        }
+        if (merchantName != null) {
+            sql.append(" AND merchant_name = ?");
+            args.add(merchantName);
+        }
+        if (currency != null) {
+            sql.append(" AND currency = ?");
+            args.add(currency);
+        }
+        sql.append(TIME_SERIES_FILL);
+
+        List<LocalDate> buckets = new ArrayList<>();
+        List<Integer> receiptCounts = new ArrayList<>();
+        List<BigDecimal> totalAmounts = new ArrayList<>();
+        jdbcTemplate.query(sql.toString(), rs -> {
+            buckets.add(rs.getObject("bucket", LocalDate.class));
+            receiptCounts.add(rs.getInt("receipt_count"));
+            totalAmounts.add(rs.getBigDecimal("total_amount"));
+        }, args.toArray());
+
+        return TimeSeriesResponse.builder()
+                .granularity(granularity.getField())
+                .currency(currency)
+                .buckets(buckets)
+                .receiptCounts(receiptCounts)
+                .totalAmounts(totalAmounts)
+                .build();
+    }
+
+    /**
+     * Recomputes the rollups of the days between the given dates, or of all days for open bounds.
+     *
+     * @return number of rollup rows written
+     */
+    @Transactional
+    public int rebuild(LocalDate startDate, LocalDate endDate) {
+        jdbcTemplate.execute(LOCK_RECEIPTS);
+
+        // Rebuilt rows continue the versions of the old ones, so validators built from them change too
+        long version = jdbcTemplate.queryForObject(MAX_VERSION, Long.class) + 1;
+
+        List<Object> args = new ArrayList<>();
+        if (startDate != null) {
+            args.add(startDate);
+        }
+        if (endDate != null) {
+            args.add(endDate);
+        }
+
+        int deleted = jdbcTemplate.update(DELETE_ROLLUPS + dateRange("day", startDate, endDate), args.toArray());
+
+        List<Object> insertArgs = new ArrayList<>();
+        insertArgs.add(version);
+        insertArgs.addAll(args);
+        int inserted = jdbcTemplate.update(INSERT_ROLLUPS + dateRange("date", startDate, endDate) + GROUP_ROLLUPS,
+                insertArgs.toArray());
+
+        log.info("Rebuilt daily receipt rollups from {} to {}: {} rows replaced by {}",
+                startDate != null ? startDate : "the first day", endDate != null ? endDate : "the last day",
+                deleted, inserted);
+        return inserted;
+    }
+
+    private static String dateRange(String column, LocalDate startDate, LocalDate endDate) {
+        StringBuilder sql = new StringBuilder();
+        String separator = " WHERE ";
+        if (startDate != null) {
+            sql.append(separator).append(column).append(" >= ?");
+            separator = " AND ";
+        }
+        if (endDate != null) {
+            sql.append(separator).append(column).append(" <= ?");
+        }
+        return sql.toString();
+    }
+}
@@ -0,0 +1,11 @@
+package dev.bermeb.expensevault.control.service;
+
+import java.util.List;
+
+/**
+ * Totals of a period and its top merchants, read from the daily rollups.
+ *
+ * @param topMerchants merchants with the highest amounts first
+ */
+public record ReceiptRollupSummary(ReceiptTotals totals, List<ReceiptTotals> topMerchants) {
+}
@@ -0,0 +1,26 @@
+package dev.bermeb.expensevault.control.service;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Locale specific rules for reading a receipt.
+ *
+ * @param totalKeywords       lower case, tried in this order at every word start; a space matches any run of whitespace
+ * @param thousandsSeparators every char that may group thousands, e.g. {@code "."} or {@code " \u00A0\u202F."}
+ * @param detectionKeywords   lower case words (or currency symbols) typical for receipts of this locale,
+ *                            used by {@link ReceiptRuleSets#detect(String)}
+ */
+public record ReceiptRuleSet(String id,
+                             String defaultCurrency,
+                             DateOrder dateOrder,
+                             char decimalSeparator,
+                             String thousandsSeparators,
+                             List<String> totalKeywords,
+                             Set<String> detectionKeywords) {
+
+    public enum DateOrder {
+        DAY_MONTH_YEAR,
+        MONTH_DAY_YEAR
+    }
+}
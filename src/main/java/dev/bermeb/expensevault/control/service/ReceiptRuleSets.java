@@ -0,0 +1,235 @@
+package dev.bermeb.expensevault.control.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static dev.bermeb.expensevault.control.service.ReceiptRuleSet.DateOrder.DAY_MONTH_YEAR;
+import static dev.bermeb.expensevault.control.service.ReceiptRuleSet.DateOrder.MONTH_DAY_YEAR;
+
+/**
+ * The supported receipt locales and a cheap detector that picks one of them.
+ * <p>
+ * Detection is a single pass over the text: every word is looked up in one keyword index built
+ * from all rule sets at startup. Only words of a single rule set decide; words several rule sets
+ * share, like "total" or "card", only narrow the candidates down when no such word occurs. The
+ * best score wins. Tied candidates that read a receipt alike go to the earlier one, so German stays
+ * the default, also for texts without any hit. Tied candidates that read it differently, e.g. a
+ * British and an American receipt without "£", "$", "vat" or "tax", leave what they disagree on
+ * open: no date for different date orders, no currency unless a marker names one, and the German
+ * scan, which takes either decimal separator, for different number formats. The same pass counts
+ * currency symbols and ISO codes for the receipt currency.
+ */
+@Component
+public class ReceiptRuleSets {
+
+    public static final ReceiptRuleSet GERMAN = new ReceiptRuleSet("de", "EUR", DAY_MONTH_YEAR, ',', ".",
+            List.of("summe", "gesamt", "total", "sum", "betrag", "endsumme", "zu zahlen"),
+            Set.of("summe", "gesamt", "gesamtbetrag", "endsumme", "zwischensumme", "betrag", "zahlen", "mwst", "ust",
+                    "bar", "rückgeld", "rueckgeld", "ruckgeld", "zurück", "zurueck", "kasse", "kassa", "netto", "brutto",
+                    "steuer", "danke", "vielen", "dank", "einkauf", "datum", "uhrzeit", "filiale", "stk", "bon",
+                    "bedienung", "rechnung", "trinkgeld", "kartenzahlung", "geg"));
+
+    public static final ReceiptRuleSet BRITISH = new ReceiptRuleSet("en-GB", "GBP", DAY_MONTH_YEAR, '.', ",",
+            List.of("grand total", "total due", "amount due", "balance due", "total"),
+            Set.of("total", "subtotal", "vat", "change", "cash", "card", "thank", "receipt", "qty", "balance", "due",
+                    "£", "gbp", "contactless", "served", "till"));
+
+    public static final ReceiptRuleSet AMERICAN = new ReceiptRuleSet("en-US", "USD", MONTH_DAY_YEAR, '.', ",",
+            List.of("grand total", "total due", "amount due", "balance due", "total"),
+            Set.of("total", "subtotal", "tax", "change", "cash", "card", "thank", "receipt", "qty", "balance", "due",
+                    "$", "usd", "tip", "gratuity", "sales"));
+
+    public static final ReceiptRuleSet FRENCH = new ReceiptRuleSet("fr", "EUR", DAY_MONTH_YEAR, ',', " \u00A0\u202F.",
+            List.of("net à payer", "net a payer", "total ttc", "montant ttc", "à payer", "a payer", "total", "montant"),
+            Set.of("montant", "payer", "tva", "espèces", "especes", "rendu", "monnaie", "merci", "caisse", "carte",
+                    "bancaire", "ht", "ttc", "qté", "qte", "ticket", "total"));
+
+    public static final ReceiptRuleSet ITALIAN = new ReceiptRuleSet("it", "EUR", DAY_MONTH_YEAR, ',', ".",
+            List.of("totale complessivo", "totale euro", "totale", "importo pagato", "importo"),
+            Set.of("totale", "importo", "iva", "contanti", "resto", "grazie", "scontrino", "documento", "commerciale",
+                    "pagamento", "elettronico", "complessivo", "cassa"));
+
+    public static final ReceiptRuleSet SPANISH = new ReceiptRuleSet("es", "EUR", DAY_MONTH_YEAR, ',', ".",
+            List.of("total a pagar", "importe total", "total", "importe"),
+            Set.of("total", "importe", "iva", "efectivo", "cambio", "gracias", "factura", "simplificada", "tarjeta",
+                    "base", "imponible", "ticket"));
+
+    public static final ReceiptRuleSet DUTCH = new ReceiptRuleSet("nl", "EUR", DAY_MONTH_YEAR, ',', ".",
+            List.of("te betalen", "totaal"),
+            Set.of("totaal", "btw", "contant", "wisselgeld", "bedankt", "bon", "pinnen", "betalen", "kassa",
+                    "artikelen", "retour"));
+
+    /**
+     * Order matters: it breaks ties between rule sets that read receipts alike in {@link #detect(String)}.
+     */
+    private static final List<ReceiptRuleSet> RULE_SETS = List.of(GERMAN, BRITISH, AMERICAN, FRENCH, ITALIAN, SPANISH, DUTCH);
+
+    static final List<String> CURRENCIES = List.of("EUR", "GBP", "USD", "CHF", "PLN", "CZK", "SEK", "DKK", "NOK", "HUF");
+
+    private static final Map<String, Integer> CURRENCY_TOKENS = Map.ofEntries(
+            Map.entry("eur", 0), Map.entry("€", 0),
+            Map.entry("gbp", 1), Map.entry("£", 1),
+            Map.entry("usd", 2), Map.entry("$", 2),
+            Map.entry("chf", 3),
+            Map.entry("pln", 4), Map.entry("zł", 4),
+            Map.entry("czk", 5), Map.entry("kč", 5),
+            Map.entry("sek", 6),
+            Map.entry("dkk", 7),
+            Map.entry("nok", 8),
+            Map.entry("huf", 9));
+
+    private static final String EURO = "€";
+    private static final String POUND = "£";
+    private static final String DOLLAR = "$";
+
+    private static final int MAX_TOKEN_LENGTH = 24;
+
+    /**
+     * Word to the indexes (in {@link #RULE_SETS}) of all rule sets listing it, built once.
+     */
+    private final Map<String, int[]> keywordIndex;
+
+    public ReceiptRuleSets() {
+        Map<String, int[]> index = new HashMap<>();
+        for (int i = 0; i < RULE_SETS.size(); i++) {
+            for (String keyword : RULE_SETS.get(i).detectionKeywords()) {
+                int[] existing = index.get(keyword);
+                int[] updated = existing == null ? new int[1] : Arrays.copyOf(existing, existing.length + 1);
+                updated[updated.length - 1] = i;
+                index.put(keyword, updated);
+            }
+        }
+        this.keywordIndex = Map.copyOf(index);
+    }
+
+    /**
+     * @param ruleSet   the rules the text is read with
+     * @param currency  {@code null} if neither a marker nor the locale tells it
+     * @param readDates false if the candidate locales disagree on the date order
+     * @param locale    id of the detected locale, {@code null} if several fit and read the text differently
+     */
+    public record DetectedLocale(ReceiptRuleSet ruleSet, String currency, boolean readDates, String locale) {
+    }
+
+    public DetectedLocale detect(String text) {
+        int[] scores = new int[RULE_SETS.size()];
+        int[] sharedScores = new int[RULE_SETS.size()];
+        int[] currencyCounts = new int[CURRENCIES.size()];
+        int firstCurrency = -1;
+
+        char[] token = new char[MAX_TOKEN_LENGTH];
+        int tokenLength = 0;
+        boolean tokenTooLong = false;
+
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetter(c)) {
+                if (tokenLength < MAX_TOKEN_LENGTH) {
+                    token[tokenLength++] = Character.toLowerCase(c);
+                } else {
+                    tokenTooLong = true;
+                }
+                continue;
+            }
+
+            if (tokenLength >= 2 && !tokenTooLong) {
+                firstCurrency = score(new String(token, 0, tokenLength), scores, sharedScores, currencyCounts,
+                        firstCurrency);
+            }
+            tokenLength = 0;
+            tokenTooLong = false;
+
+            String symbol = switch (c) {
+                case '€' -> EURO;
+                case '£' -> POUND;
+                case '$' -> DOLLAR;
+                default -> null;
+            };
+            if (symbol != null) {
+                firstCurrency = score(symbol, scores, sharedScores, currencyCounts, firstCurrency);
+            }
+        }
+
+        List<ReceiptRuleSet> candidates = best(scores);
+        if (candidates.isEmpty()) {
+            candidates = best(sharedScores);
+        }
+        if (candidates.isEmpty()) {
+            return new DetectedLocale(GERMAN, resolveCurrency(currencyCounts, firstCurrency, GERMAN.defaultCurrency()),
+                    true, GERMAN.id());
+        }
+
+        ReceiptRuleSet first = candidates.getFirst();
+        boolean sameNumbers = candidates.stream().allMatch(c -> c.decimalSeparator() == first.decimalSeparator()
+                && c.thousandsSeparators().equals(first.thousandsSeparators()));
+        boolean sameDateOrder = candidates.stream().allMatch(c -> c.dateOrder() == first.dateOrder());
+        boolean sameCurrency = candidates.stream().allMatch(c -> c.defaultCurrency().equals(first.defaultCurrency()));
+        if (sameNumbers && sameDateOrder && sameCurrency) {
+            return new DetectedLocale(first, resolveCurrency(currencyCounts, firstCurrency, first.defaultCurrency()),
+                    true, first.id());
+        }
+
+        return new DetectedLocale(sameNumbers ? first : GERMAN,
+                resolveCurrency(currencyCounts, firstCurrency, sameCurrency ? first.defaultCurrency() : null),
+                sameDateOrder, null);
+    }
+
+    /**
+     * The rule sets with the highest score in {@link #RULE_SETS} order, none if nothing scored.
+     */
+    private static List<ReceiptRuleSet> best(int[] scores) {
+        int max = Arrays.stream(scores).max().orElse(0);
+        if (max == 0) {
+            return List.of();
+        }
+        List<ReceiptRuleSet> best = new ArrayList<>(2);
+        for (int i = 0; i < scores.length; i++) {
+            if (scores[i] == max) {
+                best.add(RULE_SETS.get(i));
+            }
+        }
+        return best;
+    }
+
+    private int score(String token, int[] scores, int[] sharedScores, int[] currencyCounts, int firstCurrency) {
+        int[] ruleSets = keywordIndex.get(token);
+        if (ruleSets != null) {
+            int[] target = ruleSets.length == 1 ? scores : sharedScores;
+            for (int ruleSet : ruleSets) {
+                target[ruleSet]++;
+            }
+        }
+
+        Integer currency = CURRENCY_TOKENS.get(token);
+        if (currency != null) {
+            currencyCounts[currency]++;
+            if (firstCurrency < 0) {
+                return currency;
+            }
+        }
+        return firstCurrency;
+    }
+
+    /**
+     * The most frequent currency marker, the first one seen on a tie, otherwise {@code fallback}.
+     */
+    private static String resolveCurrency(int[] currencyCounts, int firstCurrency, String fallback) {
+        if (firstCurrency < 0) {
+            return fallback;
+        }
+
+        int best = firstCurrency;
+        for (int i = 0; i < currencyCounts.length; i++) {
+            if (currencyCounts[i] > currencyCounts[best]) {
+                best = i;
+            }
+        }
+        return CURRENCIES.get(best);
+    }
+}
@@ -0,0 +1,40 @@
+package dev.bermeb.expensevault.control.service;
+
+import dev.bermeb.expensevault.control.exception.InvalidQueryParameterException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position after the last hit of a search page, in the {@code (rank desc, id)} order of the results.
+ * The rank is carried exactly as the database computed it, so the next page continues without gaps
+ * or repeats while the matching receipts stay unchanged.
+ */
+public record ReceiptSearchCursor(float rank, UUID id) {
+
+    private static final String VERSION = "1";
+    private static final char SEPARATOR = '|';
+
+    public static ReceiptSearchCursor after(ReceiptSearchHit hit) {
+        return new ReceiptSearchCursor(hit.rank(), hit.receipt().id());
+    }
+
+    public String encode() {
+        String plain = VERSION + SEPARATOR + rank + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(plain.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ReceiptSearchCursor decode(String cursor) {
+        try {
+            String plain = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = plain.split("\\|", -1);
+            if (parts.length != 3 || !VERSION.equals(parts[0])) {
+                throw new InvalidQueryParameterException("Invalid cursor");
+            }
+            return new ReceiptSearchCursor(Float.parseFloat(parts[1]), UUID.fromString(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidQueryParameterException("Invalid cursor", e);
+        }
+    }
+}
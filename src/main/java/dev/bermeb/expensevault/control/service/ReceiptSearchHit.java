@@ -0,0 +1,12 @@
+package dev.bermeb.expensevault.control.service;
+
+import dev.bermeb.expensevault.entity.repository.ReceiptListItem;
+
+/**
+ * A receipt found by full-text search.
+ *
+ * @param rank     {@code ts_rank} of the receipt for the query, higher is better
+ * @param headline text around the matches with the matched words marked, {@code null} unless asked for
+ */
+public record ReceiptSearchHit(ReceiptListItem receipt, float rank, String headline) {
+}
@@ -0,0 +1,11 @@
+package dev.bermeb.expensevault.control.service;
+
+import java.util.List;
+
+/**
+ * One page of search results.
+ *
+ * @param next where the following page starts, {@code null} on the last page
+ */
+public record ReceiptSearchPage(List<ReceiptSearchHit> hits, ReceiptSearchCursor next) {
+}
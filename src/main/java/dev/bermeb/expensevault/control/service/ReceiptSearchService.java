@@ -0,0 +1,118 @@
+package dev.bermeb.expensevault.control.service;
+
+import dev.bermeb.expensevault.control.exception.InvalidQueryParameterException;
+import dev.bermeb.expensevault.entity.repository.ReceiptListItem;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Full-text search over merchant names, descriptions and OCR text.
+ * <p>
+ * The query is parsed with {@code websearch_to_tsquery}, so users can type quoted phrases, {@code or}
+ * and {@code -word}. Matches are looked up separately in the GIN indexes of {@code receipts} and
+ * {@code ocr_data} and ranked with {@code ts_rank} over the stored search vectors. Only the receipts
+ * of the requested page are joined with their categories and OCR data, and headlines, which have to
+ * parse the full text again, are only made for them.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReceiptSearchService {
+
+    private static final int MAX_QUERY_LENGTH = 500;
+
+    private static final String HEADLINE = "ts_headline('english', " +
+            "concat_ws(' ', r.merchant_name, r.description, o.raw_text), q.query, " +
+            "'MaxFragments=2, MinWords=5, MaxWords=20, FragmentDelimiter=\" ... \"')";
+
+    private static final String SEARCH = "WITH q AS (SELECT websearch_to_tsquery('english', ?) AS query), " +
+            "matches AS (" +
+            "SELECT r.id FROM receipts r, q WHERE r.search_vector @@ q.query " +
+            "UNION " +
+            "SELECT o.receipt_id FROM ocr_data o, q WHERE o.search_vector @@ q.query), " +
+            "ranked AS (" +
+            "SELECT r.id, ts_rank(r.search_vector || coalesce(o.search_vector, ''::tsvector), q.query) AS rank " +
+            "FROM matches m JOIN receipts r ON r.id = m.id LEFT JOIN ocr_data o ON o.receipt_id = r.id CROSS JOIN q), " +
+            "page AS (SELECT id, rank FROM ranked %s ORDER BY rank DESC, id LIMIT ?) " +
+            "SELECT p.rank, r.id, r.amount, r.currency, r.merchant_name, r.description, r.date, " +
+            "r.image_content_type, r.image_size, r.created_at, r.updated_at, " +
+            "c.id AS category_id, c.name AS category_name, c.color AS category_color, c.icon AS category_icon, " +
+            "o.confidence, o.processed_at, o.extracted_fields, %s AS headline " +
+            "FROM page p JOIN receipts r ON r.id = p.id " +
+            "LEFT JOIN categories c ON c.id = r.category_id " +
+            "LEFT JOIN ocr_data o ON o.receipt_id = r.id " +
+            "CROSS JOIN q " +
+            "ORDER BY p.rank DESC, p.id";
+
+    private static final String AFTER = "WHERE rank < ? OR (rank = ? AND id > ?)";
+
+    private static final RowMapper<ReceiptSearchHit> ROW_MAPPER = (rs, rowNum) -> new ReceiptSearchHit(
+            new ReceiptListItem(
+                    rs.getObject("id", UUID.class),
+                    rs.getBigDecimal("amount"),
+                    rs.getString("currency"),
+                    rs.getString("merchant_name"),
+                    rs.getString("description"),
+                    rs.getObject("date", LocalDate.class),
+                    rs.getString("image_content_type"),
+                    rs.getObject("image_size") != null ? rs.getLong("image_size") : null,
+                    rs.getObject("created_at", LocalDateTime.class),
+                    rs.getObject("updated_at", LocalDateTime.class),
+                    rs.getObject("category_id", UUID.class),
+                    rs.getString("category_name"),
+                    rs.getString("category_color"),
+                    rs.getString("category_icon"),
+                    rs.getObject("confidence") != null ? rs.getFloat("confidence") : null,
+                    rs.getObject("processed_at", LocalDateTime.class),
+                    rs.getString("extracted_fields"),
+                    null),
+            rs.getFloat("rank"),
+            rs.getString("headline"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Reads one page of receipts matching {@code query}, best match first.
+     *
+     * @param after     where to continue, {@code null} for the first page
+     * @param headlines whether to make a headline for every hit
+     */
+    @Transactional(readOnly = true)
+    public ReceiptSearchPage search(String query, ReceiptSearchCursor after, int pageSize, boolean headlines) {
+        if (query == null || query.isBlank()) {
+            throw new InvalidQueryParameterException("Search query must not be empty");
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new InvalidQueryParameterException("Search query must not be longer than " + MAX_QUERY_LENGTH + " characters");
+        }
+
+        String sql = SEARCH.formatted(after != null ? AFTER : "", headlines ? HEADLINE : "CAST(NULL AS text)");
+        List<Object> args = new ArrayList<>();
+        args.add(query);
+        if (after != null) {
+            args.add(after.rank());
+            args.add(after.rank());
+            args.add(after.id());
+        }
+        // One extra row tells whether there is a next page without a count query
+        args.add(pageSize + 1);
+
+        List<ReceiptSearchHit> hits = jdbcTemplate.query(sql, ROW_MAPPER, args.toArray());
+
+        if (hits.size() <= pageSize) {
+            return new ReceiptSearchPage(hits, null);
+        }
+        List<ReceiptSearchHit> page = hits.subList(0, pageSize);
+        return new ReceiptSearchPage(page, ReceiptSearchCursor.after(page.get(pageSize - 1)));
+    }
+}
@@ -1,15 +1,16 @@
 package dev.bermeb.expensevault.control.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.bermeb.expensevault.boundary.dto.request.ReceiptUpdateRequest;
 import dev.bermeb.expensevault.boundary.dto.response.OcrResult;
 import dev.bermeb.expensevault.control.exception.CategoryNotFoundException;
+import dev.bermeb.expensevault.control.exception.InvalidQueryParameterException;
 import dev.bermeb.expensevault.entity.model.Category;
 import dev.bermeb.expensevault.entity.model.OcrData;
 import dev.bermeb.expensevault.entity.model.Receipt;
-import dev.bermeb.expensevault.entity.repository.CategoryRepository;
 import dev.bermeb.expensevault.entity.repository.OcrDataRepository;
+import dev.bermeb.expensevault.entity.repository.ReceiptListItem;
 import dev.bermeb.expensevault.entity.repository.ReceiptRepository;
+import dev.bermeb.expensevault.entity.repository.ReceiptView;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Sort;
@@ -19,10 +20,11 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -31,50 +33,85 @@ import java.util.UUID;
 public class ReceiptService {
 
     private final ReceiptRepository receiptRepository;
-    private final CategoryRepository categoryRepository;
+    private final CategoryCache categoryCache;
+    private final ReportCache reportCache;
     private final OcrDataRepository ocrDataRepository;
-    private final ObjectMapper objectMapper;
-
+    private final ExtractedFieldsWriter extractedFieldsWriter;
+
+    /**
+     * Reads one page of receipts in {@code (date, id)} order. The cursor becomes a keyset predicate
+     * and the page size a SQL limit, so a page costs the same no matter how deep it is. Receipts,
+     * categories and OCR data of the page are read in one statement, limited to the columns of
+     * {@code view}.
+     *
+     * @param after where to continue, {@code null} for the first page; must match {@code direction}
+     */
     @Transactional(readOnly = true)
-    public List<Receipt> findAll(String categoryName, LocalDate startDate, LocalDate endDate, Sort sort, int limit) {
-        Specification<Receipt> spec = null;
+    public ReceiptPage findPage(String categoryName, LocalDate startDate, LocalDate endDate,
+                                Sort.Direction direction, ReceiptCursor after, int pageSize, ReceiptView view) {
+        if (after != null && after.direction() != direction) {
+            throw new InvalidQueryParameterException("Cursor was created for sort direction " + after.direction());
+        }
+
+        Specification<Receipt> spec = Specification.unrestricted();
 
         if (categoryName != null && !categoryName.isEmpty()) {
-            spec = (root, query, criteriaBuilder) ->
-                    criteriaBuilder.equal(root.get("category").get("name"), categoryName);
+            spec = spec.and((root, query, criteriaBuilder) ->
+                    criteriaBuilder.equal(root.get("category").get("name"), categoryName));
         }
 
         if (startDate != null) {
-            Specification<Receipt> startDateSpec = (root, query, criteriaBuilder) ->
-                    criteriaBuilder.greaterThanOrEqualTo(root.get("date"), startDate);
-            spec = spec == null ? startDateSpec : spec.and(startDateSpec);
+            spec = spec.and((root, query, criteriaBuilder) ->
+                    criteriaBuilder.greaterThanOrEqualTo(root.get("date"), startDate));
         }
 
         if (endDate != null) {
-            Specification<Receipt> endDateSpec = (root, query, criteriaBuilder) ->
-                    criteriaBuilder.lessThanOrEqualTo(root.get("date"), endDate);
-            spec = spec == null ? endDateSpec : spec.and(endDateSpec);
+            spec = spec.and((root, query, criteriaBuilder) ->
+                    criteriaBuilder.lessThanOrEqualTo(root.get("date"), endDate));
+        }
+
+        if (after != null) {
+            spec = spec.and(after(after));
         }
 
-        if (spec == null) {
-            return receiptRepository.findAll(sort).stream().limit(limit).toList();
+        Sort sort = Sort.by(direction, "date").and(Sort.by(direction, "id"));
+        // One extra row tells whether there is a next page without a count query
+        List<ReceiptListItem> receipts = receiptRepository.findListItems(spec, sort, pageSize + 1, view);
+
+        if (receipts.size() <= pageSize) {
+            return new ReceiptPage(receipts, null);
         }
+        List<ReceiptListItem> page = receipts.subList(0, pageSize);
+        return new ReceiptPage(page, ReceiptCursor.after(page.get(pageSize - 1), direction));
+    }
 
-        return receiptRepository.findAll(spec, sort).stream().limit(limit).toList();
+    /**
+     * {@code (date, id) > (:date, :id)}, or {@code <} when descending, spelled out because JPA has
+     * no row value comparison.
+     */
+    private static Specification<Receipt> after(ReceiptCursor cursor) {
+        return (root, query, criteriaBuilder) -> {
+            if (cursor.direction() == Sort.Direction.ASC) {
+                return criteriaBuilder.or(
+                        criteriaBuilder.greaterThan(root.get("date"), cursor.date()),
+                        criteriaBuilder.and(
+                                criteriaBuilder.equal(root.get("date"), cursor.date()),
+                                criteriaBuilder.greaterThan(root.get("id"), cursor.id())));
+            }
+            return criteriaBuilder.or(
+                    criteriaBuilder.lessThan(root.get("date"), cursor.date()),
+                    criteriaBuilder.and(
+                            criteriaBuilder.equal(root.get("date"), cursor.date()),
+                            criteriaBuilder.lessThan(root.get("id"), cursor.id())));
+        };
     }
 
     public Receipt save(Receipt receipt, OcrResult ocrResult, int processingTime) {
         Receipt savedReceipt = receiptRepository.save(receipt);
+        reportCache.invalidateAfterCommit(List.of(savedReceipt.getDate()));
 
         // Save OCR data
-        OcrData ocrData = OcrData.builder()
-                .receipt(savedReceipt)
-                .rawText(ocrResult.getRawText())
-                .confidence(ocrResult.getConfidence())
-                .processedAt(LocalDateTime.now())
-                .processingTimeMs(processingTime)
-                .extractedFields(convertToJson(ocrResult))
-                .build();
+        OcrData ocrData = toOcrData(savedReceipt, ocrResult, processingTime);
 
         ocrDataRepository.save(ocrData);
         savedReceipt.setOcrData(ocrData);
@@ -83,7 +120,40 @@ public class ReceiptService {
         return savedReceipt;
     }
 
+    /**
+     * Saves receipts together with their OCR data, each receipt paired with the recognized entry
+     * at the same index. With {@code hibernate.jdbc.batch_size} set the inserts are sent as JDBC batches.
+     */
+    public List<Receipt> saveAll(List<Receipt> receipts, List<RecognizedReceipt> recognized) {
+        List<Receipt> savedReceipts = receiptRepository.saveAll(receipts);
+        reportCache.invalidateAfterCommit(savedReceipts.stream().map(Receipt::getDate).collect(Collectors.toSet()));
+
+        List<OcrData> ocrData = new ArrayList<>(savedReceipts.size());
+        for (int i = 0; i < savedReceipts.size(); i++) {
+            Receipt savedReceipt = savedReceipts.get(i);
+            OcrData data = toOcrData(savedReceipt, recognized.get(i).ocrResult(), recognized.get(i).processingTimeMs());
+            savedReceipt.setOcrData(data);
+            ocrData.add(data);
+        }
+        ocrDataRepository.saveAll(ocrData);
+
+        log.info("Saved {} receipts", savedReceipts.size());
+        return savedReceipts;
+    }
+
+    private OcrData toOcrData(Receipt receipt, OcrResult ocrResult, int processingTime) {
+        return OcrData.builder()
+                .receipt(receipt)
+                .rawText(ocrResult.getRawText())
+                .confidence(ocrResult.getConfidence())
+                .processedAt(LocalDateTime.now())
+                .processingTimeMs(processingTime)
+                .extractedFields(extractedFieldsWriter.toJson(ocrResult))
+                .build();
+    }
+
     public Receipt update(Receipt receipt, ReceiptUpdateRequest request) {
+        LocalDate previousDate = receipt.getDate();
         if (request.getAmount() != null) {
             receipt.setAmount(request.getAmount());
         }
@@ -97,18 +167,36 @@ public class ReceiptService {
             receipt.setDate(request.getDate());
         }
         if (request.getCategoryId() != null) {
-            Category category = categoryRepository.findById(request.getCategoryId())
+            Category category = categoryCache.findById(request.getCategoryId())
+                    .map(CachedCategory::toEntity)
                     .orElseThrow(() -> new CategoryNotFoundException(request.getCategoryId()));
             receipt.setCategory(category);
         }
 
         Receipt updatedReceipt = receiptRepository.save(receipt);
+        reportCache.invalidateAfterCommit(List.of(previousDate, updatedReceipt.getDate()));
         log.info("Receipt updated with ID: {}", updatedReceipt.getId());
         return updatedReceipt;
     }
 
+    /**
+     * Applies a new OCR result to the receipt: amount and merchant always, date and currency when
+     * they were recognized.
+     */
     public Receipt updateWithNewOcr(Receipt receipt, OcrResult newOcrResult) {
+        LocalDate previousDate = receipt.getDate();
+        receipt.setAmount(newOcrResult.getTotalAmount());
+        receipt.setMerchantName(newOcrResult.getMerchantName());
+        if (newOcrResult.getDate() != null) {
+            receipt.setDate(newOcrResult.getDate());
+        }
+        if (newOcrResult.getCurrency() != null) {
+            receipt.setCurrency(newOcrResult.getCurrency());
+        }
+        // Touched even if the new result leaves the receipt's own fields as they were, so its version moves on
+        receipt.setUpdatedAt(LocalDateTime.now());
         Receipt updatedReceipt = receiptRepository.save(receipt);
+        reportCache.invalidateAfterCommit(List.of(previousDate, updatedReceipt.getDate()));
 
         // Update OCR data
         OcrData existingOcrData = receipt.getOcrData();
@@ -116,7 +204,7 @@ public class ReceiptService {
             existingOcrData.setRawText(newOcrResult.getRawText());
             existingOcrData.setConfidence(newOcrResult.getConfidence());
             existingOcrData.setProcessedAt(LocalDateTime.now());
-            existingOcrData.setExtractedFields(convertToJson(newOcrResult));
+            existingOcrData.setExtractedFields(extractedFieldsWriter.toJson(newOcrResult));
             ocrDataRepository.save(existingOcrData);
         }
 
@@ -129,34 +217,32 @@ public class ReceiptService {
         return receiptRepository.findById(id);
     }
 
+    /**
+     * Reads a single receipt like a row of the receipt list, limited to the columns of {@code view}.
+     */
+    @Transactional(readOnly = true)
+    public Optional<ReceiptListItem> findItemById(UUID id, ReceiptView view) {
+        Specification<Receipt> spec = (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("id"), id);
+        return receiptRepository.findListItems(spec, Sort.unsorted(), 1, view).stream().findFirst();
+    }
+
     @Transactional(readOnly = true)
     public boolean existsById(UUID id) {
         return receiptRepository.existsById(id);
     }
 
     public void deleteById(UUID id) {
-        receiptRepository.deleteById(id);
+        receiptRepository.findById(id).ifPresent(receipt -> {
+            receiptRepository.delete(receipt);
+            reportCache.invalidateAfterCommit(List.of(receipt.getDate()));
+        });
         log.info("Receipt deleted with ID: {}", id);
     }
 
     @Transactional(readOnly = true)
     public Category findCategoryByName(String categoryName) {
-        return categoryRepository.findByName(categoryName)
+        return categoryCache.findByName(categoryName)
+                .map(CachedCategory::toEntity)
                 .orElseThrow(() -> new CategoryNotFoundException("Category not found: " + categoryName));
     }
-
-    private String convertToJson(OcrResult ocrResult) {
-        try {
-            Map<String, Object> data = Map.of(
-                    "detectedAmount", ocrResult.getTotalAmount() != null ? ocrResult.getTotalAmount() : 0,
-                    "detectedDate", ocrResult.getDate() != null ? ocrResult.getDate().toString() : "",
-                    "detectedMerchant", ocrResult.getMerchantName() != null ? ocrResult.getMerchantName() : "",
-                    "detectedItems", ocrResult.getDetectedItems() != null ? ocrResult.getDetectedItems() : List.of()
-            );
-            return objectMapper.writeValueAsString(data);
-        } catch (Exception e) {
-            log.warn("Failed to serialize OCR result to JSON", e);
-            return "{}";
-        }
-    }
-}
\ No newline at end of file
+}
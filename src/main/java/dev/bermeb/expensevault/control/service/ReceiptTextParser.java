@@ -0,0 +1,549 @@
+package dev.bermeb.expensevault.control.service;
+
+import dev.bermeb.expensevault.boundary.dto.response.OcrResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Extracts total, date, merchant, line items and currency from OCR text in a single walk over the text.
+ * <p>
+ * The receipt locale is picked by {@link ReceiptRuleSets#detect(String)} first. Receipts in any
+ * other locale than German are read by {@link LocaleReceiptScan} with the rules of that locale;
+ * texts that fit several locales with different number formats by the German scan.
+ * German receipts, still the vast majority, keep the original hand-tuned scan below, which produces the same results as the former regex based parser in {@link OcrService}:
+ * <ul>
+ *     <li>total: first {@code (?i)(summe|gesamt|total|sum|betrag|endsumme|zu\s+zahlen)\s*:?\s*(\d+[,.]\d{2})},
+ *     otherwise the largest {@code (\d{1,3}(?:[,.]\d{3})*[,.]\d{2})\s*€?\s*EUR?} amount</li>
+ *     <li>date: first {@code (\d{1,2})[./](\d{1,2})[./](\d{2,4})}, read as day/month/year</li>
+ *     <li>merchant: first trimmed line shorter than 50 chars matching {@code ^([A-ZÄÖÜ][A-ZÄÖÜa-zäöüß\s&\-.]{2,50})}</li>
+ *     <li>items: trimmed lines matching {@code .*[a-zA-ZäöüÄÖÜß].*\d+[,.]\d{2}.*}</li>
+ * </ul>
+ * The patterns are matched by hand with short look-aheads from the current position,
+ * so no regex engine, line array or intermediate strings are involved.
+ * <p>
+ * Text of multi-page receipts has its pages separated by {@link #PAGE_BREAK}. Every page is
+ * scanned on its own and the results are stitched: merchant and date come from the first page
+ * that has them, the total from the last page with an explicit total (earlier pages tend to
+ * show running subtotals), otherwise the largest amount of all pages. Items are concatenated.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReceiptTextParser {
+
+    private static final int MAX_MERCHANT_LINE_LENGTH = 50;
+    private static final int MAX_MERCHANT_TAIL = 50;
+    private static final int MAX_EXACT_DIGITS = 16;
+
+    /**
+     * Separates the pages in the raw text of multi-page receipts.
+     */
+    public static final char PAGE_BREAK = '\f';
+
+    private final ReceiptRuleSets ruleSets;
+
+    /**
+     * What a single page yields, no matter which scan read it.
+     */
+    interface PageScan {
+
+        BigDecimal total();
+
+        BigDecimal largestAmount();
+
+        LocalDate date();
+
+        String merchant();
+
+        List<String> items();
+    }
+
+    public OcrResult parse(String text, float confidence) {
+        ReceiptRuleSets.DetectedLocale locale = ruleSets.detect(text);
+
+        if (text.indexOf(PAGE_BREAK) < 0) {
+            PageScan scan = scan(text, locale.ruleSet());
+
+            return OcrResult.builder()
+                    .rawText(text)
+                    .confidence(confidence)
+                    .totalAmount(scan.total() != null ? scan.total() : scan.largestAmount())
+                    .date(locale.readDates() ? scan.date() : null)
+                    .merchantName(scan.merchant())
+                    .detectedItems(scan.items())
+                    .currency(locale.currency())
+                    .locale(locale.locale())
+                    .build();
+        }
+
+        return parsePages(text, confidence, locale);
+    }
+
+    private static PageScan scan(String text, ReceiptRuleSet rules) {
+        if (rules == ReceiptRuleSets.GERMAN) {
+            Scan scan = new Scan(text);
+            scan.run();
+            return scan;
+        }
+        LocaleReceiptScan scan = new LocaleReceiptScan(text, rules);
+        scan.run();
+        return scan;
+    }
+
+    private OcrResult parsePages(String text, float confidence, ReceiptRuleSets.DetectedLocale locale) {
+        BigDecimal lastExplicitTotal = null;
+        BigDecimal largestAmount = null;
+        LocalDate date = null;
+        String merchant = null;
+        List<String> items = new ArrayList<>();
+
+        int pageStart = 0;
+        while (pageStart <= text.length()) {
+            int pageEnd = text.indexOf(PAGE_BREAK, pageStart);
+            if (pageEnd < 0) {
+                pageEnd = text.length();
+            }
+
+            PageScan scan = scan(text.substring(pageStart, pageEnd), locale.ruleSet());
+
+            if (scan.total() != null) {
+                lastExplicitTotal = scan.total();
+            } else {
+                BigDecimal pageLargest = scan.largestAmount();
+                if (pageLargest != null && (largestAmount == null || pageLargest.compareTo(largestAmount) > 0)) {
+                    largestAmount = pageLargest;
+                }
+            }
+            if (date == null && locale.readDates()) {
+                date = scan.date();
+            }
+            if (merchant == null) {
+                merchant = scan.merchant();
+            }
+            items.addAll(scan.items());
+
+            pageStart = pageEnd + 1;
+        }
+
+        return OcrResult.builder()
+                .rawText(text)
+                .confidence(confidence)
+                .totalAmount(lastExplicitTotal != null ? lastExplicitTotal : largestAmount)
+                .date(date)
+                .merchantName(merchant)
+                .detectedItems(items)
+                .currency(locale.currency())
+                .locale(locale.locale())
+                .build();
+    }
+
+    /**
+     * Mutable state of one parse run, never shared between threads.
+     */
+    private static final class Scan implements PageScan {
+
+        private final String text;
+        private final int length;
+
+        private BigDecimal total;
+        private BigDecimal maxAmount = BigDecimal.ZERO;
+        private int amountSearchFrom;
+        private boolean dateMatched;
+        private LocalDate date;
+        private String merchant;
+        private final List<String> items = new ArrayList<>();
+
+        private Scan(String text) {
+            this.text = text;
+            this.length = text.length();
+        }
+
+        private void run() {
+            int lineStart = 0;
+
+            for (int i = 0; i <= length; i++) {
+                if (i == length || text.charAt(i) == '\n') {
+                    completeLine(lineStart, i);
+                    lineStart = i + 1;
+                    continue;
+                }
+
+                char c = text.charAt(i);
+
+                if (total == null) {
+                    if (isTotalKeywordStart(c)) {
+                        total = matchTotalAt(i);
+                    }
+                    if (total == null && i >= amountSearchFrom && isDigit(c)) {
+                        matchAmountAt(i);
+                    }
+                }
+
+                if (!dateMatched && isDigit(c)) {
+                    matchDateAt(i);
+                }
+            }
+        }
+
+        @Override
+        public BigDecimal total() {
+            return total;
+        }
+
+        @Override
+        public BigDecimal largestAmount() {
+            return maxAmount.compareTo(BigDecimal.ZERO) > 0 ? maxAmount : null;
+        }
+
+        @Override
+        public LocalDate date() {
+            return date;
+        }
+
+        @Override
+        public String merchant() {
+            return merchant;
+        }
+
+        @Override
+        public List<String> items() {
+            return items;
+        }
+
+        // --- Total ------------------------------------------------------------------------------
+
+        private static boolean isTotalKeywordStart(char c) {
+            return switch (c | 0x20) {
+                case 's', 'g', 't', 'b', 'e', 'z' -> true;
+                default -> false;
+            };
+        }
+
+        private BigDecimal matchTotalAt(int start) {
+            int keywordEnd = switch (text.charAt(start) | 0x20) {
+                case 's' -> regionMatchesAscii(start, "summe") ? start + 5
+                        : regionMatchesAscii(start, "sum") ? start + 3 : -1;
+                case 'g' -> regionMatchesAscii(start, "gesamt") ? start + 6 : -1;
+                case 't' -> regionMatchesAscii(start, "total") ? start + 5 : -1;
+                case 'b' -> regionMatchesAscii(start, "betrag") ? start + 6 : -1;
+                case 'e' -> regionMatchesAscii(start, "endsumme") ? start + 8 : -1;
+                case 'z' -> matchZuZahlen(start);
+                default -> -1;
+            };
+
+            BigDecimal amount = keywordEnd >= 0 ? matchTotalAmount(keywordEnd) : null;
+            if (amount == null && keywordEnd == start + 5 && (text.charAt(start) | 0x20) == 's') {
+                // "summe" did not work out, the regex would still try the shorter "sum" alternative
+                amount = matchTotalAmount(start + 3);
+            }
+            return amount;
+        }
+
+        private int matchZuZahlen(int start) {
+            if (!regionMatchesAscii(start, "zu")) {
+                return -1;
+            }
+            int pos = start + 2;
+            if (pos >= length || !isWhitespace(text.charAt(pos))) {
+                return -1;
+            }
+            pos = skipWhitespace(pos);
+            return regionMatchesAscii(pos, "zahlen") ? pos + 6 : -1;
+        }
+
+        private BigDecimal matchTotalAmount(int keywordEnd) {
+            int pos = skipWhitespace(keywordEnd);
+            if (pos < length && text.charAt(pos) == ':') {
+                pos = skipWhitespace(pos + 1);
+            }
+
+            int digitsEnd = digitRunEnd(pos);
+            if (digitsEnd == pos || !isDecimalSeparator(digitsEnd) || !isDigit(digitsEnd + 1) || !isDigit(digitsEnd + 2)) {
+                return null;
+            }
+            return decimal(pos, digitsEnd);
+        }
+
+        // --- Fallback amounts -------------------------------------------------------------------
+
+        private void matchAmountAt(int start) {
+            int maxLeading = Math.min(3, digitRunEnd(start) - start);
+
+            for (int leading = maxLeading; leading >= 1; leading--) {
+                int groupsStart = start + leading;
+
+                int groups = 0;
+                while (isDecimalSeparator(groupsStart + 4 * groups)
+                        && isDigit(groupsStart + 4 * groups + 1)
+                        && isDigit(groupsStart + 4 * groups + 2)
+                        && isDigit(groupsStart + 4 * groups + 3)) {
+                    groups++;
+                }
+
+                for (; groups >= 0; groups--) {
+                    int separator = groupsStart + 4 * groups;
+                    if (!isDecimalSeparator(separator) || !isDigit(separator + 1) || !isDigit(separator + 2)) {
+                        continue;
+                    }
+
+                    int end = matchEuroSuffix(separator + 3);
+                    if (end < 0) {
+                        continue;
+                    }
+
+                    amountSearchFrom = end;
+                    // Grouped amounts like 1.234,56 end up with two dots after the comma
+                    // replacement and never parsed before, so they are still skipped
+                    if (groups == 0) {
+                        BigDecimal amount = decimal(start, separator);
+                        if (amount.compareTo(maxAmount) > 0) {
+                            maxAmount = amount;
+                        }
+                    }
+                    return;
+                }
+            }
+        }
+
+        private int matchEuroSuffix(int pos) {
+            pos = skipWhitespace(pos);
+            if (pos < length && text.charAt(pos) == '€') {
+                pos++;
+            }
+            pos = skipWhitespace(pos);
+            if (pos + 1 >= length || text.charAt(pos) != 'E' || text.charAt(pos + 1) != 'U') {
+                return -1;
+            }
+            pos += 2;
+            return pos < length && text.charAt(pos) == 'R' ? pos + 1 : pos;
+        }
+
+        // --- Date -------------------------------------------------------------------------------
+
+        private void matchDateAt(int start) {
+            int dayEnd = digitRunEnd(start);
+            if (dayEnd - start > 2 || !isDateSeparator(dayEnd)) {
+                return;
+            }
+
+            int monthStart = dayEnd + 1;
+            int monthEnd = digitRunEnd(monthStart);
+            if (monthEnd == monthStart || monthEnd - monthStart > 2 || !isDateSeparator(monthEnd)) {
+                return;
+            }
+
+            int yearStart = monthEnd + 1;
+            int yearEnd = Math.min(digitRunEnd(yearStart), yearStart + 4);
+            if (yearEnd - yearStart < 2) {
+                return;
+            }
+
+            // Only the first match counts, even if it turns out not to be a valid date
+            dateMatched = true;
+
+            int day = parseDigits(start, dayEnd);
+            int month = parseDigits(monthStart, monthEnd);
+            int year = parseDigits(yearStart, yearEnd);
+
+            switch (yearEnd - yearStart) {
+                case 2 -> year = year < 50 ? 2000 + year : 1900 + year;
+                case 3 -> {
+                    log.warn("Failed to parse date: {}/{}/{}", day, month, year);
+                    return;
+                }
+                default -> {
+                }
+            }
+
+            try {
+                date = LocalDate.of(year, month, day);
+            } catch (DateTimeException e) {
+                log.warn("Failed to parse date: {}/{}/{}", day, month, year);
+            }
+        }
+
+        // --- Lines ------------------------------------------------------------------------------
+
+        private void completeLine(int start, int end) {
+            while (start < end && text.charAt(start) <= ' ') {
+                start++;
+            }
+            while (end > start && text.charAt(end - 1) <= ' ') {
+                end--;
+            }
+            if (start == end) {
+                return;
+            }
+
+            if (merchant == null) {
+                matchMerchant(start, end);
+            }
+            if (isItemLine(start, end)) {
+                items.add(text.substring(start, end));
+            }
+        }
+
+        private void matchMerchant(int start, int end) {
+            if (end - start >= MAX_MERCHANT_LINE_LENGTH) {
+                return;
+            }
+
+            // '^' in MULTILINE mode also matches after line terminators inside the line
+            for (int pos = start; pos < end; pos++) {
+                if (pos > start && !isLineTerminator(text.charAt(pos - 1))) {
+                    continue;
+                }
+                if (!isMerchantInitial(text.charAt(pos))) {
+                    continue;
+                }
+
+                int tailEnd = pos + 1;
+                while (tailEnd < end && tailEnd - pos - 1 < MAX_MERCHANT_TAIL && isMerchantChar(text.charAt(tailEnd))) {
+                    tailEnd++;
+                }
+                if (tailEnd - pos - 1 < 2) {
+                    continue;
+                }
+
+                while (tailEnd > pos && text.charAt(tailEnd - 1) <= ' ') {
+                    tailEnd--;
+                }
+                if (tailEnd - pos > 2) {
+                    merchant = text.substring(pos, tailEnd);
+                }
+                return;
+            }
+        }
+
+        private boolean isItemLine(int start, int end) {
+            int firstLetter = -1;
+            for (int pos = start; pos < end; pos++) {
+                char c = text.charAt(pos);
+                if (isLineTerminator(c)) {
+                    return false;
+                }
+                if (firstLetter < 0 && isItemLetter(c)) {
+                    firstLetter = pos;
+                }
+            }
+            if (firstLetter < 0) {
+                return false;
+            }
+
+            for (int separator = firstLetter + 2; separator + 2 < end; separator++) {
+                if (isDecimalSeparator(separator) && isDigit(separator - 1)
+                        && isDigit(separator + 1) && isDigit(separator + 2)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // --- Character helpers ------------------------------------------------------------------
+
+        private boolean regionMatchesAscii(int start, String lowerCaseKeyword) {
+            if (start + lowerCaseKeyword.length() > length) {
+                return false;
+            }
+            for (int i = 0; i < lowerCaseKeyword.length(); i++) {
+                char c = text.charAt(start + i);
+                // (?i) without UNICODE_CASE only folds ASCII letters
+                if (c >= 'A' && c <= 'Z') {
+                    c = (char) (c | 0x20);
+                }
+                if (c != lowerCaseKeyword.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int skipWhitespace(int pos) {
+            while (pos < length && isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+            return pos;
+        }
+
+        private int digitRunEnd(int pos) {
+            while (pos < length && isDigit(text.charAt(pos))) {
+                pos++;
+            }
+            return pos;
+        }
+
+        private int parseDigits(int start, int end) {
+            int value = 0;
+            for (int pos = start; pos < end; pos++) {
+                value = value * 10 + (text.charAt(pos) - '0');
+            }
+            return value;
+        }
+
+        /**
+         * Amount made of the integer digits in {@code [start, separator)} and the two digits after the separator.
+         */
+        private BigDecimal decimal(int start, int separator) {
+            int cents = (text.charAt(separator + 1) - '0') * 10 + (text.charAt(separator + 2) - '0');
+            if (separator - start > MAX_EXACT_DIGITS) {
+                return new BigDecimal(text.substring(start, separator) + "." + text.charAt(separator + 1) + text.charAt(separator + 2));
+            }
+
+            long units = 0;
+            for (int pos = start; pos < separator; pos++) {
+                units = units * 10 + (text.charAt(pos) - '0');
+            }
+            return BigDecimal.valueOf(units * 100 + cents, 2);
+        }
+
+        private boolean isDigit(int pos) {
+            return pos < length && isDigit(text.charAt(pos));
+        }
+
+        private boolean isDecimalSeparator(int pos) {
+            return pos < length && (text.charAt(pos) == ',' || text.charAt(pos) == '.');
+        }
+
+        private boolean isDateSeparator(int pos) {
+            return pos < length && (text.charAt(pos) == '.' || text.charAt(pos) == '/');
+        }
+
+        private static boolean isDigit(char c) {
+            return c >= '0' && c <= '9';
+        }
+
+        /**
+         * {@code \s} without UNICODE_CHARACTER_CLASS.
+         */
+        private static boolean isWhitespace(char c) {
+            return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+        }
+
+        /**
+         * Line terminators as seen by {@code .} and MULTILINE {@code ^}, apart from '\n' which ends the line.
+         */
+        private static boolean isLineTerminator(char c) {
+            return c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+        }
+
+        private static boolean isMerchantInitial(char c) {
+            return (c >= 'A' && c <= 'Z') || c == 'Ä' || c == 'Ö' || c == 'Ü';
+        }
+
+        private static boolean isMerchantChar(char c) {
+            return isItemLetter(c) || isWhitespace(c) || c == '&' || c == '-' || c == '.';
+        }
+
+        private static boolean isItemLetter(char c) {
+            return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')
+                    || c == 'ä' || c == 'ö' || c == 'ü' || c == 'Ä' || c == 'Ö' || c == 'Ü' || c == 'ß';
+        }
+    }
+}
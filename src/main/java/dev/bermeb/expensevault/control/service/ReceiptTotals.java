@@ -0,0 +1,11 @@
+package dev.bermeb.expensevault.control.service;
+
+import java.math.BigDecimal;
+
+/**
+ * Receipt count and amount of a group of receipts.
+ *
+ * @param key the group, e.g. a merchant name; {@code null} for the overall totals or a group without a value
+ */
+public record ReceiptTotals(String key, long receiptCount, BigDecimal totalAmount) {
+}
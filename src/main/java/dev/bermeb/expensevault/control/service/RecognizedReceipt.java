@@ -0,0 +1,10 @@
+package dev.bermeb.expensevault.control.service;
+
+import dev.bermeb.expensevault.boundary.dto.response.OcrResult;
+
+/**
+ * A parsed OCR result waiting to be stored, together with the time OCR took for it and the
+ * stored receipt file ({@code null} if there is none).
+ */
+public record RecognizedReceipt(OcrResult ocrResult, int processingTimeMs, StoredImage image) {
+}
@@ -0,0 +1,7 @@
+package dev.bermeb.expensevault.control.service;
+
+/**
+ * Raw OCR output for one image, before any receipt parsing.
+ */
+public record RecognizedText(String text, float confidence) {
+}
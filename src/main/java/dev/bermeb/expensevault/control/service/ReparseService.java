@@ -0,0 +1,453 @@
+package dev.bermeb.expensevault.control.service;
+
+import dev.bermeb.expensevault.boundary.dto.response.OcrResult;
+import dev.bermeb.expensevault.config.ReparseProperties;
+import dev.bermeb.expensevault.control.exception.ReparseRunConflictException;
+import dev.bermeb.expensevault.control.exception.ReparseRunNotFoundException;
+import dev.bermeb.expensevault.entity.model.ReparseRun;
+import dev.bermeb.expensevault.entity.model.ReparseRunStatus;
+import dev.bermeb.expensevault.entity.repository.ReparseRunRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Re-runs {@link ReceiptTextParser} over the OCR text already stored in {@code ocr_data}, so better
+ * parsing rules reach old receipts without new uploads or OCR calls.
+ * <p>
+ * A run walks {@code ocr_data} in primary key order with keyset pagination. Each chunk is parsed
+ * in parallel and written back with JDBC batch updates, in the same transaction that moves the
+ * run's checkpoint. A failed or interrupted run therefore resumes right after the last written
+ * chunk. Receipt fields are only overwritten while they still hold what the previous parse
+ * detected, so manual corrections survive a re-parse.
+ */
+@Service
+@Slf4j
+public class ReparseService {
+
+    private static final UUID KEYSET_START = new UUID(0, 0);
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final BigDecimal MAX_AMOUNT = new BigDecimal("99999999.99");
+
+    private static final String SELECT_CHUNK = "SELECT o.id, o.receipt_id, o.raw_text, o.confidence, " +
+            "o.extracted_fields IS NOT NULL AS has_fields, " +
+            "o.extracted_fields ->> 'detectedAmount' AS detected_amount, " +
+            "o.extracted_fields ->> 'detectedDate' AS detected_date, " +
+            "o.extracted_fields ->> 'detectedMerchant' AS detected_merchant, " +
+            "r.amount, r.date, r.merchant_name, r.currency " +
+            "FROM ocr_data o JOIN receipts r ON r.id = o.receipt_id " +
+            "WHERE o.id > ? ORDER BY o.id LIMIT ?";
+
+    // Unchanged JSON is not written, which spares most rows a new tuple version. The receipt of a
+    // changed row gets a new version, its responses carry the extracted fields.
+    private static final String UPDATE_OCR_DATA = "WITH changed AS (" +
+            "UPDATE ocr_data SET extracted_fields = CAST(? AS jsonb) " +
+            "WHERE id = ? AND extracted_fields IS DISTINCT FROM CAST(? AS jsonb) RETURNING receipt_id) " +
+            "UPDATE receipts SET version = version + 1, updated_at = ? WHERE id IN (SELECT receipt_id FROM changed)";
+
+    // The old values guard against a user editing the receipt between our read and write
+    private static final String UPDATE_RECEIPT = "UPDATE receipts " +
+            "SET amount = ?, date = ?, merchant_name = ?, currency = ?, updated_at = ?, version = version + 1 " +
+            "WHERE id = ? AND amount = ? AND date = ? AND merchant_name IS NOT DISTINCT FROM ?";
+
+    private static final String CHECKPOINT = "UPDATE reparse_runs SET last_ocr_data_id = ?, " +
+            "processed_rows = processed_rows + ?, changed_rows = changed_rows + ?, " +
+            "changed_receipts = changed_receipts + ?, failed_rows = failed_rows + ?, updated_at = ? " +
+            "WHERE id = ? AND status = 'RUNNING' AND locked_by = ?";
+
+    private static final String FINISH = "UPDATE reparse_runs SET status = ?, error_message = ?, completed_at = ?, updated_at = ? " +
+            "WHERE id = ? AND status = 'RUNNING' AND locked_by = ?";
+
+    private static final String CLAIM = "UPDATE reparse_runs SET status = 'RUNNING', locked_by = ?, error_message = NULL, " +
+            "completed_at = NULL, updated_at = ? " +
+            "WHERE id = ? AND (status IN ('FAILED', 'INTERRUPTED') OR (status = 'RUNNING' AND updated_at < ?))";
+
+    private static final String INTERRUPT_STALE = "UPDATE reparse_runs SET status = 'INTERRUPTED', updated_at = ? " +
+            "WHERE status = 'RUNNING' AND updated_at < ?";
+
+    private static final RowMapper<Row> ROW_MAPPER = (rs, rowNum) -> new Row(
+            rs.getObject("id", UUID.class),
+            rs.getObject("receipt_id", UUID.class),
+            rs.getString("raw_text"),
+            rs.getObject("confidence") != null ? rs.getFloat("confidence") : null,
+            rs.getBoolean("has_fields"),
+            rs.getString("detected_amount"),
+            rs.getString("detected_date"),
+            rs.getString("detected_merchant"),
+            rs.getBigDecimal("amount"),
+            rs.getObject("date", LocalDate.class),
+            rs.getString("merchant_name"),
+            rs.getString("currency"));
+
+    private final ReparseProperties properties;
+    private final ReparseRunRepository reparseRunRepository;
+    private final ReceiptTextParser receiptTextParser;
+    private final ExtractedFieldsWriter extractedFieldsWriter;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor reparseExecutor;
+    private final ThreadPoolTaskExecutor reparseParseExecutor;
+    private final ReportCache reportCache;
+
+    private final Timer readTimer;
+    private final Timer parseTimer;
+    private final Timer writeTimer;
+    private final Counter changedRowsCounter;
+    private final Counter unchangedRowsCounter;
+    private final Counter failedRowsCounter;
+    private final Counter changedReceiptsCounter;
+
+    private volatile boolean stopping;
+    private volatile Future<?> current;
+
+    public ReparseService(ReparseProperties properties,
+                          ReparseRunRepository reparseRunRepository,
+                          ReceiptTextParser receiptTextParser,
+                          ExtractedFieldsWriter extractedFieldsWriter,
+                          JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          ThreadPoolTaskExecutor reparseExecutor,
+                          ThreadPoolTaskExecutor reparseParseExecutor,
+                          ReportCache reportCache,
+                          MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.reparseRunRepository = reparseRunRepository;
+        this.receiptTextParser = receiptTextParser;
+        this.extractedFieldsWriter = extractedFieldsWriter;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.reparseExecutor = reparseExecutor;
+        this.reparseParseExecutor = reparseParseExecutor;
+        this.reportCache = reportCache;
+
+        this.readTimer = chunkTimer(meterRegistry, "read");
+        this.parseTimer = chunkTimer(meterRegistry, "parse");
+        this.writeTimer = chunkTimer(meterRegistry, "write");
+        this.changedRowsCounter = rowCounter(meterRegistry, "changed");
+        this.unchangedRowsCounter = rowCounter(meterRegistry, "unchanged");
+        this.failedRowsCounter = rowCounter(meterRegistry, "failed");
+        this.changedReceiptsCounter = Counter.builder("expensevault.reparse.receipts.changed")
+                .description("Receipts whose amount, date, merchant or currency changed by a re-parse")
+                .register(meterRegistry);
+    }
+
+    public Optional<ReparseRun> findById(UUID runId) {
+        return reparseRunRepository.findById(runId);
+    }
+
+    public ReparseRun start() {
+        LocalDateTime now = LocalDateTime.now();
+        int interrupted = jdbcTemplate.update(INTERRUPT_STALE, now, now.minus(properties.getStaleAfter()));
+        if (interrupted > 0) {
+            log.warn("Marked a stale re-parse run as interrupted");
+        }
+
+        Long totalRows = jdbcTemplate.queryForObject("SELECT count(*) FROM ocr_data", Long.class);
+
+        ReparseRun run;
+        try {
+            run = reparseRunRepository.saveAndFlush(ReparseRun.builder()
+                    .status(ReparseRunStatus.RUNNING)
+                    .totalRows(totalRows)
+                    .lockedBy(properties.getNodeId())
+                    .startedAt(now)
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            throw new ReparseRunConflictException("A re-parse run is already in progress");
+        }
+
+        log.info("Re-parse run {} started over {} OCR rows", run.getId(), totalRows);
+        submit(run.getId());
+        return run;
+    }
+
+    public ReparseRun resume(UUID runId) {
+        ReparseRun run = reparseRunRepository.findById(runId)
+                .orElseThrow(() -> new ReparseRunNotFoundException(runId));
+        if (run.getStatus() == ReparseRunStatus.COMPLETED) {
+            throw new ReparseRunConflictException("Re-parse run " + runId + " is already completed");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int claimed;
+        try {
+            claimed = jdbcTemplate.update(CLAIM, properties.getNodeId(), now, runId, now.minus(properties.getStaleAfter()));
+        } catch (DataIntegrityViolationException e) {
+            throw new ReparseRunConflictException("Another re-parse run is already in progress");
+        }
+        if (claimed == 0) {
+            throw new ReparseRunConflictException("Re-parse run " + runId + " is still running");
+        }
+
+        log.info("Re-parse run {} resumed after OCR row {}", runId, run.getLastOcrDataId());
+        submit(runId);
+        return reparseRunRepository.findById(runId).orElseThrow(() -> new ReparseRunNotFoundException(runId));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stopping = true;
+        Future<?> running = current;
+        if (running != null) {
+            try {
+                // Let the current chunk finish, so the run is left INTERRUPTED with an exact checkpoint
+                running.get(30, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                log.warn("Re-parse run did not stop in time: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void submit(UUID runId) {
+        try {
+            current = reparseExecutor.submit(() -> execute(runId));
+        } catch (TaskRejectedException e) {
+            finish(runId, ReparseRunStatus.INTERRUPTED, "This node is still busy with another run");
+            throw new ReparseRunConflictException("This node is still finishing another re-parse run");
+        }
+    }
+
+    private void execute(UUID runId) {
+        long startTime = System.nanoTime();
+        try {
+            UUID cursor = reparseRunRepository.findById(runId)
+                    .map(ReparseRun::getLastOcrDataId)
+                    .orElse(null);
+            if (cursor == null) {
+                cursor = KEYSET_START;
+            }
+
+            long rows = 0;
+            while (true) {
+                if (stopping) {
+                    finish(runId, ReparseRunStatus.INTERRUPTED, "Node shut down");
+                    return;
+                }
+
+                UUID from = cursor;
+                List<Row> chunk = readTimer.record(() -> jdbcTemplate.query(SELECT_CHUNK, ROW_MAPPER, from, properties.getChunkSize()));
+                if (chunk == null || chunk.isEmpty()) {
+                    break;
+                }
+
+                List<Reparsed> reparsed = parseTimer.record(() -> parse(chunk));
+                cursor = chunk.get(chunk.size() - 1).ocrDataId();
+
+                UUID checkpoint = cursor;
+                Boolean written = writeTimer.record(() -> write(runId, reparsed, checkpoint));
+                if (!Boolean.TRUE.equals(written)) {
+                    log.warn("Re-parse run {} is no longer owned by this node, stopping", runId);
+                    return;
+                }
+                rows += chunk.size();
+            }
+
+            long elapsedMs = Math.max(1, (System.nanoTime() - startTime) / 1_000_000);
+            log.info("Re-parse run {} completed: {} rows in {}ms ({} rows/s)", runId, rows, elapsedMs, rows * 1000 / elapsedMs);
+            finish(runId, ReparseRunStatus.COMPLETED, null);
+        } catch (Exception e) {
+            log.error("Re-parse run {} failed", runId, e);
+            finish(runId, ReparseRunStatus.FAILED, e.getMessage());
+        }
+    }
+
+    /**
+     * Splits the chunk into one slice per parse thread, keeping the row order.
+     */
+    private List<Reparsed> parse(List<Row> chunk) {
+        int slices = Math.max(1, Math.min(properties.getParallelism(), chunk.size()));
+        int sliceSize = (chunk.size() + slices - 1) / slices;
+
+        List<CompletableFuture<List<Reparsed>>> futures = new ArrayList<>(slices);
+        for (int start = 0; start < chunk.size(); start += sliceSize) {
+            List<Row> slice = chunk.subList(start, Math.min(chunk.size(), start + sliceSize));
+            futures.add(CompletableFuture.supplyAsync(() -> slice.stream().map(this::reparse).toList(), reparseParseExecutor));
+        }
+
+        List<Reparsed> reparsed = new ArrayList<>(chunk.size());
+        for (CompletableFuture<List<Reparsed>> future : futures) {
+            reparsed.addAll(future.join());
+        }
+        return reparsed;
+    }
+
+    private Reparsed reparse(Row row) {
+        try {
+            OcrResult result = receiptTextParser.parse(row.rawText(), row.confidence() != null ? row.confidence() : 0f);
+            return new Reparsed(row, extractedFieldsWriter.toJson(result), receiptChange(row, result));
+        } catch (RuntimeException e) {
+            log.warn("Re-parsing OCR row {} failed: {}", row.ocrDataId(), e.getMessage());
+            return new Reparsed(row, null, null);
+        }
+    }
+
+    /**
+     * @return the new receipt values, or null if nothing changes
+     */
+    private static ReceiptChange receiptChange(Row row, OcrResult result) {
+        // Without the previous parse there is no telling which values a user typed in
+        boolean known = row.hasFields();
+
+        BigDecimal amount = row.amount();
+        if (known && result.getTotalAmount() != null && result.getTotalAmount().compareTo(MAX_AMOUNT) <= 0
+                && sameAmount(row.detectedAmount(), row.amount())) {
+            amount = result.getTotalAmount();
+        }
+
+        LocalDate date = row.date();
+        if (known && result.getDate() != null
+                && (isEmpty(row.detectedDate()) || row.detectedDate().equals(String.valueOf(row.date())))) {
+            // An empty detected date means the receipt got the upload day as a default
+            date = result.getDate();
+        }
+
+        String merchantName = row.merchantName();
+        if (known && result.getMerchantName() != null
+                && Objects.equals(isEmpty(row.detectedMerchant()) ? null : row.detectedMerchant(), row.merchantName())) {
+            merchantName = result.getMerchantName();
+        }
+
+        // Not editable through the API, so always taken from the parser
+        String currency = result.getCurrency() != null ? result.getCurrency() : row.currency();
+
+        if (amount.compareTo(row.amount()) == 0 && date.equals(row.date())
+                && Objects.equals(merchantName, row.merchantName()) && Objects.equals(currency, row.currency())) {
+            return null;
+        }
+        return new ReceiptChange(amount, date, merchantName, currency);
+    }
+
+    /**
+     * @return false if the run is no longer ours, e.g. after another node resumed it as stale
+     */
+    private Boolean write(UUID runId, List<Reparsed> reparsed, UUID checkpoint) {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Object[]> ocrDataArgs = new ArrayList<>(reparsed.size());
+            List<Object[]> receiptArgs = new ArrayList<>();
+            Set<LocalDate> changedDates = new HashSet<>();
+            int failed = 0;
+
+            for (Reparsed entry : reparsed) {
+                Row row = entry.row();
+                if (entry.extractedFields() == null) {
+                    failed++;
+                    continue;
+                }
+                ocrDataArgs.add(new Object[]{entry.extractedFields(), row.ocrDataId(), entry.extractedFields(), now});
+
+                ReceiptChange change = entry.receiptChange();
+                if (change != null) {
+                    receiptArgs.add(new Object[]{change.amount(), change.date(), change.merchantName(), change.currency(), now,
+                            row.receiptId(), row.amount(), row.date(), row.merchantName()});
+                    changedDates.add(row.date());
+                    changedDates.add(change.date());
+                }
+            }
+
+            int changedRows = ocrDataArgs.isEmpty() ? 0 : countUpdated(jdbcTemplate.batchUpdate(UPDATE_OCR_DATA, ocrDataArgs));
+            int changedReceipts = receiptArgs.isEmpty() ? 0 : countUpdated(jdbcTemplate.batchUpdate(UPDATE_RECEIPT, receiptArgs));
+
+            int moved = jdbcTemplate.update(CHECKPOINT, checkpoint, reparsed.size(), changedRows, changedReceipts, failed,
+                    now, runId, properties.getNodeId());
+            if (moved == 0) {
+                status.setRollbackOnly();
+                return false;
+            }
+
+            reportCache.invalidateAfterCommit(changedDates);
+            changedRowsCounter.increment(changedRows);
+            unchangedRowsCounter.increment(reparsed.size() - failed - changedRows);
+            failedRowsCounter.increment(failed);
+            changedReceiptsCounter.increment(changedReceipts);
+            return true;
+        });
+    }
+
+    private void finish(UUID runId, ReparseRunStatus status, String errorMessage) {
+        if (errorMessage != null && errorMessage.length() > MAX_ERROR_LENGTH) {
+            errorMessage = errorMessage.substring(0, MAX_ERROR_LENGTH);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            jdbcTemplate.update(FINISH, status.name(), errorMessage, status == ReparseRunStatus.COMPLETED ? now : null,
+                    now, runId, properties.getNodeId());
+        } catch (RuntimeException e) {
+            log.error("Could not mark re-parse run {} as {}", runId, status, e);
+        }
+    }
+
+    private static int countUpdated(int[] counts) {
+        int updated = 0;
+        for (int count : counts) {
+            if (count > 0) {
+                updated += count;
+            }
+        }
+        return updated;
+    }
+
+    private static boolean sameAmount(String detectedAmount, BigDecimal amount) {
+        try {
+            return detectedAmount != null && new BigDecimal(detectedAmount).compareTo(amount) == 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static boolean isEmpty(String value) {
+        return value == null || value.isEmpty();
+    }
+
+    private static Timer chunkTimer(MeterRegistry meterRegistry, String phase) {
+        return Timer.builder("expensevault.reparse.chunk")
+                .description("Time per re-parse chunk and phase")
+                .tag("phase", phase)
+                .register(meterRegistry);
+    }
+
+    private static Counter rowCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("expensevault.reparse.rows")
+                .description("OCR rows re-parsed")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record Row(UUID ocrDataId, UUID receiptId, String rawText, Float confidence, boolean hasFields,
+                       String detectedAmount, String detectedDate, String detectedMerchant,
+                       BigDecimal amount, LocalDate date, String merchantName, String currency) {
+    }
+
+    private record ReceiptChange(BigDecimal amount, LocalDate date, String merchantName, String currency) {
+    }
+
+    /**
+     * @param extractedFields null if the row could not be parsed
+     */
+    private record Reparsed(Row row, String extractedFields, ReceiptChange receiptChange) {
+    }
+}
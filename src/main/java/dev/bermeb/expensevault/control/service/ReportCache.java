@@ -0,0 +1,208 @@
+package dev.bermeb.expensevault.control.service;
+
+import dev.bermeb.expensevault.config.NotificationProperties;
+import dev.bermeb.expensevault.config.ReportCacheProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Report results of this node by report, period, category and currency, a bounded LRU with a TTL.
+ * <p>
+ * A result is dropped when a receipt dated within its period changes: the triggers behind the daily
+ * rollups name every changed day on the {@code receipt_dates_changed} channel, see
+ * {@link DatabaseChangeListener}. Results for closed periods therefore stay until they are evicted,
+ * while the current month is read again after each change in it. Writes made through this node also
+ * drop their dates right after their commit, so the next report on this node already sees them.
+ * <p>
+ * Without the listener changes from other nodes would only show up once the TTL runs out, so the
+ * cache is then off.
+ */
+@Component
+@Slf4j
+public class ReportCache {
+
+    /**
+     * @param category category name, {@code null} for all categories
+     * @param currency currency code, {@code null} for all currencies
+     */
+    public record Key(String report, LocalDate startDate, LocalDate endDate, String category, String currency) {
+
+        boolean covers(LocalDate date) {
+            return !date.isBefore(startDate) && !date.isAfter(endDate);
+        }
+    }
+
+    private record Entry(CachedReport<?> report, long expiresAt) {
+    }
+
+    private final ReportCacheProperties properties;
+    private final boolean enabled;
+    private final Map<Key, Entry> entries;
+
+    // Moves on with every invalidation, so a load that raced with a change is not installed
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter invalidations;
+
+    public ReportCache(ReportCacheProperties properties, NotificationProperties notificationProperties,
+                       MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.enabled = properties.isEnabled() && notificationProperties.isListen();
+        if (properties.isEnabled() && !enabled) {
+            log.info("Report cache is off, this node does not listen for changes made by other nodes");
+        }
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > properties.getMaxEntries();
+            }
+        };
+
+        this.hits = cacheCounter(meterRegistry, "hit");
+        this.misses = cacheCounter(meterRegistry, "miss");
+        this.invalidations = Counter.builder("expensevault.reports.cache.invalidations")
+                .description("Report results dropped because receipts in their period changed")
+                .register(meterRegistry);
+        Gauge.builder("expensevault.reports.cache.size", this, ReportCache::size)
+                .description("Report results cached on this node")
+                .register(meterRegistry);
+        Gauge.builder("expensevault.reports.cache.hit.ratio", this, ReportCache::hitRatio)
+                .description("Share of report requests answered from the cache since start")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached result for {@code key}, or loads, caches and returns it.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CachedReport<T> get(Key key, Supplier<CachedReport<T>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        long now = System.nanoTime();
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt() - now > 0) {
+                hits.increment();
+                return (CachedReport<T>) entry.report();
+            }
+            if (entry != null) {
+                entries.remove(key);
+            }
+        }
+
+        misses.increment();
+        long loadedGeneration = generation.get();
+        CachedReport<T> report = loader.get();
+        synchronized (entries) {
+            if (generation.get() == loadedGeneration) {
+                entries.put(key, new Entry(report, now + properties.getTtl().toNanos()));
+            }
+        }
+        return report;
+    }
+
+    /**
+     * Drops the results whose period contains one of the dates.
+     */
+    public void invalidate(Collection<LocalDate> dates) {
+        remove(key -> dates.stream().anyMatch(key::covers));
+    }
+
+    /**
+     * Drops the results whose period contains one of the dates once the current transaction commits,
+     * for receipts written through this node.
+     */
+    public void invalidateAfterCommit(Collection<LocalDate> dates) {
+        if (enabled && !dates.isEmpty()) {
+            afterCommit(() -> invalidate(dates));
+        }
+    }
+
+    /**
+     * Drops the results filtered by category, whose names may now point elsewhere.
+     */
+    public void invalidateCategories() {
+        remove(key -> key.category() != null);
+    }
+
+    /**
+     * Like {@link #invalidateCategories()}, once the current transaction commits.
+     */
+    public void invalidateCategoriesAfterCommit() {
+        if (enabled) {
+            afterCommit(this::invalidateCategories);
+        }
+    }
+
+    public void invalidateAll() {
+        remove(key -> true);
+    }
+
+    // Earlier another thread could load and cache the old state again
+    private static void afterCommit(Runnable invalidation) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidation.run();
+                }
+            });
+        } else {
+            invalidation.run();
+        }
+    }
+
+    private void remove(Predicate<Key> affected) {
+        int removed = 0;
+        synchronized (entries) {
+            generation.incrementAndGet();
+            Iterator<Key> keys = entries.keySet().iterator();
+            while (keys.hasNext()) {
+                if (affected.test(keys.next())) {
+                    keys.remove();
+                    removed++;
+                }
+            }
+        }
+        if (removed > 0) {
+            invalidations.increment(removed);
+            log.debug("Dropped {} cached reports", removed);
+        }
+    }
+
+    private int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private double hitRatio() {
+        double requests = hits.count() + misses.count();
+        return requests > 0 ? hits.count() / requests : 0.0;
+    }
+
+    private static Counter cacheCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("expensevault.reports.cache.requests")
+                .description("Report cache lookups")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
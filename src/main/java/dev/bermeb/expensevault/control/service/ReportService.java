@@ -3,10 +3,14 @@ package dev.bermeb.expensevault.control.service;
 import dev.bermeb.expensevault.boundary.dto.response.ExpenseSummaryResponse;
 import dev.bermeb.expensevault.boundary.dto.response.MerchantSummary;
 import dev.bermeb.expensevault.boundary.dto.response.PeriodInfo;
-import dev.bermeb.expensevault.entity.repository.ReceiptRepository;
+import dev.bermeb.expensevault.boundary.dto.response.TimeSeriesResponse;
+import dev.bermeb.expensevault.config.ReportProperties;
+import dev.bermeb.expensevault.control.exception.CategoryNotFoundException;
+import dev.bermeb.expensevault.control.exception.InvalidQueryParameterException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
@@ -14,6 +18,8 @@ import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,18 +28,42 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ReportService {
 
-    private final ReceiptRepository receiptRepository;
+    private static final String DEFAULT_CURRENCY = "EUR";
+
+    private final ReceiptRollupService receiptRollupService;
+    private final ResourceVersionService resourceVersionService;
+    private final CategoryCache categoryCache;
+    private final ReportCache reportCache;
+    private final ReportProperties reportProperties;
+
+    /**
+     * The expense summary with the version it was read at, from the {@link ReportCache} when this
+     * node generated it since the last change in the period. A hit does not touch the database, so
+     * no transaction is started for it.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public CachedReport<ExpenseSummaryResponse> getSummary(LocalDate startDate, LocalDate endDate,
+                                                          String categoryName, String currency) {
+        String category = categoryName != null && !categoryName.isEmpty() ? categoryName : null;
+        String currencyCode = currency != null && !currency.isEmpty() ? currency.toUpperCase(Locale.ROOT) : null;
+
+        ReportCache.Key key = new ReportCache.Key("summary", startDate, endDate, category, currencyCode);
+        // The version is read first, a change in between then only costs a client a needless reload
+        return reportCache.get(key, () -> new CachedReport<>(
+                resourceVersionService.report("summary", startDate, endDate),
+                generateSummary(startDate, endDate, category, currencyCode)));
+    }
 
-    // TODO: Add category filtering and other report types?
     // TODO: Add check for startDate before endDate
-    public ExpenseSummaryResponse generateSummary(LocalDate startDate, LocalDate endDate) {
+    public ExpenseSummaryResponse generateSummary(LocalDate startDate, LocalDate endDate, String categoryName,
+                                                  String currency) {
         log.info("Generating expense summary for period: {} to {}", startDate, endDate);
 
-        BigDecimal totalAmount = receiptRepository.sumAmountByDateRange(startDate, endDate);
-        if (totalAmount == null) totalAmount = BigDecimal.ZERO;
+        UUID categoryId = resolveCategory(categoryName);
 
-        Long receiptCount = receiptRepository.countReceiptsFromDate(startDate);
-        if (receiptCount == null) receiptCount = 0L;
+        ReceiptRollupSummary summary = receiptRollupService.summarize(startDate, endDate, categoryId, currency,
+                reportProperties.getTopMerchants());
+        BigDecimal totalAmount = summary.totals().totalAmount();
 
         long daysBetween = ChronoUnit.DAYS.between(startDate, endDate) + 1;
         BigDecimal averagePerDay = daysBetween > 0 ?
@@ -41,12 +71,11 @@ public class ReportService {
                 BigDecimal.ZERO;
 
         // Get top merchants
-        List<Object[]> merchantData = receiptRepository.findTopMerchantsByDateRange(startDate, endDate);
-        List<MerchantSummary> topMerchants = merchantData.stream()
-                .map(data -> MerchantSummary.builder()
-                        .merchantName((String) data[0])
-                        .amount((BigDecimal) data[1])
-                        .receiptCount(((Number) data[2]).intValue())
+        List<MerchantSummary> topMerchants = summary.topMerchants().stream()
+                .map(merchant -> MerchantSummary.builder()
+                        .merchantName(merchant.key())
+                        .amount(merchant.totalAmount())
+                        .receiptCount((int) merchant.receiptCount())
                         .build())
                 .collect(Collectors.toList());
 
@@ -58,11 +87,38 @@ public class ReportService {
 
         return ExpenseSummaryResponse.builder()
                 .totalAmount(totalAmount)
-                .currency("EUR") // TODO: Make dynamic based on user settings
-                .receiptCount(receiptCount.intValue())
+                .currency(currency != null ? currency : DEFAULT_CURRENCY) // TODO: Make dynamic based on user settings
+                .receiptCount((int) summary.totals().receiptCount())
                 .period(periodInfo)
                 .averagePerDay(averagePerDay)
                 .topMerchants(topMerchants)
                 .build();
     }
-}
\ No newline at end of file
+
+    public TimeSeriesResponse generateTimeSeries(LocalDate startDate, LocalDate endDate, TimeSeriesGranularity granularity,
+                                                 String categoryName, String merchantName, String currency) {
+        if (startDate.isAfter(endDate)) {
+            throw new InvalidQueryParameterException("Start date must not be after end date");
+        }
+        long buckets = granularity.buckets(startDate, endDate);
+        if (buckets > reportProperties.getMaxTimeSeriesBuckets()) {
+            throw new InvalidQueryParameterException("Time series would have " + buckets + " buckets, at most "
+                    + reportProperties.getMaxTimeSeriesBuckets() + " are allowed; use a coarser granularity");
+        }
+
+        log.info("Generating {} time series for period: {} to {}", granularity.getField(), startDate, endDate);
+
+        return receiptRollupService.timeSeries(startDate, endDate, granularity, resolveCategory(categoryName),
+                merchantName != null && !merchantName.isEmpty() ? merchantName : null,
+                currency != null && !currency.isEmpty() ? currency.toUpperCase(Locale.ROOT) : null);
+    }
+
+    private UUID resolveCategory(String categoryName) {
+        if (categoryName == null || categoryName.isEmpty()) {
+            return null;
+        }
+        return categoryCache.findByName(categoryName)
+                .map(CachedCategory::id)
+                .orElseThrow(() -> new CategoryNotFoundException("Category not found: " + categoryName));
+    }
+}
@@ -0,0 +1,20 @@
+package dev.bermeb.expensevault.control.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Validators of a resource for conditional GETs.
+ *
+ * @param etag         changes whenever the representation of the resource changes
+ * @param lastModified when the resource last changed, {@code null} if unknown
+ */
+public record ResourceVersion(String etag, LocalDateTime lastModified) {
+
+    /**
+     * @return {@link #lastModified()} as epoch millis, {@code -1} if unknown
+     */
+    public long lastModifiedMillis() {
+        return lastModified != null ? lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1;
+    }
+}
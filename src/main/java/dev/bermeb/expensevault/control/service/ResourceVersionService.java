@@ -0,0 +1,171 @@
+package dev.bermeb.expensevault.control.service;
+
+import dev.bermeb.expensevault.entity.repository.ReceiptListItem;
+import dev.bermeb.expensevault.entity.repository.ReceiptView;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Reads the {@link ResourceVersion} of a resource without loading it, so an unchanged resource can
+ * be answered with 304 before any entity is read or any body is rendered.
+ * <p>
+ * A single resource is identified by its row version. A collection is identified by the number of
+ * its rows, the sum of their versions and the latest change among them: an insert raises the count,
+ * a delete lowers it and an update raises a version. Every resource also covers the rows embedded
+ * in its representation, e.g. a receipt covers its category.
+ * <p>
+ * Categories are served from the {@link CategoryCache}, which may lag behind the database, so
+ * their validators are built from the cached categories the response is rendered from.
+ * <p>
+ * The receipt list is the exception: aggregating all matching receipts would cost as much as the
+ * unpaged list did, so a page is validated by its own content instead.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ResourceVersionService {
+
+    private static final String RECEIPT = "SELECT r.version, coalesce(r.updated_at, r.created_at) AS last_modified, " +
+            "c.version AS category_version, coalesce(c.updated_at, c.created_at) AS category_last_modified " +
+            "FROM receipts r LEFT JOIN categories c ON c.id = r.category_id WHERE r.id = ?";
+
+    private static final String CATEGORY_STATS_ROW = "SELECT version, updated_at FROM category_receipt_stats " +
+            "WHERE category_id = ?";
+
+    private static final String CATEGORY_STATS = "SELECT count(*) AS row_count, coalesce(sum(version), 0) AS version_sum, " +
+            "max(updated_at) AS last_modified FROM category_receipt_stats";
+
+    private static final String DAILY_ROLLUPS = "SELECT count(*) AS row_count, coalesce(sum(version), 0) AS version_sum, " +
+            "max(updated_at) AS last_modified FROM daily_receipt_rollups WHERE day BETWEEN ? AND ?";
+
+    private static final String STATISTICS_REFRESH = "SELECT version, refreshed_at FROM statistics_refreshes WHERE view_name = ?";
+
+    private static final RowMapper<Aggregate> AGGREGATE_MAPPER = (rs, rowNum) -> new Aggregate(
+            rs.getLong("row_count"),
+            rs.getLong("version_sum"),
+            rs.getObject("last_modified", LocalDateTime.class));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Optional<ResourceVersion> receipt(UUID id) {
+        return jdbcTemplate.query(RECEIPT, (rs, rowNum) -> {
+            long version = rs.getLong("version");
+            LocalDateTime lastModified = rs.getObject("last_modified", LocalDateTime.class);
+            Long categoryVersion = rs.getObject("category_version") != null ? rs.getLong("category_version") : null;
+            LocalDateTime categoryLastModified = rs.getObject("category_last_modified", LocalDateTime.class);
+            return new ResourceVersion(version + "-" + (categoryVersion != null ? categoryVersion : "x"),
+                    latest(lastModified, categoryLastModified));
+        }, id).stream().findFirst();
+    }
+
+    /**
+     * Covers one page of the receipt list: everything it renders, the view it was read with and
+     * where the next page starts. The page has to be read first, but that costs the same for every
+     * page, unlike an aggregate over all matching receipts. Without Last-Modified, no timestamp
+     * moves when a receipt is deleted.
+     */
+    public ResourceVersion receiptPage(ReceiptPage page, ReceiptView view) {
+        MessageDigest digest = sha256();
+        update(digest, view.name());
+        for (ReceiptListItem item : page.receipts()) {
+            // Records render every field, so any change to a rendered value changes the digest
+            update(digest, item.toString());
+        }
+        update(digest, page.next() != null ? page.next().encode() : "");
+        return new ResourceVersion("p-" + HexFormat.of().formatHex(digest.digest(), 0, 16), null);
+    }
+
+    /**
+     * Covers the cached category and, with stats, its counters, which are read from the database.
+     */
+    public ResourceVersion category(CachedCategory category, boolean withStats) {
+        if (!withStats) {
+            return new ResourceVersion(String.valueOf(category.version()), category.lastModified());
+        }
+        return jdbcTemplate.query(CATEGORY_STATS_ROW, (rs, rowNum) -> new ResourceVersion(
+                        category.version() + "-s" + rs.getLong("version"),
+                        latest(category.lastModified(), rs.getObject("updated_at", LocalDateTime.class))),
+                category.id()).stream().findFirst()
+                .orElseGet(() -> new ResourceVersion(category.version() + "-s0", category.lastModified()));
+    }
+
+    /**
+     * Covers the cached categories and, with stats, all of their counters.
+     */
+    public ResourceVersion categories(List<CachedCategory> cached, boolean withStats) {
+        long versionSum = 0;
+        LocalDateTime lastModified = null;
+        for (CachedCategory category : cached) {
+            versionSum += category.version() != null ? category.version() : 0;
+            lastModified = latest(lastModified, category.lastModified());
+        }
+        Aggregate categories = new Aggregate(cached.size(), versionSum, lastModified);
+        if (!withStats) {
+            return new ResourceVersion("c-" + categories.tag(), categories.lastModified());
+        }
+        Aggregate stats = jdbcTemplate.queryForObject(CATEGORY_STATS, AGGREGATE_MAPPER);
+        return combine("cs", categories, stats);
+    }
+
+    /**
+     * Covers the daily rollups within the period of a report, which change with every receipt in it.
+     */
+    public ResourceVersion report(String report, LocalDate startDate, LocalDate endDate) {
+        Aggregate rollups = jdbcTemplate.queryForObject(DAILY_ROLLUPS, AGGREGATE_MAPPER, startDate, endDate);
+        return new ResourceVersion(report + "-" + rollups.tag(), rollups.lastModified());
+    }
+
+    /**
+     * Covers a materialized statistics view, which only changes when it is refreshed.
+     */
+    public ResourceVersion statistics(String view) {
+        return jdbcTemplate.queryForObject(STATISTICS_REFRESH, (rs, rowNum) -> new ResourceVersion(
+                view + "-" + rs.getLong("version"),
+                rs.getObject("refreshed_at", LocalDateTime.class)), view);
+    }
+
+    private ResourceVersion combine(String prefix, Aggregate first, Aggregate second) {
+        return new ResourceVersion(prefix + "-" + first.tag() + "-" + second.tag(),
+                latest(first.lastModified(), second.lastModified()));
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || a.isAfter(b) ? a : b;
+    }
+
+    private record Aggregate(long rowCount, long versionSum, LocalDateTime lastModified) {
+
+        String tag() {
+            return rowCount + "." + versionSum;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package dev.bermeb.expensevault.control.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Refreshes the materialized statistics views on a fixed delay, see {@link StatisticsViewService}.
+ * A refresh can take a while on large tables; {@code spring.task.scheduling.pool.size} gives the
+ * scheduled jobs enough threads that it does not delay the others.
+ */
+@Component
+@ConditionalOnProperty(prefix = "expensevault.reports.statistics", name = "refresh-enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class StatisticsRefreshWorker {
+
+    private final StatisticsViewService statisticsViewService;
+
+    @Scheduled(fixedDelayString = "${expensevault.reports.statistics.refresh-interval:5s}")
+    public void refresh() {
+        statisticsViewService.refreshIfChanged();
+    }
+}
@@ -0,0 +1,126 @@
+package dev.bermeb.expensevault.control.service;
+
+import dev.bermeb.expensevault.boundary.dto.response.CategoryStatisticsResponse;
+import dev.bermeb.expensevault.boundary.dto.response.MonthlyTotalResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reads and refreshes the materialized views {@code monthly_expense_totals} and
+ * {@code receipt_statistics}.
+ * <p>
+ * Triggers add a row to {@code statistics_changes} for every statement that changes receipts or
+ * category names. A refresh deletes the rows it saw and then rebuilds both views with
+ * {@code REFRESH MATERIALIZED VIEW CONCURRENTLY}, which keeps them readable meanwhile. A change that
+ * commits during the refresh leaves its row behind for the next one, so changes are coalesced but
+ * never lost.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+@Slf4j
+public class StatisticsViewService {
+
+    public static final String MONTHLY_EXPENSE_TOTALS = "monthly_expense_totals";
+    public static final String RECEIPT_STATISTICS = "receipt_statistics";
+
+    // Arbitrary key of the advisory lock that lets only one node refresh at a time
+    private static final long REFRESH_LOCK_KEY = 0x5354415453L;
+
+    private static final String SELECT_MONTHLY = "SELECT month, receipt_count, total_amount, average_amount " +
+            "FROM monthly_expense_totals";
+
+    private static final String SELECT_CATEGORIES = "SELECT month, category_id, category_name, receipt_count, " +
+            "total_amount, average_amount, min_amount, max_amount FROM receipt_statistics";
+
+    private static final String TRY_LOCK = "SELECT pg_try_advisory_xact_lock(?)";
+
+    private static final String DELETE_CHANGES = "DELETE FROM statistics_changes";
+
+    private static final String RECORD_REFRESH = "UPDATE statistics_refreshes SET version = version + 1, refreshed_at = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<MonthlyTotalResponse> monthlyTotals(LocalDate startDate, LocalDate endDate) {
+        List<Object> args = new ArrayList<>();
+        String sql = SELECT_MONTHLY + monthRange(startDate, endDate, args) + " ORDER BY month DESC";
+
+        return jdbcTemplate.query(sql, (rs, rowNum) -> MonthlyTotalResponse.builder()
+                .month(YearMonth.from(rs.getObject("month", LocalDate.class)))
+                .receiptCount(rs.getInt("receipt_count"))
+                .totalAmount(rs.getBigDecimal("total_amount"))
+                .averageAmount(rs.getBigDecimal("average_amount").setScale(2, RoundingMode.HALF_UP))
+                .build(), args.toArray());
+    }
+
+    public List<CategoryStatisticsResponse> categoryStatistics(LocalDate startDate, LocalDate endDate) {
+        List<Object> args = new ArrayList<>();
+        String sql = SELECT_CATEGORIES + monthRange(startDate, endDate, args) + " ORDER BY month DESC, total_amount DESC";
+
+        return jdbcTemplate.query(sql, (rs, rowNum) -> CategoryStatisticsResponse.builder()
+                .month(YearMonth.from(rs.getObject("month", LocalDate.class)))
+                .categoryId(rs.getObject("category_id", UUID.class))
+                .categoryName(rs.getString("category_name"))
+                .receiptCount(rs.getInt("receipt_count"))
+                .totalAmount(rs.getBigDecimal("total_amount"))
+                .averageAmount(rs.getBigDecimal("average_amount").setScale(2, RoundingMode.HALF_UP))
+                .minAmount(rs.getBigDecimal("min_amount"))
+                .maxAmount(rs.getBigDecimal("max_amount"))
+                .build(), args.toArray());
+    }
+
+    /**
+     * Refreshes both views if anything changed since the last refresh and no other node is
+     * refreshing them right now.
+     *
+     * @return whether the views were refreshed
+     */
+    @Transactional
+    public boolean refreshIfChanged() {
+        Boolean locked = jdbcTemplate.queryForObject(TRY_LOCK, Boolean.class, REFRESH_LOCK_KEY);
+        if (!Boolean.TRUE.equals(locked)) {
+            return false;
+        }
+
+        int changes = jdbcTemplate.update(DELETE_CHANGES);
+        if (changes == 0) {
+            return false;
+        }
+
+        long startTime = System.nanoTime();
+        jdbcTemplate.execute("REFRESH MATERIALIZED VIEW CONCURRENTLY " + MONTHLY_EXPENSE_TOTALS);
+        jdbcTemplate.execute("REFRESH MATERIALIZED VIEW CONCURRENTLY " + RECEIPT_STATISTICS);
+        jdbcTemplate.update(RECORD_REFRESH, LocalDateTime.now());
+
+        log.info("Refreshed statistics views after {} changes in {} ms", changes,
+                (System.nanoTime() - startTime) / 1_000_000);
+        return true;
+    }
+
+    // Months are stored as their first day, so a period covers every month it overlaps
+    private static String monthRange(LocalDate startDate, LocalDate endDate, List<Object> args) {
+        StringBuilder sql = new StringBuilder();
+        String separator = " WHERE ";
+        if (startDate != null) {
+            sql.append(separator).append("month >= ?");
+            args.add(startDate.withDayOfMonth(1));
+            separator = " AND ";
+        }
+        if (endDate != null) {
+            sql.append(separator).append("month <= ?");
+            args.add(endDate);
+        }
+        return sql.toString();
+    }
+}
@@ -0,0 +1,19 @@
+package dev.bermeb.expensevault.control.service;
+
+import dev.bermeb.expensevault.entity.model.Receipt;
+
+/**
+ * A receipt file in the {@link ImageStore}.
+ *
+ * @param hash          SHA-256 of the file, hex encoded; also its address in the store
+ * @param thumbnailHash address of the JPEG thumbnail, or {@code null} if none could be made
+ */
+public record StoredImage(String hash, String contentType, long size, String thumbnailHash) {
+
+    public void applyTo(Receipt receipt) {
+        receipt.setImageHash(hash);
+        receipt.setImageContentType(contentType);
+        receipt.setImageSize(size);
+        receipt.setThumbnailHash(thumbnailHash);
+    }
+}
@@ -0,0 +1,120 @@
+package dev.bermeb.expensevault.control.service;
+
+import dev.bermeb.expensevault.config.ImageStoreProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * Small JPEG previews of receipt files for list views. PDFs are previewed by their first page.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ThumbnailGenerator {
+
+    /**
+     * Enough for a 320px preview of an A4 page, far cheaper than the OCR resolution.
+     */
+    private static final int PDF_PREVIEW_DPI = 50;
+
+    private final ImageStoreProperties properties;
+    private final PdfPageRenderer pdfPageRenderer;
+
+    /**
+     * @return the thumbnail, or {@code null} if the file cannot be decoded; never throws
+     */
+    public byte[] generate(byte[] data, UploadedImage.Format format) {
+        try {
+            BufferedImage source = format == UploadedImage.Format.PDF
+                    ? pdfPageRenderer.renderFirstPage(data, PDF_PREVIEW_DPI)
+                    : decode(data);
+            if (source == null) {
+                return null;
+            }
+            return encodeJpeg(scale(source));
+        } catch (Exception e) {
+            log.warn("Thumbnail could not be generated: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Decodes with source subsampling, so a 12 MP photo is never fully materialized for a 320px preview.
+     */
+    private BufferedImage decode(byte[] data) throws IOException {
+        try (ImageInputStream input = new MemoryCacheImageInputStream(new ByteArrayInputStream(data))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int longestSide = Math.max(reader.getWidth(0), reader.getHeight(0));
+                // Subsample to about twice the target size and let the scaler smooth the rest
+                int subsampling = Math.max(1, longestSide / (2 * properties.getThumbnailSize()));
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private BufferedImage scale(BufferedImage source) {
+        int longestSide = Math.max(source.getWidth(), source.getHeight());
+        double factor = Math.min(1.0, (double) properties.getThumbnailSize() / longestSide);
+        int width = Math.max(1, (int) Math.round(source.getWidth() * factor));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * factor));
+
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (ImageOutputStream output = new MemoryCacheImageOutputStream(buffer)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(properties.getThumbnailQuality());
+
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,54 @@
+package dev.bermeb.expensevault.control.service;
+
+import dev.bermeb.expensevault.control.exception.InvalidQueryParameterException;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Locale;
+
+public enum TimeSeriesGranularity {
+    DAY(ChronoUnit.DAYS),
+    WEEK(ChronoUnit.WEEKS),
+    MONTH(ChronoUnit.MONTHS);
+
+    private final ChronoUnit unit;
+
+    TimeSeriesGranularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    /**
+     * Field name for PostgreSQL's {@code date_trunc} and interval literals.
+     */
+    public String getField() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Start of the bucket containing the date, weeks start on Monday like in PostgreSQL.
+     */
+    public LocalDate truncate(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+
+    /**
+     * Number of buckets from the one containing the start date to the one containing the end date.
+     */
+    public long buckets(LocalDate startDate, LocalDate endDate) {
+        return unit.between(truncate(startDate), truncate(endDate)) + 1;
+    }
+
+    public static TimeSeriesGranularity fromParameter(String granularity) {
+        try {
+            return valueOf(granularity.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidQueryParameterException("Granularity must be day, week or month", e);
+        }
+    }
+}
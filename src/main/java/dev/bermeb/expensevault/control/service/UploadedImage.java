@@ -0,0 +1,87 @@
+package dev.bermeb.expensevault.control.service;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * An upload read into memory while holding its share of the upload byte budget.
+ * Closing it gives the share back, so use it in a try-with-resources block around everything
+ * that still needs the bytes.
+ */
+public final class UploadedImage implements AutoCloseable {
+
+    public enum Format {
+        JPEG("image/jpeg"),
+        PNG("image/png"),
+        PDF("application/pdf");
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        /**
+         * Detects the format from the magic bytes at the start of a file.
+         *
+         * @param length how many bytes of {@code header} are valid
+         * @return the format, or {@code null} if it is none of the supported ones
+         */
+        public static Format sniff(byte[] header, int length) {
+            if (length >= 3 && (header[0] & 0xFF) == 0xFF && (header[1] & 0xFF) == 0xD8 && (header[2] & 0xFF) == 0xFF) {
+                return JPEG;
+            }
+            if (length >= 8 && (header[0] & 0xFF) == 0x89 && header[1] == 'P' && header[2] == 'N' && header[3] == 'G'
+                    && header[4] == '\r' && header[5] == '\n' && header[6] == 0x1A && header[7] == '\n') {
+                return PNG;
+            }
+            if (length >= 5 && header[0] == '%' && header[1] == 'P' && header[2] == 'D' && header[3] == 'F' && header[4] == '-') {
+                return PDF;
+            }
+            return null;
+        }
+    }
+
+    private final byte[] data;
+    private final Format format;
+    private final String originalFilename;
+    private final Runnable release;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    UploadedImage(byte[] data, Format format, String originalFilename, Runnable release) {
+        this.data = data;
+        this.format = format;
+        this.originalFilename = originalFilename;
+        this.release = release;
+    }
+
+    /**
+     * The uploaded bytes, not copied. Callers must not modify the array, it is handed to
+     * the OCR engine without a defensive copy.
+     */
+    public byte[] data() {
+        return data;
+    }
+
+    public Format format() {
+        return format;
+    }
+
+    public String originalFilename() {
+        return originalFilename;
+    }
+
+    public int size() {
+        return data.length;
+    }
+
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            release.run();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package dev.bermeb.expensevault.control.service;
+
+import java.util.List;
+
+/**
+ * The files of one receipt uploaded together, in upload order. Closing releases the budget of all of them.
+ */
+public final class UploadedImages implements AutoCloseable {
+
+    private final List<UploadedImage> images;
+
+    UploadedImages(List<UploadedImage> images) {
+        this.images = List.copyOf(images);
+    }
+
+    public List<UploadedImage> images() {
+        return images;
+    }
+
+    public List<byte[]> data() {
+        return images.stream().map(UploadedImage::data).toList();
+    }
+
+    public UploadedImage first() {
+        return images.get(0);
+    }
+
+    public long totalSize() {
+        return images.stream().mapToLong(UploadedImage::size).sum();
+    }
+
+    @Override
+    public void close() {
+        images.forEach(UploadedImage::close);
+    }
+}
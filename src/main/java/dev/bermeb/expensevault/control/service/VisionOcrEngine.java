@@ -0,0 +1,132 @@
+package dev.bermeb.expensevault.control.service;
+
+import com.google.cloud.vision.v1.*;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
+import dev.bermeb.expensevault.config.OcrBatchingProperties;
+import dev.bermeb.expensevault.control.exception.OrcProcessingException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * OCR through Google Cloud Vision text detection. Needs Google credentials at startup.
+ */
+@Component
+@ConditionalOnProperty(prefix = "expensevault.ocr", name = "engine", havingValue = "vision", matchIfMissing = true)
+@Slf4j
+public class VisionOcrEngine implements OcrEngine {
+
+    private final ImageAnnotatorClient visionClient;
+    private final VisionRequestBatcher batcher;
+    private final OcrBatchingProperties batchingProperties;
+
+    public VisionOcrEngine(OcrBatchingProperties batchingProperties, MeterRegistry meterRegistry) throws IOException {
+        this.visionClient = ImageAnnotatorClient.create();
+        this.batchingProperties = batchingProperties;
+        this.batcher = batchingProperties.isEnabled()
+                ? new VisionRequestBatcher(visionClient, batchingProperties, meterRegistry)
+                : null;
+        log.info("Google Vision OCR engine initialized successfully (batching {})", batchingProperties.isEnabled() ? "enabled" : "disabled");
+    }
+
+    @PreDestroy
+    public void close() {
+        if (batcher != null) {
+            batcher.close();
+        }
+        visionClient.close();
+    }
+
+    @Override
+    public RecognizedText recognize(byte[] imageData, String sourceKey) {
+        // No copy: the array is never modified after upload, see UploadedImage#data
+        ByteString imgBytes = UnsafeByteOperations.unsafeWrap(imageData);
+        var img = Image.newBuilder().setContent(imgBytes).build();
+
+        var textFeature = Feature.newBuilder()
+                .setType(Feature.Type.TEXT_DETECTION)
+                .build();
+
+        var annotateImageRequest = AnnotateImageRequest.newBuilder()
+                .addFeatures(textFeature)
+                .setImage(img)
+                .build();
+
+        AnnotateImageResponse imgResponse = annotate(annotateImageRequest);
+
+        if (imgResponse.hasError()) {
+            throw new OrcProcessingException("Google Vision API error: "
+                    + imgResponse.getError().getMessage());
+        }
+
+        if (imgResponse.getTextAnnotationsList().isEmpty()) {
+            throw new OrcProcessingException("No text detected in the image");
+        }
+
+        String extractedText = imgResponse.getTextAnnotations(0).getDescription();
+        float confidence = calculateAverageConfidence(imgResponse.getTextAnnotationsList());
+
+        return new RecognizedText(extractedText, confidence);
+    }
+
+    private AnnotateImageResponse annotate(AnnotateImageRequest request) {
+        if (batcher == null) {
+            BatchAnnotateImagesResponse response = visionClient.batchAnnotateImages(List.of(request));
+            return response.getResponses(0);
+        }
+
+        CompletableFuture<AnnotateImageResponse> response = batcher.submit(request);
+        try {
+            return response.get(batchingProperties.getRequestTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new OrcProcessingException("Google Vision request failed", e.getCause());
+        } catch (InterruptedException e) {
+            // Lets the batcher leave the request out if it has not been sent yet
+            response.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new OrcProcessingException("Interrupted while waiting for Google Vision", e);
+        } catch (TimeoutException e) {
+            response.cancel(false);
+            throw new OrcProcessingException("Google Vision did not answer within "
+                    + batchingProperties.getRequestTimeout(), e);
+        }
+    }
+
+    private float calculateAverageConfidence(List<EntityAnnotation> annotations) {
+        if(annotations.isEmpty()) return 0.0f;
+
+        float totalConfidence = 0.0f;
+        int count = 0;
+
+        for(EntityAnnotation annotation : annotations) {
+            // Score since confidence is deprecated
+            // Score is for overall qualitiy of the OCR result
+            // Confidence was only for text detection
+            if(annotation.getScore() > 0) {
+                totalConfidence += annotation.getScore();
+                count++;
+            }
+        }
+
+        if(count == 0) {
+            log.warn("No valid confidence scores found in annotations");
+            return 0.0f;
+        }
+
+        // Return average confidence for all annotations
+        return totalConfidence / count;
+    }
+}
@@ -0,0 +1,234 @@
+package dev.bermeb.expensevault.control.service;
+
+import com.google.cloud.vision.v1.AnnotateImageRequest;
+import com.google.cloud.vision.v1.AnnotateImageResponse;
+import com.google.cloud.vision.v1.BatchAnnotateImagesResponse;
+import com.google.cloud.vision.v1.ImageAnnotatorClient;
+import dev.bermeb.expensevault.config.OcrBatchingProperties;
+import dev.bermeb.expensevault.control.exception.OrcProcessingException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Coalesces concurrent OCR requests into shared {@code batchAnnotateImages} calls.
+ * <p>
+ * The first queued request opens a batch which is sent once it is full (by count or bytes)
+ * or the collection window has passed. Every caller gets its own {@link AnnotateImageResponse},
+ * so an image-level error only affects its own future. If a whole batch call fails, the
+ * requests are retried one by one to find out which image caused it.
+ * <p>
+ * At most {@code concurrency} batches are in flight; while all senders are busy the dispatcher
+ * waits and new requests pile up in the bounded queue until {@link #submit} turns them away.
+ * Requests whose caller stopped waiting are left out of the batch they were collected into.
+ */
+@Slf4j
+public class VisionRequestBatcher implements AutoCloseable {
+
+    private static final int VISION_MAX_BATCH_SIZE = 16;
+
+    private final ImageAnnotatorClient visionClient;
+    private final int maxBatchSize;
+    private final long maxBatchBytes;
+    private final long windowNanos;
+    private final long requestTimeoutNanos;
+    private final BlockingQueue<PendingRequest> queue;
+    private final ExecutorService senders;
+    private final Semaphore senderPermits;
+    private final Thread dispatcher;
+    private final DistributionSummary batchSizeSummary;
+
+    private volatile boolean running = true;
+
+    public VisionRequestBatcher(ImageAnnotatorClient visionClient, OcrBatchingProperties properties, MeterRegistry meterRegistry) {
+        this.visionClient = visionClient;
+        this.maxBatchSize = Math.max(1, Math.min(properties.getMaxSize(), VISION_MAX_BATCH_SIZE));
+        this.maxBatchBytes = properties.getMaxBytes().toBytes();
+        this.windowNanos = properties.getWindow().toNanos();
+        this.requestTimeoutNanos = properties.getRequestTimeout().toNanos();
+        this.queue = new LinkedBlockingQueue<>(properties.getQueueCapacity());
+        this.senders = Executors.newFixedThreadPool(properties.getConcurrency(), Thread.ofPlatform().name("vision-batch-", 0).factory());
+        // Keeps the pool's own queue empty, so waiting batches stay in the bounded request queue
+        this.senderPermits = new Semaphore(properties.getConcurrency());
+        this.batchSizeSummary = DistributionSummary.builder("expensevault.ocr.batch.size")
+                .description("Images sent per Google Vision call")
+                .register(meterRegistry);
+
+        this.dispatcher = Thread.ofPlatform().name("vision-batch-dispatcher").daemon().start(this::dispatchLoop);
+    }
+
+    public CompletableFuture<AnnotateImageResponse> submit(AnnotateImageRequest request) {
+        PendingRequest pending = new PendingRequest(request, request.getSerializedSize(),
+                System.nanoTime() + requestTimeoutNanos, new CompletableFuture<>());
+
+        if (!running || !queue.offer(pending)) {
+            throw new OrcProcessingException("OCR request queue is full, try again later");
+        }
+        return pending.future();
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            List<PendingRequest> batch = new ArrayList<>(maxBatchSize);
+            try {
+                collectBatch(batch);
+                dispatch(batch);
+            } catch (InterruptedException e) {
+                fail(batch);
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void collectBatch(List<PendingRequest> batch) throws InterruptedException {
+        PendingRequest first = queue.take();
+        batch.add(first);
+
+        long batchBytes = first.sizeBytes();
+        long deadline = System.nanoTime() + windowNanos;
+
+        while (batch.size() < maxBatchSize) {
+            PendingRequest next = queue.peek();
+            if (next == null) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    break;
+                }
+                if (batchBytes + next.sizeBytes() > maxBatchBytes) {
+                    // Too large for this batch, hand it to its own batch right away
+                    List<PendingRequest> oversized = List.of(next);
+                    try {
+                        dispatch(oversized);
+                    } catch (InterruptedException e) {
+                        fail(oversized);
+                        throw e;
+                    }
+                    continue;
+                }
+            } else {
+                if (batchBytes + next.sizeBytes() > maxBatchBytes) {
+                    // Leave it queued as the start of the next batch
+                    break;
+                }
+                queue.poll();
+            }
+
+            batch.add(next);
+            batchBytes += next.sizeBytes();
+        }
+    }
+
+    /**
+     * Hands the batch to a sender, waiting while all of them are busy.
+     */
+    private void dispatch(List<PendingRequest> batch) throws InterruptedException {
+        senderPermits.acquire();
+        try {
+            senders.execute(() -> {
+                try {
+                    send(withoutAbandoned(batch));
+                } finally {
+                    senderPermits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            senderPermits.release();
+            log.warn("Vision batch sender rejected a batch of {} images, the batcher is shutting down", batch.size());
+            fail(batch);
+        }
+    }
+
+    /**
+     * Leaves out requests whose caller gave up, there is no one left to use their response.
+     */
+    private List<PendingRequest> withoutAbandoned(List<PendingRequest> batch) {
+        long now = System.nanoTime();
+        List<PendingRequest> live = new ArrayList<>(batch.size());
+        for (PendingRequest pending : batch) {
+            if (pending.deadline() - now <= 0) {
+                pending.future().completeExceptionally(
+                        new OrcProcessingException("OCR request timed out before it was sent to Google Vision"));
+            } else if (!pending.future().isDone()) {
+                live.add(pending);
+            }
+        }
+        return live;
+    }
+
+    private void send(List<PendingRequest> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        batchSizeSummary.record(batch.size());
+
+        try {
+            BatchAnnotateImagesResponse response = visionClient.batchAnnotateImages(
+                    batch.stream().map(PendingRequest::request).toList());
+
+            if (response.getResponsesCount() != batch.size()) {
+                throw new OrcProcessingException("Google Vision returned " + response.getResponsesCount()
+                        + " responses for " + batch.size() + " images");
+            }
+
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).future().complete(response.getResponses(i));
+            }
+        } catch (Exception e) {
+            if (batch.size() > 1) {
+                log.warn("Google Vision batch of {} images failed, retrying individually: {}", batch.size(), e.getMessage());
+                batch.forEach(pending -> send(List.of(pending)));
+            } else {
+                batch.getFirst().future().completeExceptionally(e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        dispatcher.interrupt();
+        try {
+            // The dispatcher fails the batch it holds, afterwards nothing takes from the queue anymore
+            dispatcher.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        senders.shutdown();
+
+        PendingRequest pending;
+        while ((pending = queue.poll()) != null) {
+            pending.future().completeExceptionally(shutdownException());
+        }
+
+        try {
+            if (!senders.awaitTermination(30, TimeUnit.SECONDS)) {
+                senders.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            senders.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void fail(List<PendingRequest> batch) {
+        OrcProcessingException shutdown = shutdownException();
+        batch.forEach(pending -> pending.future().completeExceptionally(shutdown));
+    }
+
+    private static OrcProcessingException shutdownException() {
+        return new OrcProcessingException("OCR service is shutting down");
+    }
+
+    private record PendingRequest(AnnotateImageRequest request, long sizeBytes, long deadline,
+                                  CompletableFuture<AnnotateImageResponse> future) {
+    }
+}
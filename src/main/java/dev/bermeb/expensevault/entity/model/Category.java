@@ -29,6 +29,9 @@ public class Category extends AuditableEntity {
 
     private String icon;
 
+    @Version
+    private Long version;
+
     @OneToMany(mappedBy = "category", fetch = FetchType.LAZY)
     @Builder.Default
     private List<Receipt> receipts = new ArrayList<>();
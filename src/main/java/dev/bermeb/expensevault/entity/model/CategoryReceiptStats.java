@@ -0,0 +1,54 @@
+package dev.bermeb.expensevault.entity.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Receipt count and total amount of a category. Maintained by a trigger on every receipt write,
+ * so it is only ever read here.
+ */
+@Entity
+@Immutable
+@Table(name = "category_receipt_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CategoryReceiptStats {
+
+    @Id
+    @Column(name = "category_id", columnDefinition = "uuid", updatable = false, nullable = false)
+    private UUID categoryId;
+
+    @Column(name = "receipt_count", nullable = false)
+    private long receiptCount;
+
+    @Column(name = "total_amount", precision = 14, scale = 2, nullable = false)
+    private BigDecimal totalAmount;
+
+    // Raised by the trigger on every change, part of the validators of conditional GETs
+    @Column(nullable = false)
+    private long version;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    /**
+     * Stats of a category that never had a receipt, the trigger only creates the row with the first one.
+     */
+    public static CategoryReceiptStats empty(UUID categoryId) {
+        return CategoryReceiptStats.builder()
+                .categoryId(categoryId)
+                .receiptCount(0)
+                .totalAmount(BigDecimal.ZERO)
+                .build();
+    }
+}
@@ -0,0 +1,34 @@
+package dev.bermeb.expensevault.entity.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * OCR text of an image, keyed by the SHA-256 of the image bytes.
+ */
+@Entity
+@Table(name = "ocr_result_cache")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OcrCacheEntry {
+
+    @Id
+    @Column(name = "image_hash", length = 64, updatable = false, nullable = false)
+    private String imageHash;
+
+    @Column(name = "raw_text", columnDefinition = "TEXT", nullable = false)
+    private String rawText;
+
+    private Float confidence;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+}
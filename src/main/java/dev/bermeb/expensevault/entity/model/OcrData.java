@@ -7,7 +7,7 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "orc_data")
+@Table(name = "ocr_data")
 @Data
 @EqualsAndHashCode(callSuper = false)
 @NoArgsConstructor
@@ -27,7 +27,8 @@ public class OcrData extends AuditableEntity {
     @Column(columnDefinition = "TEXT", nullable = false)
     private String rawText;
 
-    @Column(precision = 3, scale = 2)
+    // Precision and scale are meaningless for a Float, so the DECIMAL(3, 2) column is spelled out
+    @Column(columnDefinition = "numeric(3, 2)")
     private Float confidence;
 
     @Column(name = "processed_at", nullable = false)
@@ -0,0 +1,64 @@
+package dev.bermeb.expensevault.entity.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Queued receipt upload waiting for (or done with) asynchronous OCR processing.
+ * The image itself lives in {@link OcrJobPayload} so status polling never loads it.
+ */
+@Entity
+@Table(name = "ocr_jobs")
+@Data
+@EqualsAndHashCode(callSuper = false)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OcrJob extends AuditableEntity {
+
+    @Id
+    @GeneratedValue(generator = "UUID")
+    @Column(columnDefinition = "uuid", updatable = false, nullable = false)
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20, nullable = false)
+    private OcrJobStatus status;
+
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+
+    @Column(name = "original_filename")
+    private String originalFilename;
+
+    @Column(name = "category_name", length = 100)
+    private String categoryName;
+
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    @Column(name = "receipt_id", columnDefinition = "uuid")
+    private UUID receiptId;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @Column(name = "locked_by")
+    private String lockedBy;
+
+    @Column(name = "locked_at")
+    private LocalDateTime lockedAt;
+
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+}
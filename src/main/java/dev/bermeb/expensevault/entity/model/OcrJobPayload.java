@@ -0,0 +1,23 @@
+package dev.bermeb.expensevault.entity.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.UUID;
+
+@Entity
+@Table(name = "ocr_job_payloads")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OcrJobPayload {
+
+    @Id
+    @Column(name = "job_id", columnDefinition = "uuid", updatable = false, nullable = false)
+    private UUID jobId;
+
+    @Column(name = "image_data", nullable = false)
+    private byte[] imageData;
+
+}
@@ -43,4 +43,19 @@ public class Receipt extends AuditableEntity {
     @OneToOne(mappedBy = "receipt", cascade = CascadeType.ALL)
     private OcrData ocrData;
 
+    @Column(name = "image_hash", length = 64)
+    private String imageHash;
+
+    @Column(name = "image_content_type", length = 50)
+    private String imageContentType;
+
+    @Column(name = "image_size")
+    private Long imageSize;
+
+    @Column(name = "thumbnail_hash", length = 64)
+    private String thumbnailHash;
+
+    @Version
+    private Long version;
+
 }
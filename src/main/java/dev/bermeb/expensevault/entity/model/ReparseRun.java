@@ -0,0 +1,61 @@
+package dev.bermeb.expensevault.entity.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One run of the re-parse job over {@code ocr_data}. {@link #lastOcrDataId} is the keyset
+ * checkpoint: every row up to and including it has been re-parsed.
+ */
+@Entity
+@Table(name = "reparse_runs")
+@Data
+@EqualsAndHashCode(callSuper = false)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReparseRun extends AuditableEntity {
+
+    @Id
+    @GeneratedValue(generator = "UUID")
+    @Column(columnDefinition = "uuid", updatable = false, nullable = false)
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20, nullable = false)
+    private ReparseRunStatus status;
+
+    @Column(name = "last_ocr_data_id", columnDefinition = "uuid")
+    private UUID lastOcrDataId;
+
+    @Column(name = "total_rows")
+    private Long totalRows;
+
+    @Column(name = "processed_rows", nullable = false)
+    private long processedRows;
+
+    @Column(name = "changed_rows", nullable = false)
+    private long changedRows;
+
+    @Column(name = "changed_receipts", nullable = false)
+    private long changedReceipts;
+
+    @Column(name = "failed_rows", nullable = false)
+    private long failedRows;
+
+    @Column(name = "locked_by")
+    private String lockedBy;
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+}
@@ -0,0 +1,8 @@
+package dev.bermeb.expensevault.entity.model;
+
+public enum ReparseRunStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    INTERRUPTED
+}
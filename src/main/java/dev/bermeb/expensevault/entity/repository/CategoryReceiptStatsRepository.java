@@ -0,0 +1,11 @@
+package dev.bermeb.expensevault.entity.repository;
+
+import dev.bermeb.expensevault.entity.model.CategoryReceiptStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface CategoryReceiptStatsRepository extends JpaRepository<CategoryReceiptStats, UUID> {
+}
@@ -1,11 +1,13 @@
 package dev.bermeb.expensevault.entity.repository;
 
 import dev.bermeb.expensevault.entity.model.Category;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -16,11 +18,12 @@ public interface CategoryRepository extends JpaRepository<Category, UUID> {
 
     boolean existsByName(String name);
 
-    @Query("SELECT c FROM Category c LEFT JOIN FETCH c.receipts")
-    List<Category> findAllWithReceipts();
-
-    @Query("SELECT c, COUNT(r) as receiptCount FROM Category c " +
-            "LEFT JOIN c.receipts r GROUP BY c ORDER BY COUNT(r) DESC")
-    List<Object[]> findCategoriesWithReceiptCount();
+    /**
+     * Locks the category row. Receipt writes take a key share lock on it for their foreign key, so no
+     * receipt can join the category until the locking transaction ends.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Category c WHERE c.id = :id")
+    Optional<Category> findByIdForUpdate(@Param("id") UUID id);
 
 }
@@ -0,0 +1,35 @@
+package dev.bermeb.expensevault.entity.repository;
+
+import dev.bermeb.expensevault.entity.model.OcrCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface OcrCacheEntryRepository extends JpaRepository<OcrCacheEntry, String> {
+
+    /**
+     * Inserts or refreshes an entry. Nodes racing on the same image simply overwrite each other.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO ocr_result_cache (image_hash, raw_text, confidence, created_at) " +
+            "VALUES (:imageHash, :rawText, :confidence, :createdAt) " +
+            "ON CONFLICT (image_hash) DO UPDATE SET raw_text = EXCLUDED.raw_text, " +
+            "confidence = EXCLUDED.confidence, created_at = EXCLUDED.created_at", nativeQuery = true)
+    void upsert(@Param("imageHash") String imageHash,
+                @Param("rawText") String rawText,
+                @Param("confidence") Float confidence,
+                @Param("createdAt") LocalDateTime createdAt);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OcrCacheEntry e WHERE e.createdAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+
+}
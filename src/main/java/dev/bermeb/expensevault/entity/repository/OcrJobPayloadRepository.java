@@ -0,0 +1,19 @@
+package dev.bermeb.expensevault.entity.repository;
+
+import dev.bermeb.expensevault.entity.model.OcrJobPayload;
+import dev.bermeb.expensevault.entity.model.OcrJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface OcrJobPayloadRepository extends JpaRepository<OcrJobPayload, UUID> {
+
+    @Modifying
+    @Query("DELETE FROM OcrJobPayload p WHERE p.jobId IN (SELECT j.id FROM OcrJob j WHERE j.status = :failed)")
+    int deleteOfFailedJobs(@Param("failed") OcrJobStatus failed);
+}
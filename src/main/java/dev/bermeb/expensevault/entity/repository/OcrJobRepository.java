@@ -0,0 +1,69 @@
+package dev.bermeb.expensevault.entity.repository;
+
+import dev.bermeb.expensevault.entity.model.OcrJob;
+import dev.bermeb.expensevault.entity.model.OcrJobStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface OcrJobRepository extends JpaRepository<OcrJob, UUID> {
+
+    /**
+     * Locks up to {@code limit} due jobs for the calling transaction. Rows already locked by
+     * another node are skipped instead of waited on, so every worker gets a disjoint batch.
+     */
+    @Query(value = "SELECT * FROM ocr_jobs " +
+            "WHERE status = 'PENDING' AND available_at <= :now " +
+            "ORDER BY available_at, created_at " +
+            "LIMIT :limit " +
+            "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OcrJob> lockNextPending(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT j FROM OcrJob j WHERE j.id = :id")
+    Optional<OcrJob> findByIdForUpdate(@Param("id") UUID id);
+
+    /**
+     * Renews the lock of jobs the node is still processing, so they are not released as stale.
+     */
+    @Modifying
+    @Query("UPDATE OcrJob j SET j.lockedAt = :now " +
+            "WHERE j.id IN :ids AND j.status = :processing AND j.lockedBy = :nodeId")
+    int renewLocks(@Param("ids") Collection<UUID> ids,
+                   @Param("nodeId") String nodeId,
+                   @Param("now") LocalDateTime now,
+                   @Param("processing") OcrJobStatus processing);
+
+    /**
+     * Releases jobs whose worker stopped renewing them, see {@link #renewLocks}. Jobs that already used all their attempts
+     * fail instead of going back to the queue, they would most likely stop the next worker too.
+     */
+    @Modifying
+    @Query("UPDATE OcrJob j SET " +
+            "j.status = CASE WHEN j.attempts >= :maxAttempts THEN :failed ELSE :pending END, " +
+            "j.errorMessage = CASE WHEN j.attempts >= :maxAttempts THEN :errorMessage ELSE j.errorMessage END, " +
+            "j.completedAt = CASE WHEN j.attempts >= :maxAttempts THEN :now ELSE j.completedAt END, " +
+            "j.lockedBy = NULL, j.lockedAt = NULL, j.availableAt = :now " +
+            "WHERE j.status = :processing AND j.lockedAt < :cutoff")
+    int requeueStale(@Param("cutoff") LocalDateTime cutoff,
+                     @Param("now") LocalDateTime now,
+                     @Param("maxAttempts") int maxAttempts,
+                     @Param("errorMessage") String errorMessage,
+                     @Param("pending") OcrJobStatus pending,
+                     @Param("failed") OcrJobStatus failed,
+                     @Param("processing") OcrJobStatus processing);
+
+    long countByStatus(OcrJobStatus status);
+
+}
@@ -0,0 +1,33 @@
+package dev.bermeb.expensevault.entity.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A receipt of the receipt list together with its category and OCR data, read in one statement.
+ * The {@code category*} fields are {@code null} for receipts without category, the {@code ocr*}
+ * fields for receipts without OCR data. Fields outside the {@link ReceiptView} that was read are
+ * {@code null} as well.
+ */
+public record ReceiptListItem(
+        UUID id,
+        BigDecimal amount,
+        String currency,
+        String merchantName,
+        String description,
+        LocalDate date,
+        String imageContentType,
+        Long imageSize,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        UUID categoryId,
+        String categoryName,
+        String categoryColor,
+        String categoryIcon,
+        Float ocrConfidence,
+        LocalDateTime ocrProcessedAt,
+        String ocrExtractedFields,
+        String ocrRawText) {
+}
@@ -0,0 +1,21 @@
+package dev.bermeb.expensevault.entity.repository;
+
+import dev.bermeb.expensevault.entity.model.Receipt;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Read path of the receipt list. Loading {@link Receipt} entities costs one extra statement per
+ * receipt for its OCR data, which Hibernate cannot load lazily from the non-owning side.
+ */
+public interface ReceiptListQuery {
+
+    /**
+     * Reads up to {@code limit} receipts with their category and OCR data in a single statement.
+     *
+     * @param view which columns to read; the OCR text is by far the largest one
+     */
+    List<ReceiptListItem> findListItems(Specification<Receipt> spec, Sort sort, int limit, ReceiptView view);
+}
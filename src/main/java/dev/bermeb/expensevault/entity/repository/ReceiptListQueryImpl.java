@@ -0,0 +1,86 @@
+package dev.bermeb.expensevault.entity.repository;
+
+import dev.bermeb.expensevault.entity.model.Category;
+import dev.bermeb.expensevault.entity.model.OcrData;
+import dev.bermeb.expensevault.entity.model.Receipt;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RequiredArgsConstructor
+class ReceiptListQueryImpl implements ReceiptListQuery {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<ReceiptListItem> findListItems(Specification<Receipt> spec, Sort sort, int limit, ReceiptView view) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ReceiptListItem> query = criteriaBuilder.createQuery(ReceiptListItem.class);
+        Root<Receipt> receipt = query.from(Receipt.class);
+        Join<Receipt, Category> category = receipt.join("category", JoinType.LEFT);
+
+        if (view == ReceiptView.SUMMARY) {
+            query.select(criteriaBuilder.construct(ReceiptListItem.class,
+                    receipt.get("id"),
+                    receipt.get("amount"),
+                    receipt.get("currency"),
+                    receipt.get("merchantName"),
+                    criteriaBuilder.nullLiteral(String.class),
+                    receipt.get("date"),
+                    criteriaBuilder.nullLiteral(String.class),
+                    criteriaBuilder.nullLiteral(Long.class),
+                    criteriaBuilder.nullLiteral(LocalDateTime.class),
+                    criteriaBuilder.nullLiteral(LocalDateTime.class),
+                    category.get("id"),
+                    category.get("name"),
+                    category.get("color"),
+                    category.get("icon"),
+                    criteriaBuilder.nullLiteral(Float.class),
+                    criteriaBuilder.nullLiteral(LocalDateTime.class),
+                    criteriaBuilder.nullLiteral(String.class),
+                    criteriaBuilder.nullLiteral(String.class)));
+        } else {
+            Join<Receipt, OcrData> ocrData = receipt.join("ocrData", JoinType.LEFT);
+            query.select(criteriaBuilder.construct(ReceiptListItem.class,
+                    receipt.get("id"),
+                    receipt.get("amount"),
+                    receipt.get("currency"),
+                    receipt.get("merchantName"),
+                    receipt.get("description"),
+                    receipt.get("date"),
+                    receipt.get("imageContentType"),
+                    receipt.get("imageSize"),
+                    receipt.get("createdAt"),
+                    receipt.get("updatedAt"),
+                    category.get("id"),
+                    category.get("name"),
+                    category.get("color"),
+                    category.get("icon"),
+                    ocrData.get("confidence"),
+                    ocrData.get("processedAt"),
+                    ocrData.get("extractedFields"),
+                    view == ReceiptView.FULL ? ocrData.get("rawText") : criteriaBuilder.nullLiteral(String.class)));
+        }
+
+        Predicate predicate = spec.toPredicate(receipt, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, receipt, criteriaBuilder));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -13,7 +13,7 @@ import java.util.List;
 import java.util.UUID;
 
 @Repository
-public interface ReceiptRepository extends JpaRepository<Receipt, UUID>, JpaSpecificationExecutor<Receipt> {
+public interface ReceiptRepository extends JpaRepository<Receipt, UUID>, JpaSpecificationExecutor<Receipt>, ReceiptListQuery {
 
     List<Receipt> findByDateBetweenOrderByDateDesc(LocalDate dateFrom, LocalDate dateTo);
 
@@ -24,17 +24,4 @@ public interface ReceiptRepository extends JpaRepository<Receipt, UUID>, JpaSpec
     @Query("SELECT r FROM Receipt r WHERE r.amount >= :minAmount ORDER BY r.date DESC")
     List<Receipt> findByMinAmount(@Param("minAmount") BigDecimal minAmount);
 
-    @Query("SELECT COUNT(r) FROM Receipt r WHERE r.date >= :startDate")
-    Long countReceiptsFromDate(@Param("startDate") LocalDate startDate);
-
-    @Query("SELECT SUM(r.amount) FROM Receipt r WHERE r.date BETWEEN :startDate AND :endDate")
-    BigDecimal sumAmountByDateRange(@Param("startDate") LocalDate startDate,
-                                    @Param("endDate") LocalDate endDate);
-
-    @Query("SELECT r.merchantName, SUM(r.amount), COUNT(r) FROM Receipt r " +
-            "WHERE r.date BETWEEN :startDate AND :endDate " +
-            "GROUP BY r.merchantName ORDER BY SUM(r.amount) DESC")
-    List<Object[]> findTopMerchantsByDateRange(@Param("startDate") LocalDate startDate,
-                                               @Param("endDate") LocalDate endDate);
-
 }
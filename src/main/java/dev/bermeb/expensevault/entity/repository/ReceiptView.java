@@ -0,0 +1,22 @@
+package dev.bermeb.expensevault.entity.repository;
+
+/**
+ * How much of a receipt a read selects. Columns outside the view are read as {@code null}.
+ */
+public enum ReceiptView {
+
+    /**
+     * What a list row shows: id, date, amount, currency, merchant and category. OCR data is not joined.
+     */
+    SUMMARY,
+
+    /**
+     * Everything except the OCR text.
+     */
+    STANDARD,
+
+    /**
+     * Everything, including the OCR text.
+     */
+    FULL
+}
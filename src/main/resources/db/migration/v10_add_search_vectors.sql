@@ -0,0 +1,20 @@
+-- Stored search vectors, so ranking reads them instead of parsing the text of every match again.
+-- Merchant names weigh more than descriptions, which weigh more than the OCR text.
+ALTER TABLE receipts
+    ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(merchant_name, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(description, '')), 'B')
+    ) STORED;
+
+ALTER TABLE ocr_data
+    ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', raw_text), 'C')
+    ) STORED;
+
+CREATE INDEX idx_receipts_search_vector ON receipts USING gin (search_vector);
+CREATE INDEX idx_ocr_data_search_vector ON ocr_data USING gin (search_vector);
+
+-- Replaced by the indexes on the stored vectors
+DROP INDEX idx_receipts_merchant_name_gin;
+DROP INDEX idx_receipts_description_gin;
+DROP INDEX idx_ocr_data_raw_text_gin;
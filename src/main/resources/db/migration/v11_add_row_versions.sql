@@ -0,0 +1,11 @@
+-- Categories are auditable entities but never had the audit columns
+ALTER TABLE categories
+    ADD COLUMN created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    ADD COLUMN updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP;
+
+-- Row versions for optimistic locking, also the validators of conditional GETs
+ALTER TABLE receipts
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE categories
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,15 @@
+-- Every write to categories, from any node or tool, tells the listening nodes to reload their
+-- category cache. Notifications are sent on commit and identical ones in a transaction are merged.
+CREATE FUNCTION notify_category_changed() RETURNS trigger AS
+$$
+BEGIN
+    PERFORM pg_notify('category_changed', '');
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER categories_notify_changed
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE
+    ON categories
+    FOR EACH STATEMENT
+EXECUTE FUNCTION notify_category_changed();
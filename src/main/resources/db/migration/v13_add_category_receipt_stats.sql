@@ -0,0 +1,57 @@
+-- Receipt count and total amount per category, kept up to date by the receipt writes themselves
+-- so category screens and the delete guard never have to scan receipts
+CREATE TABLE category_receipt_stats
+(
+    category_id   UUID PRIMARY KEY REFERENCES categories (id) ON DELETE CASCADE,
+    receipt_count BIGINT         NOT NULL DEFAULT 0,
+    total_amount  DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    version       BIGINT         NOT NULL DEFAULT 0,
+    updated_at    TIMESTAMP      NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+INSERT INTO category_receipt_stats (category_id, receipt_count, total_amount)
+SELECT category_id, COUNT(*), SUM(amount)
+FROM receipts
+WHERE category_id IS NOT NULL
+GROUP BY category_id;
+
+-- Runs in the transaction of the receipt write, for JPA as well as for plain SQL such as re-parse runs
+CREATE FUNCTION update_category_receipt_stats() RETURNS trigger AS
+$$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') AND OLD.category_id IS NOT NULL THEN
+        UPDATE category_receipt_stats
+        SET receipt_count = receipt_count - 1,
+            total_amount  = total_amount - OLD.amount,
+            version       = version + 1,
+            updated_at    = CURRENT_TIMESTAMP
+        WHERE category_id = OLD.category_id;
+    END IF;
+
+    IF TG_OP IN ('INSERT', 'UPDATE') AND NEW.category_id IS NOT NULL THEN
+        INSERT INTO category_receipt_stats (category_id, receipt_count, total_amount, version, updated_at)
+        VALUES (NEW.category_id, 1, NEW.amount, 1, CURRENT_TIMESTAMP)
+        ON CONFLICT (category_id) DO UPDATE
+            SET receipt_count = category_receipt_stats.receipt_count + 1,
+                total_amount  = category_receipt_stats.total_amount + EXCLUDED.total_amount,
+                version       = category_receipt_stats.version + 1,
+                updated_at    = EXCLUDED.updated_at;
+    END IF;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER receipts_count_in_category
+    AFTER INSERT OR DELETE
+    ON receipts
+    FOR EACH ROW
+EXECUTE FUNCTION update_category_receipt_stats();
+
+-- JPA writes every column on update, so only fire when the counted values really change
+CREATE TRIGGER receipts_recount_in_category
+    AFTER UPDATE OF category_id, amount
+    ON receipts
+    FOR EACH ROW
+    WHEN (OLD.category_id IS DISTINCT FROM NEW.category_id OR OLD.amount IS DISTINCT FROM NEW.amount)
+EXECUTE FUNCTION update_category_receipt_stats();
@@ -0,0 +1,72 @@
+-- Receipt count and amount per day, category, merchant and currency, kept up to date by the
+-- receipt writes themselves so reports read O(days x groups) rows instead of every receipt
+CREATE TABLE daily_receipt_rollups
+(
+    day           DATE           NOT NULL,
+    category_id   UUID,
+    merchant_name VARCHAR(255),
+    currency      VARCHAR(3)     NOT NULL,
+    receipt_count BIGINT         NOT NULL DEFAULT 0,
+    total_amount  DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    -- Raised on every change and never reset, a group that drops to zero receipts is kept for it
+    version       BIGINT         NOT NULL DEFAULT 0,
+    updated_at    TIMESTAMP      NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Category and merchant are optional, the key treats a missing one as its own group
+CREATE UNIQUE INDEX idx_daily_receipt_rollups_key ON daily_receipt_rollups
+    (day, COALESCE(category_id, '00000000-0000-0000-0000-000000000000'), COALESCE(merchant_name, ''), currency);
+
+INSERT INTO daily_receipt_rollups (day, category_id, merchant_name, currency, receipt_count, total_amount, version)
+SELECT date, category_id, merchant_name, currency, COUNT(*), SUM(amount), 1
+FROM receipts
+GROUP BY date, category_id, merchant_name, currency;
+
+CREATE FUNCTION add_daily_receipt_rollup(p_day DATE, p_category_id UUID, p_merchant_name VARCHAR, p_currency VARCHAR,
+                                         p_count BIGINT, p_amount DECIMAL) RETURNS void AS
+$$
+BEGIN
+    INSERT INTO daily_receipt_rollups (day, category_id, merchant_name, currency, receipt_count, total_amount, version,
+                                       updated_at)
+    VALUES (p_day, p_category_id, p_merchant_name, p_currency, p_count, p_amount, 1, CURRENT_TIMESTAMP)
+    ON CONFLICT (day, COALESCE(category_id, '00000000-0000-0000-0000-000000000000'), COALESCE(merchant_name, ''), currency)
+        DO UPDATE SET receipt_count = daily_receipt_rollups.receipt_count + EXCLUDED.receipt_count,
+                      total_amount  = daily_receipt_rollups.total_amount + EXCLUDED.total_amount,
+                      version       = daily_receipt_rollups.version + 1,
+                      updated_at    = EXCLUDED.updated_at;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Runs in the transaction of the receipt write, for JPA as well as for plain SQL such as re-parse runs
+CREATE FUNCTION update_daily_receipt_rollups() RETURNS trigger AS
+$$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        PERFORM add_daily_receipt_rollup(OLD.date, OLD.category_id, OLD.merchant_name, OLD.currency, -1, -OLD.amount);
+    END IF;
+
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        PERFORM add_daily_receipt_rollup(NEW.date, NEW.category_id, NEW.merchant_name, NEW.currency, 1, NEW.amount);
+    END IF;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER receipts_roll_up_daily
+    AFTER INSERT OR DELETE
+    ON receipts
+    FOR EACH ROW
+EXECUTE FUNCTION update_daily_receipt_rollups();
+
+-- JPA writes every column on update, so only fire when a rolled up value really changes
+CREATE TRIGGER receipts_re_roll_up_daily
+    AFTER UPDATE OF date, category_id, merchant_name, currency, amount
+    ON receipts
+    FOR EACH ROW
+    WHEN (OLD.date IS DISTINCT FROM NEW.date
+        OR OLD.category_id IS DISTINCT FROM NEW.category_id
+        OR OLD.merchant_name IS DISTINCT FROM NEW.merchant_name
+        OR OLD.currency IS DISTINCT FROM NEW.currency
+        OR OLD.amount IS DISTINCT FROM NEW.amount)
+EXECUTE FUNCTION update_daily_receipt_rollups();
@@ -0,0 +1,69 @@
+-- The statistics views aggregated all receipts on every read. As materialized views they are read
+-- like tables and refreshed by the application, only after receipts changed.
+DROP VIEW receipt_statistics;
+DROP VIEW monthly_expense_totals;
+
+CREATE MATERIALIZED VIEW receipt_statistics AS
+SELECT DATE_TRUNC('month', r.date)::date AS month,
+       c.id                              AS category_id,
+       c.name                            AS category_name,
+       COUNT(*)                          AS receipt_count,
+       SUM(r.amount)                     AS total_amount,
+       AVG(r.amount)                     AS average_amount,
+       MIN(r.amount)                     AS min_amount,
+       MAX(r.amount)                     AS max_amount
+FROM receipts r
+         LEFT JOIN categories c ON r.category_id = c.id
+GROUP BY DATE_TRUNC('month', r.date), c.id, c.name;
+
+CREATE MATERIALIZED VIEW monthly_expense_totals AS
+SELECT DATE_TRUNC('month', date)::date AS month,
+       COUNT(*)                        AS receipt_count,
+       SUM(amount)                     AS total_amount,
+       AVG(amount)                     AS average_amount
+FROM receipts
+GROUP BY DATE_TRUNC('month', date);
+
+-- REFRESH ... CONCURRENTLY needs a unique index, it keeps the views readable during the refresh
+CREATE UNIQUE INDEX idx_receipt_statistics_key ON receipt_statistics (month, category_id);
+CREATE UNIQUE INDEX idx_monthly_expense_totals_key ON monthly_expense_totals (month);
+
+-- One row per statement that changed the statistics since the last refresh. Writers only insert,
+-- so they never wait for each other or for a refresh; the refresh deletes what it covered.
+CREATE TABLE statistics_changes
+(
+    id         BIGSERIAL PRIMARY KEY,
+    changed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- When the views were last refreshed, the validators of conditional GETs on them
+CREATE TABLE statistics_refreshes
+(
+    view_name    VARCHAR(63) PRIMARY KEY,
+    version      BIGINT    NOT NULL DEFAULT 0,
+    refreshed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+INSERT INTO statistics_refreshes (view_name)
+VALUES ('receipt_statistics'),
+       ('monthly_expense_totals');
+
+CREATE FUNCTION mark_statistics_changed() RETURNS trigger AS
+$$
+BEGIN
+    INSERT INTO statistics_changes DEFAULT VALUES;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER receipts_mark_statistics_changed
+    AFTER INSERT OR DELETE OR TRUNCATE OR UPDATE OF date, amount, category_id
+    ON receipts
+    FOR EACH STATEMENT
+EXECUTE FUNCTION mark_statistics_changed();
+
+CREATE TRIGGER categories_mark_statistics_changed
+    AFTER UPDATE OF name
+    ON categories
+    FOR EACH STATEMENT
+EXECUTE FUNCTION mark_statistics_changed();
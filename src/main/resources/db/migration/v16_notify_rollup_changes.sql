@@ -0,0 +1,21 @@
+-- Every change to the daily rollups, and so to any expense summary, names its day on the
+-- receipt_dates_changed channel. Identical notifications within a transaction are merged and all
+-- of them are sent on commit.
+CREATE FUNCTION notify_receipt_date_changed() RETURNS trigger AS
+$$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        PERFORM pg_notify('receipt_dates_changed', to_char(OLD.day, 'YYYY-MM-DD'));
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        PERFORM pg_notify('receipt_dates_changed', to_char(NEW.day, 'YYYY-MM-DD'));
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER daily_receipt_rollups_notify_changed
+    AFTER INSERT OR UPDATE OR DELETE
+    ON daily_receipt_rollups
+    FOR EACH ROW
+EXECUTE FUNCTION notify_receipt_date_changed();
@@ -0,0 +1,30 @@
+-- Queue for asynchronous receipt uploads, shared by all application nodes
+CREATE TABLE ocr_jobs
+(
+    id                UUID PRIMARY KEY     DEFAULT uuid_generate_v4(),
+    status            VARCHAR(20) NOT NULL,
+    content_type      VARCHAR(100),
+    original_filename VARCHAR(255),
+    category_name     VARCHAR(100),
+    description       TEXT,
+    receipt_id        UUID REFERENCES receipts (id) ON DELETE SET NULL,
+    attempts          INTEGER     NOT NULL DEFAULT 0,
+    error_message     TEXT,
+    locked_by         VARCHAR(255),
+    locked_at         TIMESTAMP,
+    available_at      TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    completed_at      TIMESTAMP,
+    created_at        TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at        TIMESTAMP            DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Image bytes are kept apart so status polling never reads them
+CREATE TABLE ocr_job_payloads
+(
+    job_id     UUID PRIMARY KEY REFERENCES ocr_jobs (id) ON DELETE CASCADE,
+    image_data BYTEA NOT NULL
+);
+
+-- Workers only ever scan pending jobs that are due
+CREATE INDEX idx_ocr_jobs_pending ON ocr_jobs (available_at, created_at) WHERE status = 'PENDING';
+CREATE INDEX idx_ocr_jobs_processing ON ocr_jobs (locked_at) WHERE status = 'PROCESSING';
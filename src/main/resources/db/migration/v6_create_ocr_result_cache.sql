@@ -0,0 +1,10 @@
+-- OCR text keyed by the SHA-256 of the image bytes, shared by all nodes
+CREATE TABLE ocr_result_cache
+(
+    image_hash VARCHAR(64) PRIMARY KEY,
+    raw_text   TEXT      NOT NULL,
+    confidence REAL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_ocr_result_cache_created_at ON ocr_result_cache (created_at);
@@ -0,0 +1,21 @@
+-- Checkpoints of admin re-parse runs over ocr_data, so an interrupted run resumes where it stopped
+CREATE TABLE reparse_runs
+(
+    id               UUID PRIMARY KEY     DEFAULT uuid_generate_v4(),
+    status           VARCHAR(20) NOT NULL,
+    last_ocr_data_id UUID,
+    total_rows       BIGINT,
+    processed_rows   BIGINT      NOT NULL DEFAULT 0,
+    changed_rows     BIGINT      NOT NULL DEFAULT 0,
+    changed_receipts BIGINT      NOT NULL DEFAULT 0,
+    failed_rows      BIGINT      NOT NULL DEFAULT 0,
+    locked_by        VARCHAR(255),
+    error_message    TEXT,
+    started_at       TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    completed_at     TIMESTAMP,
+    created_at       TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at       TIMESTAMP            DEFAULT CURRENT_TIMESTAMP
+);
+
+-- At most one run is active across all nodes
+CREATE UNIQUE INDEX uq_reparse_runs_running ON reparse_runs (status) WHERE status = 'RUNNING';
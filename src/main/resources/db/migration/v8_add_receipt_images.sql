@@ -0,0 +1,6 @@
+-- Original receipt file and its thumbnail, both addressed by SHA-256 in the local image store
+ALTER TABLE receipts
+    ADD COLUMN image_hash         VARCHAR(64),
+    ADD COLUMN image_content_type VARCHAR(50),
+    ADD COLUMN image_size         BIGINT,
+    ADD COLUMN thumbnail_hash     VARCHAR(64);
@@ -0,0 +1,5 @@
+-- Keyset pagination of the receipt list orders and seeks by (date, id), in both directions
+CREATE INDEX idx_receipts_date_id ON receipts (date, id);
+
+-- Covered by the new index
+DROP INDEX idx_receipts_date;
@@ -0,0 +1,107 @@
+package dev.bermeb.expensevault.control.service;
+
+import dev.bermeb.expensevault.config.ImageStoreProperties;
+import dev.bermeb.expensevault.config.OcrPagesProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageStoreTest {
+
+    @TempDir
+    Path root;
+
+    private ImageStore store;
+
+    @BeforeEach
+    void setUp() {
+        ImageStoreProperties properties = new ImageStoreProperties();
+        properties.setRoot(root.toString());
+        store = new ImageStore(properties,
+                new ThumbnailGenerator(properties, new PdfPageRenderer(new OcrPagesProperties())));
+    }
+
+    @Test
+    void storesFilesUnderTheirShardedHashOnce() throws Exception {
+        byte[] png = png(1200, 3000);
+
+        StoredImage first = store.store(png);
+        StoredImage second = store.store(png);
+
+        assertThat(second).isEqualTo(first);
+        assertThat(first.contentType()).isEqualTo("image/png");
+        assertThat(first.size()).isEqualTo(png.length);
+
+        Path path = store.find(first.hash()).orElseThrow();
+        assertThat(root.relativize(path).toString().replace('\\', '/'))
+                .isEqualTo(first.hash().substring(0, 2) + "/" + first.hash().substring(2, 4) + "/" + first.hash());
+        assertThat(Files.readAllBytes(path)).isEqualTo(png);
+        try (var files = Files.walk(root)) {
+            // The file, its thumbnail and the reference from one to the other
+            assertThat(files.filter(Files::isRegularFile).count()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    void reusesTheThumbnailOfAKnownFile() throws Exception {
+        AtomicInteger generated = new AtomicInteger();
+        ImageStoreProperties properties = new ImageStoreProperties();
+        properties.setRoot(root.toString());
+        ImageStore countingStore = new ImageStore(properties,
+                new ThumbnailGenerator(properties, new PdfPageRenderer(new OcrPagesProperties())) {
+                    @Override
+                    public byte[] generate(byte[] data, UploadedImage.Format format) {
+                        generated.incrementAndGet();
+                        return super.generate(data, format);
+                    }
+                });
+        byte[] png = png(800, 600);
+
+        StoredImage first = countingStore.store(png);
+        StoredImage second = countingStore.store(png);
+
+        assertThat(second.thumbnailHash()).isNotNull().isEqualTo(first.thumbnailHash());
+        assertThat(generated).hasValue(1);
+    }
+
+    @Test
+    void generatesSmallJpegThumbnail() throws Exception {
+        StoredImage image = store.store(png(1200, 3000));
+
+        BufferedImage thumbnail = ImageIO.read(store.find(image.thumbnailHash()).orElseThrow().toFile());
+        assertThat(thumbnail.getHeight()).isEqualTo(320);
+        assertThat(thumbnail.getWidth()).isEqualTo(128);
+    }
+
+    @Test
+    void keepsFilesItCannotPreview() {
+        byte[] broken = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, 0, 1, 2, 3};
+
+        StoredImage image = store.store(broken);
+
+        assertThat(image.thumbnailHash()).isNull();
+        assertThat(store.find(image.hash())).isPresent();
+    }
+
+    @Test
+    void ignoresMalformedHashes() {
+        assertThat(store.find("../../etc/passwd")).isEmpty();
+        assertThat(store.find(null)).isEmpty();
+    }
+
+    private static byte[] png(int width, int height) throws Exception {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", buffer);
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,61 @@
+package dev.bermeb.expensevault.control.service;
+
+import dev.bermeb.expensevault.config.UploadProperties;
+import dev.bermeb.expensevault.control.exception.InvalidFileException;
+import dev.bermeb.expensevault.control.exception.UploadCapacityExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ImageUploadServiceTest {
+
+    private static final byte[] PNG_HEADER = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    @Test
+    void detectsFormatFromContentInsteadOfHeader() throws Exception {
+        ImageUploadService service = new ImageUploadService(new UploadProperties(), new SimpleMeterRegistry());
+        MockMultipartFile file = new MockMultipartFile("file", "receipt.bin", "application/octet-stream", png(1024));
+
+        try (UploadedImage image = service.read(file)) {
+            assertThat(image.format()).isEqualTo(UploadedImage.Format.PNG);
+            assertThat(image.size()).isEqualTo(1024);
+        }
+    }
+
+    @Test
+    void rejectsFilesWithUnknownMagicBytes() {
+        ImageUploadService service = new ImageUploadService(new UploadProperties(), new SimpleMeterRegistry());
+        MockMultipartFile file = new MockMultipartFile("file", "receipt.jpg", "image/jpeg", "GIF89a-not-a-jpeg".getBytes());
+
+        assertThatThrownBy(() -> service.read(file)).isInstanceOf(InvalidFileException.class);
+    }
+
+    @Test
+    void rejectsUploadsBeyondBudgetUntilEarlierOnesAreClosed() throws Exception {
+        UploadProperties properties = new UploadProperties();
+        properties.setInFlightBudget(DataSize.ofKilobytes(3));
+        properties.setBudgetWait(Duration.ZERO);
+        ImageUploadService service = new ImageUploadService(properties, new SimpleMeterRegistry());
+        MockMultipartFile file = new MockMultipartFile("file", "receipt.png", "image/png", png(2048));
+
+        UploadedImage first = service.read(file);
+        assertThatThrownBy(() -> service.read(file)).isInstanceOf(UploadCapacityExceededException.class);
+
+        first.close();
+        try (UploadedImage second = service.read(file)) {
+            assertThat(second.size()).isEqualTo(2048);
+        }
+    }
+
+    private static byte[] png(int size) {
+        byte[] data = new byte[size];
+        System.arraycopy(PNG_HEADER, 0, data, 0, PNG_HEADER.length);
+        return data;
+    }
+}
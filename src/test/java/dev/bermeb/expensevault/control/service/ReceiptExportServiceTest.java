@@ -0,0 +1,84 @@
+package dev.bermeb.expensevault.control.service;
+
+import dev.bermeb.expensevault.config.ReceiptListProperties;
+import dev.bermeb.expensevault.entity.model.Category;
+import dev.bermeb.expensevault.entity.model.Receipt;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ReceiptExportService.class, ReceiptListProperties.class})
+class ReceiptExportServiceTest {
+
+    @Autowired
+    private ReceiptExportService receiptExportService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        Category groceries = entityManager.persist(Category.builder().name("Groceries").build());
+
+        entityManager.persist(Receipt.builder()
+                .amount(new BigDecimal("12.50"))
+                .currency("EUR")
+                .merchantName("Billa, Wien")
+                .description("=HYPERLINK(\"http://example.com\")")
+                .date(LocalDate.of(2025, 3, 2))
+                .category(groceries)
+                .build());
+        entityManager.persist(Receipt.builder()
+                .amount(new BigDecimal("3.20"))
+                .currency("EUR")
+                .merchantName("Spar")
+                .date(LocalDate.of(2025, 3, 1))
+                .build());
+        entityManager.flush();
+    }
+
+    @Test
+    void exportsCsvInDateOrderWithQuotedText() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = receiptExportService.export(ReceiptExportFormat.CSV, null, null, null, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertThat(rows).isEqualTo(2);
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).isEqualTo("id,date,amount,currency,merchant_name,description,category,created_at");
+        assertThat(lines[1]).contains(",2025-03-01,3.20,EUR,Spar,,,");
+        assertThat(lines[2]).contains(",2025-03-02,12.50,EUR,\"Billa, Wien\",\"'=HYPERLINK(\"\"http://example.com\"\")\",Groceries,");
+    }
+
+    @Test
+    void exportsFilteredNdjson() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = receiptExportService.export(ReceiptExportFormat.NDJSON, "Groceries",
+                LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31), out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(rows).isEqualTo(1);
+        assertThat(lines).hasSize(1);
+        assertThat(lines[0]).contains("\"date\":\"2025-03-02\"", "\"amount\":12.50", "\"category\":\"Groceries\"");
+    }
+}
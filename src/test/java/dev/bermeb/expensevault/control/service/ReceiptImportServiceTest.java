@@ -0,0 +1,146 @@
+package dev.bermeb.expensevault.control.service;
+
+import dev.bermeb.expensevault.boundary.dto.response.OcrResult;
+import dev.bermeb.expensevault.boundary.dto.response.ReceiptImportResult;
+import dev.bermeb.expensevault.config.ReceiptImportProperties;
+import dev.bermeb.expensevault.config.UploadProperties;
+import dev.bermeb.expensevault.control.exception.UploadCapacityExceededException;
+import dev.bermeb.expensevault.entity.model.Receipt;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReceiptImportServiceTest {
+
+    private static final byte[] PNG_HEADER = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    private final OcrService ocrService = mock(OcrService.class);
+    private final ReceiptIngestionService ingestionService = mock(ReceiptIngestionService.class);
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    private ReceiptImportService service;
+
+    @BeforeEach
+    void setUp() {
+        executor.setCorePoolSize(2);
+        executor.initialize();
+
+        ReceiptImportProperties properties = new ReceiptImportProperties();
+        properties.setConcurrency(2);
+        properties.setMaxConcurrentImports(1);
+        properties.setBatchSize(2);
+
+        service = new ReceiptImportService(properties, new UploadProperties(),
+                new ImageUploadService(new UploadProperties(), new SimpleMeterRegistry()),
+                ocrService, ingestionService, mock(ImageStore.class), executor);
+
+        when(ingestionService.storeAll(anyList(), any(), any())).thenAnswer(invocation -> {
+            List<RecognizedReceipt> batch = invocation.getArgument(0);
+            List<Receipt> receipts = new ArrayList<>();
+            for (RecognizedReceipt recognized : batch) {
+                receipts.add(Receipt.builder()
+                        .id(UUID.randomUUID())
+                        .amount(recognized.ocrResult().getTotalAmount())
+                        .currency("EUR")
+                        .build());
+            }
+            return receipts;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void importsEveryReceiptFileAndReportsEachEntry() throws Exception {
+        when(ocrService.extractReceiptData(any(byte[].class), anyBoolean())).thenAnswer(invocation -> {
+            byte[] data = invocation.getArgument(0);
+            // The byte after the PNG header tells the test images apart
+            return OcrResult.builder()
+                    .totalAmount(data[8] == 0 ? null : BigDecimal.valueOf(data[8]))
+                    .build();
+        });
+
+        byte[] archive = zip(
+                "a.png", png(1),
+                "b.png", png(2),
+                "c.png", png(3),
+                "unreadable.png", png(0),
+                "notes.txt", "not a receipt".getBytes(),
+                "__MACOSX/._a.png", png(4));
+
+        List<ReceiptImportResult> results = new CopyOnWriteArrayList<>();
+        service.importArchive(new ByteArrayInputStream(archive), "Groceries", null, results::add);
+
+        assertThat(results).filteredOn(r -> r.getStatus() == ReceiptImportResult.Status.IMPORTED)
+                .extracting(ReceiptImportResult::getEntry)
+                .containsExactlyInAnyOrder("a.png", "b.png", "c.png");
+        assertThat(results).filteredOn(r -> r.getStatus() == ReceiptImportResult.Status.SKIPPED)
+                .extracting(ReceiptImportResult::getEntry)
+                .containsExactly("notes.txt");
+        assertThat(results).filteredOn(r -> r.getStatus() == ReceiptImportResult.Status.FAILED)
+                .extracting(ReceiptImportResult::getEntry)
+                .containsExactly("unreadable.png");
+
+        ReceiptImportResult summary = results.get(results.size() - 1);
+        assertThat(summary.getStatus()).isEqualTo(ReceiptImportResult.Status.COMPLETED);
+        assertThat(summary.getImported()).isEqualTo(3);
+        assertThat(summary.getSkipped()).isEqualTo(1);
+        assertThat(summary.getFailed()).isEqualTo(1);
+
+        verify(ingestionService, atLeastOnce()).storeAll(anyList(), eq("Groceries"), eq(null));
+    }
+
+    @Test
+    void turnsAwayImportsBeyondTheNodeLimit() {
+        ReceiptImportService.Slot slot = service.reserveSlot();
+        assertThatThrownBy(service::reserveSlot).isInstanceOf(UploadCapacityExceededException.class);
+
+        slot.close();
+        service.reserveSlot().close();
+    }
+
+    private static byte[] png(int marker) {
+        byte[] data = new byte[64];
+        System.arraycopy(PNG_HEADER, 0, data, 0, PNG_HEADER.length);
+        data[8] = (byte) marker;
+        return data;
+    }
+
+    private static byte[] zip(Object... namesAndContents) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(buffer)) {
+            for (int i = 0; i < namesAndContents.length; i += 2) {
+                zip.putNextEntry(new ZipEntry((String) namesAndContents[i]));
+                zip.write((byte[]) namesAndContents[i + 1]);
+                zip.closeEntry();
+            }
+        }
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,155 @@
+package dev.bermeb.expensevault.control.service;
+
+import dev.bermeb.expensevault.config.NotificationProperties;
+import dev.bermeb.expensevault.config.ReportCacheProperties;
+import dev.bermeb.expensevault.entity.model.Category;
+import dev.bermeb.expensevault.entity.model.OcrData;
+import dev.bermeb.expensevault.entity.model.Receipt;
+import dev.bermeb.expensevault.entity.repository.ReceiptListItem;
+import dev.bermeb.expensevault.entity.repository.ReceiptView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The receipt list must cost one statement per page, however many receipts, categories and
+ * OCR rows the page holds.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ReceiptService.class, ExtractedFieldsWriter.class, CategoryCache.class, ReportCache.class,
+        ReportCacheProperties.class, NotificationProperties.class, SimpleMeterRegistry.class})
+class ReceiptListStatementCountTest {
+
+    private static final int RECEIPTS = 25;
+    private static final int PAGE_SIZE = 10;
+
+    @Autowired
+    private ReceiptService receiptService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        Category groceries = entityManager.persist(Category.builder().name("Groceries").color("#00FF00").build());
+        Category fuel = entityManager.persist(Category.builder().name("Fuel").build());
+
+        for (int i = 0; i < RECEIPTS; i++) {
+            Receipt receipt = entityManager.persist(Receipt.builder()
+                    .amount(BigDecimal.valueOf(10 + i))
+                    .currency("EUR")
+                    .date(LocalDate.of(2025, 1, 1).plusDays(i / 2))
+                    .category(i % 3 == 0 ? null : (i % 3 == 1 ? groceries : fuel))
+                    .build());
+            if (i % 5 != 0) {
+                entityManager.persist(OcrData.builder()
+                        .receipt(receipt)
+                        .rawText("SUMME " + (10 + i) + ",00")
+                        .confidence(0.9f)
+                        .processedAt(LocalDateTime.now())
+                        .extractedFields("{\"detectedAmount\":" + (10 + i) + "}")
+                        .build());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void readsEveryPageWithOneStatement() {
+        List<ReceiptListItem> all = new ArrayList<>();
+        ReceiptCursor cursor = null;
+        int pages = 0;
+        do {
+            long before = statistics.getPrepareStatementCount();
+            ReceiptPage page = receiptService.findPage(null, null, null, Sort.Direction.DESC, cursor, PAGE_SIZE, ReceiptView.STANDARD);
+            assertThat(statistics.getPrepareStatementCount() - before).isEqualTo(1);
+
+            all.addAll(page.receipts());
+            cursor = page.next();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(all).hasSize(RECEIPTS);
+        assertThat(all).extracting(ReceiptListItem::id).doesNotHaveDuplicates();
+        assertThat(all).extracting(ReceiptListItem::date).isSortedAccordingTo((a, b) -> b.compareTo(a));
+        assertThat(all).filteredOn(r -> r.categoryId() != null).extracting(ReceiptListItem::categoryName)
+                .containsOnly("Groceries", "Fuel");
+        assertThat(all).filteredOn(r -> r.ocrProcessedAt() != null).hasSize(20)
+                .allSatisfy(r -> {
+                    assertThat(r.ocrExtractedFields()).contains("detectedAmount");
+                    assertThat(r.ocrRawText()).isNull();
+                });
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void readsRawTextOnlyWhenAsked() {
+        ReceiptPage page = receiptService.findPage("Groceries", null, null, Sort.Direction.ASC, null, PAGE_SIZE, ReceiptView.FULL);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(page.receipts()).isNotEmpty().allSatisfy(r -> assertThat(r.categoryName()).isEqualTo("Groceries"));
+        assertThat(page.receipts()).filteredOn(r -> r.ocrProcessedAt() != null)
+                .allSatisfy(r -> assertThat(r.ocrRawText()).startsWith("SUMME"));
+    }
+
+    @Test
+    void summaryReadsNeitherOcrDataNorDetails() {
+        ReceiptPage page = receiptService.findPage(null, null, null, Sort.Direction.DESC, null, PAGE_SIZE, ReceiptView.SUMMARY);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(page.receipts()).hasSize(PAGE_SIZE).allSatisfy(r -> {
+            assertThat(r.amount()).isNotNull();
+            assertThat(r.date()).isNotNull();
+            assertThat(r.createdAt()).isNull();
+            assertThat(r.ocrProcessedAt()).isNull();
+            assertThat(r.ocrExtractedFields()).isNull();
+        });
+        assertThat(page.next()).isNotNull();
+    }
+
+    @Test
+    void entityPathWouldLoadOcrDataPerReceipt() {
+        // Documents why the list has its own read path
+        List<Receipt> receipts = entityManager.getEntityManager()
+                .createQuery("SELECT r FROM Receipt r", Receipt.class)
+                .setMaxResults(PAGE_SIZE)
+                .getResultList();
+
+        assertThat(receipts).hasSize(PAGE_SIZE);
+        assertThat(statistics.getPrepareStatementCount()).isGreaterThan(PAGE_SIZE);
+    }
+
+}
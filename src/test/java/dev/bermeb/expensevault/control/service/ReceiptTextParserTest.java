@@ -0,0 +1,144 @@
+package dev.bermeb.expensevault.control.service;
+
+import dev.bermeb.expensevault.boundary.dto.response.OcrResult;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReceiptTextParserTest {
+
+    private final ReceiptTextParser parser = new ReceiptTextParser(new ReceiptRuleSets());
+
+    @Test
+    void parsesGermanSupermarketReceipt() {
+        String text = """
+                REWE Markt GmbH
+                Hauptstrasse 12
+                BUTTER                 2,29 A
+                ROGGENBROT 750G        2,49 A
+                SUMME:                 4,78
+                14.03.24  18:42
+                """;
+
+        OcrResult result = parser.parse(text, 0.9f);
+
+        assertThat(result.getTotalAmount()).isEqualTo(new BigDecimal("4.78"));
+        assertThat(result.getDate()).isEqualTo(LocalDate.of(2024, 3, 14));
+        assertThat(result.getMerchantName()).isEqualTo("REWE Markt GmbH");
+        assertThat(result.getDetectedItems()).containsExactly(
+                "BUTTER                 2,29 A",
+                "ROGGENBROT 750G        2,49 A",
+                "SUMME:                 4,78");
+        assertThat(result.getConfidence()).isEqualTo(0.9f);
+    }
+
+    @Test
+    void fallsBackToLargestEuroAmountWithoutTotalKeyword() {
+        // Same as the former regex parser: amounts need an EUR suffix, thousands separators are not understood
+        OcrResult result = parser.parse("Kiosk\n1,50 EUR\n1.049,00 EUR\n12,00\n", 1.0f);
+
+        assertThat(result.getTotalAmount()).isEqualTo(new BigDecimal("1.50"));
+    }
+
+    @Test
+    void returnsNullsForTextWithoutReceiptData() {
+        OcrResult result = parser.parse("12\n--\n31.02.2024", 1.0f);
+
+        assertThat(result.getTotalAmount()).isNull();
+        assertThat(result.getDate()).isNull();
+        assertThat(result.getMerchantName()).isNull();
+        assertThat(result.getDetectedItems()).isEmpty();
+    }
+
+    @Test
+    void stitchesPagesOfMultiPageReceipts() {
+        String text = "Hotel Adler\nZimmer 12        89,00\nSumme:          89,00"
+                + ReceiptTextParser.PAGE_BREAK
+                + "02.05.2024\nMinibar          12,50\nGesamt:        101,50";
+
+        OcrResult result = parser.parse(text, 0.8f);
+
+        assertThat(result.getMerchantName()).isEqualTo("Hotel Adler");
+        assertThat(result.getDate()).isEqualTo(LocalDate.of(2024, 5, 2));
+        assertThat(result.getTotalAmount()).isEqualTo(new BigDecimal("101.50"));
+        assertThat(result.getDetectedItems()).hasSize(4);
+    }
+
+    @Test
+    void detectsBritishReceiptWithPoundsAndThousandsSeparators() {
+        String text = """
+                Harrow Garden Centre
+                Oak table              1,249.00
+                Subtotal               1,249.00
+                VAT 20%                  208.17
+                TOTAL                £1,249.00
+                Card: contactless
+                05/04/2024 14:02
+                """;
+
+        OcrResult result = parser.parse(text, 0.9f);
+
+        assertThat(result.getLocale()).isEqualTo("en-GB");
+        assertThat(result.getCurrency()).isEqualTo("GBP");
+        assertThat(result.getTotalAmount()).isEqualTo(new BigDecimal("1249.00"));
+        assertThat(result.getDate()).isEqualTo(LocalDate.of(2024, 4, 5));
+        assertThat(result.getMerchantName()).isEqualTo("Harrow Garden Centre");
+    }
+
+    @Test
+    void readsAmericanDatesMonthFirst() {
+        String text = "Corner Deli\nSandwich 8.50\nSales tax 0.68\nTip 2.00\nTotal: $11.18\n05/04/2024\n";
+
+        OcrResult result = parser.parse(text, 0.9f);
+
+        assertThat(result.getLocale()).isEqualTo("en-US");
+        assertThat(result.getCurrency()).isEqualTo("USD");
+        assertThat(result.getTotalAmount()).isEqualTo(new BigDecimal("11.18"));
+        assertThat(result.getDate()).isEqualTo(LocalDate.of(2024, 5, 4));
+    }
+
+    @Test
+    void leavesDateAndCurrencyOpenForEnglishReceiptWithOnlySharedKeywords() {
+        // "total", "cash" and "change" fit British and American receipts alike, 05/04 could be either
+        String text = "Corner Store\nMilk 3.49\nTotal 3.49\nCash 5.00\nChange 1.51\n05/04/2024\n";
+
+        OcrResult result = parser.parse(text, 0.9f);
+
+        assertThat(result.getLocale()).isNull();
+        assertThat(result.getTotalAmount()).isEqualTo(new BigDecimal("3.49"));
+        assertThat(result.getDate()).isNull();
+        assertThat(result.getCurrency()).isNull();
+    }
+
+    @Test
+    void readsSparseSpanishReceiptWithCommaDecimals() {
+        String text = "Cafeteria Sol\nTOTAL 12,50\n03/02/2024\n";
+
+        OcrResult result = parser.parse(text, 0.9f);
+
+        assertThat(result.getLocale()).isNull();
+        assertThat(result.getTotalAmount()).isEqualTo(new BigDecimal("12.50"));
+        assertThat(result.getDate()).isNull();
+        assertThat(result.getCurrency()).isNull();
+    }
+
+    @Test
+    void detectsFrenchReceipt() {
+        String text = "Boulangerie Martin\nBaguette 1,20\nTVA 5,5% 0,07\nNet à payer : 1 234,50 EUR\nMerci de votre visite\n";
+
+        OcrResult result = parser.parse(text, 0.9f);
+
+        assertThat(result.getLocale()).isEqualTo("fr");
+        assertThat(result.getTotalAmount()).isEqualTo(new BigDecimal("1234.50"));
+        assertThat(result.getCurrency()).isEqualTo("EUR");
+    }
+
+    @Test
+    void takesCurrencyFromMarkersAndDefaultsToEuro() {
+        assertThat(parser.parse("Migros\nSumme CHF 12,40\n", 1.0f).getCurrency()).isEqualTo("CHF");
+        assertThat(parser.parse("Kiosk\nSumme 3,10\n", 1.0f).getCurrency()).isEqualTo("EUR");
+    }
+}
@@ -0,0 +1,120 @@
+package dev.bermeb.expensevault.control.service;
+
+import dev.bermeb.expensevault.entity.model.Category;
+import dev.bermeb.expensevault.entity.model.Receipt;
+import dev.bermeb.expensevault.entity.repository.ReceiptListItem;
+import dev.bermeb.expensevault.entity.repository.ReceiptView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ResourceVersionService.class)
+@Sql(statements = "CREATE TABLE IF NOT EXISTS daily_receipt_rollups (day DATE NOT NULL, category_id UUID, " +
+        "merchant_name VARCHAR(255), currency VARCHAR(3) NOT NULL, receipt_count BIGINT NOT NULL, " +
+        "total_amount DECIMAL(14, 2) NOT NULL, version BIGINT NOT NULL, updated_at TIMESTAMP NOT NULL)")
+class ResourceVersionServiceTest {
+
+    private static final String INSERT_ROLLUP = "INSERT INTO daily_receipt_rollups " +
+            "(day, currency, receipt_count, total_amount, version, updated_at) VALUES (?, 'EUR', 1, 3.20, 1, CURRENT_TIMESTAMP)";
+
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Category groceries;
+    private Receipt receipt;
+
+    @BeforeEach
+    void setUp() {
+        groceries = entityManager.persist(Category.builder().name("Groceries").build());
+        receipt = entityManager.persist(Receipt.builder()
+                .amount(new BigDecimal("12.50"))
+                .currency("EUR")
+                .date(LocalDate.of(2025, 3, 2))
+                .category(groceries)
+                .build());
+        entityManager.flush();
+    }
+
+    @Test
+    void receiptVersionChangesWithTheReceiptAndItsCategory() {
+        ResourceVersion before = resourceVersionService.receipt(receipt.getId()).orElseThrow();
+
+        receipt.setAmount(new BigDecimal("13.00"));
+        entityManager.flush();
+        ResourceVersion afterUpdate = resourceVersionService.receipt(receipt.getId()).orElseThrow();
+
+        groceries.setColor("#00FF00");
+        entityManager.flush();
+        ResourceVersion afterCategoryUpdate = resourceVersionService.receipt(receipt.getId()).orElseThrow();
+
+        assertThat(afterUpdate.etag()).isNotEqualTo(before.etag());
+        assertThat(afterCategoryUpdate.etag()).isNotEqualTo(afterUpdate.etag());
+        assertThat(resourceVersionService.receipt(UUID.randomUUID())).isEmpty();
+    }
+
+    @Test
+    void pageVersionChangesWithItsReceiptsAndNextCursor() {
+        ReceiptListItem item = listItem(receipt.getId(), "12.50");
+        ReceiptPage page = new ReceiptPage(List.of(item), null);
+        ResourceVersion before = resourceVersionService.receiptPage(page, ReceiptView.STANDARD);
+
+        ResourceVersion same = resourceVersionService.receiptPage(new ReceiptPage(List.of(item), null), ReceiptView.STANDARD);
+        ResourceVersion afterUpdate = resourceVersionService.receiptPage(
+                new ReceiptPage(List.of(listItem(receipt.getId(), "13.00")), null), ReceiptView.STANDARD);
+        ResourceVersion withNext = resourceVersionService.receiptPage(new ReceiptPage(List.of(item),
+                new ReceiptCursor(item.date(), UUID.randomUUID(), Sort.Direction.DESC)), ReceiptView.STANDARD);
+        ResourceVersion afterDelete = resourceVersionService.receiptPage(new ReceiptPage(List.of(), null), ReceiptView.STANDARD);
+
+        assertThat(same.etag()).isEqualTo(before.etag());
+        assertThat(afterUpdate.etag()).isNotEqualTo(before.etag());
+        assertThat(withNext.etag()).isNotEqualTo(before.etag());
+        assertThat(afterDelete.etag()).isNotEqualTo(before.etag());
+        assertThat(resourceVersionService.receiptPage(page, ReceiptView.SUMMARY).etag()).isNotEqualTo(before.etag());
+        assertThat(before.lastModified()).isNull();
+    }
+
+    @Test
+    void reportVersionOnlyCoversTheRollupsOfItsPeriod() {
+        ResourceVersion march = resourceVersionService.report("summary", LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31));
+
+        // The rollups are maintained by PostgreSQL triggers, written directly here
+        jdbcTemplate.update(INSERT_ROLLUP, LocalDate.of(2025, 4, 1));
+        ResourceVersion marchAfterApril = resourceVersionService.report("summary", LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31));
+
+        jdbcTemplate.update(INSERT_ROLLUP, LocalDate.of(2025, 3, 2));
+        ResourceVersion marchAfterMarch = resourceVersionService.report("summary", LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31));
+
+        assertThat(marchAfterApril.etag()).isEqualTo(march.etag());
+        assertThat(marchAfterMarch.etag()).isNotEqualTo(march.etag());
+        assertThat(marchAfterMarch.lastModified()).isNotNull();
+    }
+
+    private static ReceiptListItem listItem(UUID id, String amount) {
+        return new ReceiptListItem(id, new BigDecimal(amount), "EUR", null, null, LocalDate.of(2025, 3, 2),
+                null, null, null, null, null, "Groceries", null, null, null, null, null, null);
+    }
+}